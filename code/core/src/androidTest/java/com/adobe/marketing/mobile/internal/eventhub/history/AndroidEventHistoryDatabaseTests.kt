@@ -15,6 +15,7 @@ import android.content.ContentValues
 import android.content.Context
 import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
+import com.adobe.marketing.mobile.EventHistoryResult
 import com.adobe.marketing.mobile.TestUtils
 import com.adobe.marketing.mobile.internal.util.FileUtils.deleteFile
 import com.adobe.marketing.mobile.internal.util.SQLiteDatabaseHelper
@@ -29,6 +30,7 @@ import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.io.File
+import java.util.concurrent.TimeUnit
 
 @RunWith(AndroidJUnit4::class)
 class AndroidEventHistoryDatabaseTests {
@@ -138,6 +140,60 @@ class AndroidEventHistoryDatabaseTests {
         assertEquals(15, deleteCount)
     }
 
+    @Test
+    fun testInsertAllThenSelect_Happy() {
+        val startTimestamp = 1000000L
+        val hashes = LongArray(100) { if (it % 2 == 0) 1111111111L else 222222222L }
+        val timestamps = LongArray(100) { startTimestamp + it }
+
+        assertTrue(androidEventHistoryDatabase.insertAll(hashes, timestamps))
+
+        val result = androidEventHistoryDatabase.query(1111111111, 0, startTimestamp + 100)
+        assertEquals(50, result.count)
+        assertEquals(startTimestamp, result.oldestOccurrence)
+        assertEquals(startTimestamp + 98, result.newestOccurrence)
+    }
+
+    @Test
+    fun testQueryAll_MatchesSingleQueries() {
+        assertTrue(
+            androidEventHistoryDatabase.insertAll(
+                longArrayOf(1, 1, 2, 2, 3, 3),
+                longArrayOf(100, 300, 200, 400, 150, 500)
+            )
+        )
+        val hashes = longArrayOf(2, 1, 4, 3)
+        val from = LongArray(4) { 0 }
+        val to = LongArray(4) { 1000 }
+
+        val unordered = androidEventHistoryDatabase.queryAll(hashes, from, to, false)
+        hashes.forEachIndexed { index, hash ->
+            assertEquals(androidEventHistoryDatabase.query(hash, 0, 1000), unordered[index])
+        }
+
+        // Each range starts at the oldest occurrence matched by the previous one
+        val ordered = androidEventHistoryDatabase.queryAll(hashes, from, to, true)
+        assertEquals(EventHistoryResult(2, 200, 400), ordered[0])
+        assertEquals(EventHistoryResult(1, 300, 300), ordered[1])
+        assertEquals(EventHistoryResult(0), ordered[2])
+        assertEquals(EventHistoryResult(2, 150, 500), ordered[3])
+    }
+
+    @Test
+    fun testInsertAll_DatabasesDeleted() {
+        assertTrue(androidEventHistoryDatabase.insert(222222222, System.currentTimeMillis()))
+
+        // delete database while the connection is open
+        databaseFile.delete()
+
+        assertFalse(
+            androidEventHistoryDatabase.insertAll(
+                longArrayOf(222222222, 333333333),
+                longArrayOf(System.currentTimeMillis(), System.currentTimeMillis())
+            )
+        )
+    }
+
     @Test(expected = EventHistoryDatabaseCreationException::class)
     fun testInsert_ApplicationContextIsNull() {
         val mockAppContextService = MockAppContextService()
@@ -210,6 +266,165 @@ class AndroidEventHistoryDatabaseTests {
         assertEquals(1, query2?.count)
     }
 
+    @Test
+    fun testSchemaMigration_AddsIndexToExistingDatabase() {
+        // create an unindexed database with existing rows, as written by previous versions
+        val previousTimestamp = System.currentTimeMillis()
+        SQLiteDatabaseHelper.process(
+            databaseFile.path,
+            SQLiteDatabaseHelper.DatabaseOpenMode.READ_WRITE
+        ) { database ->
+            database?.execSQL("CREATE TABLE IF NOT EXISTS $TABLE_NAME (eventHash INTEGER, timestamp INTEGER);")
+            database?.version = 0
+            database?.insert(
+                TABLE_NAME, null,
+                ContentValues().apply {
+                    put(COLUMN_HASH, 1111111111)
+                    put(COLUMN_TIMESTAMP, previousTimestamp)
+                }
+            )
+            true
+        }
+
+        val eventHistoryDatabase = AndroidEventHistoryDatabase()
+
+        var indexed = false
+        var version = 0
+        SQLiteDatabaseHelper.process(
+            databaseFile.path,
+            SQLiteDatabaseHelper.DatabaseOpenMode.READ_ONLY
+        ) { database ->
+            database?.rawQuery(
+                "SELECT name FROM sqlite_master WHERE type = 'index' AND tbl_name = ?",
+                arrayOf(TABLE_NAME)
+            )?.use { indexed = it.count == 1 }
+            version = database?.version ?: 0
+            true
+        }
+        assertTrue(indexed)
+        assertEquals(2, version)
+
+        // existing rows remain queryable
+        val res = eventHistoryDatabase.query(1111111111, 0, System.currentTimeMillis())
+        assertEquals(1, res.count)
+        assertEquals(previousTimestamp, res.oldestOccurrence)
+    }
+
+    @Test
+    fun testEnforceRetention_MaxAgeRollsUpRowsKeepingCounts() {
+        val day = TimeUnit.DAYS.toMillis(1)
+        val now = 10 * day
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxAgeMS = 2 * day))
+        // four events a day over the last ten days
+        val timestamps = LongArray(40) { it * day / 4 }
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(40) { 1111111111 }, timestamps))
+
+        while (eventHistoryDatabase.enforceRetention(now) > 0) {
+            // repeat until within bounds
+        }
+
+        assertEquals(EventHistoryResult(40, 0, timestamps.last()), eventHistoryDatabase.query(1111111111, 0, now))
+        // whole days before the cutoff were rolled up, the last two days are untouched
+        assertEquals(4, eventHistoryDatabase.query(1111111111, 3 * day, 4 * day - 1).count)
+        assertEquals(1, eventHistoryDatabase.query(1111111111, 9 * day, 9 * day).count)
+        assertEquals(8 + 8, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+    }
+
+    @Test
+    fun testEnforceRetention_MaxRowsPerHashRollsUpOldestRows() {
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxRowsPerHash = 5))
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(20) { 1111111111 }, LongArray(20) { it * 1000L }))
+        assertTrue(eventHistoryDatabase.insertAll(longArrayOf(222222222), longArrayOf(500)))
+
+        while (eventHistoryDatabase.enforceRetention(System.currentTimeMillis()) > 0) {
+            // repeat until within bounds
+        }
+
+        assertEquals(EventHistoryResult(20, 0, 19000), eventHistoryDatabase.query(1111111111, 0, 20000))
+        assertEquals(1, eventHistoryDatabase.query(222222222, 0, 20000).count)
+        // one summary row and five rows for the first hash, one row for the second
+        assertEquals(7, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+    }
+
+    @Test
+    fun testEnforceRetention_MaxRowsPerHashRollsUpPerDay() {
+        val day = TimeUnit.DAYS.toMillis(1)
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxRowsPerHash = 2))
+        // two events a day over three days
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(6) { 1111111111 }, LongArray(6) { it * day / 2 }))
+
+        while (eventHistoryDatabase.enforceRetention(3 * day) > 0) {
+            // repeat until within bounds
+        }
+
+        // the first two days were rolled up separately, so a range starting on the second day counts it
+        assertEquals(EventHistoryResult(4, day, 5 * day / 2), eventHistoryDatabase.query(1111111111, day, 3 * day))
+        assertEquals(6, eventHistoryDatabase.query(1111111111, 0, 3 * day).count)
+        assertEquals(4, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+    }
+
+    @Test
+    fun testEnforceRetention_MaxRowsKeepsRecentRowsAlongsideSummaryRows() {
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxRows = 1, maxRowsPerHash = 1))
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(5) { 1111111111 }, LongArray(5) { it * 1000L }))
+
+        while (eventHistoryDatabase.enforceRetention(System.currentTimeMillis()) > 0) {
+            // repeat until within bounds
+        }
+
+        // the summary of the four oldest rows does not count towards the newest row
+        assertEquals(EventHistoryResult(5, 0, 4000), eventHistoryDatabase.query(1111111111, 0, 5000))
+        assertEquals(1, eventHistoryDatabase.query(1111111111, 4000, 5000).count)
+        assertEquals(2, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+    }
+
+    @Test
+    fun testEnforceRetention_MaxRowsMergesSummaryRows() {
+        val day = TimeUnit.DAYS.toMillis(1)
+        val now = 10 * day
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxAgeMS = day, maxRows = 1))
+        // one event a day over three days, each rolled up into its own summary row
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(3) { 1111111111 }, LongArray(3) { it * day }))
+
+        while (eventHistoryDatabase.enforceRetention(now) > 0) {
+            // repeat until within bounds
+        }
+
+        assertEquals(EventHistoryResult(3, 0, 2 * day), eventHistoryDatabase.query(1111111111, 0, now))
+        assertEquals(1, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+
+        // a recent event is kept although the summary rows fill the bound
+        assertTrue(eventHistoryDatabase.insertAll(longArrayOf(1111111111), longArrayOf(now)))
+        while (eventHistoryDatabase.enforceRetention(now) > 0) {
+            // repeat until within bounds
+        }
+
+        assertEquals(EventHistoryResult(4, 0, now), eventHistoryDatabase.query(1111111111, 0, now))
+        assertEquals(2, SQLiteDatabaseHelper.getTableSize(databaseFile.path, TABLE_NAME))
+    }
+
+    @Test
+    fun testEnforceRetention_MaxRowsDeletesOldestRows() {
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxRows = 10))
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(15) { 1111111111 }, LongArray(15) { it * 1000L }))
+
+        assertEquals(5, eventHistoryDatabase.enforceRetention(System.currentTimeMillis()))
+        assertEquals(0, eventHistoryDatabase.enforceRetention(System.currentTimeMillis()))
+
+        assertEquals(EventHistoryResult(10, 5000, 14000), eventHistoryDatabase.query(1111111111, 0, 20000))
+    }
+
+    @Test
+    fun testDelete_CountsRolledUpEvents() {
+        val eventHistoryDatabase = AndroidEventHistoryDatabase(EventHistoryRetention(maxRowsPerHash = 1))
+        assertTrue(eventHistoryDatabase.insertAll(LongArray(5) { 1111111111 }, LongArray(5) { it * 1000L }))
+        while (eventHistoryDatabase.enforceRetention(System.currentTimeMillis()) > 0) {
+            // repeat until within bounds
+        }
+
+        assertEquals(5, eventHistoryDatabase.delete(1111111111, 0, 5000))
+    }
+
     @Test
     fun testQuery_noRecordExists() {
         // create new event history database
@@ -24,12 +24,15 @@ import com.adobe.marketing.mobile.copyWithNewTimeStamp
 import com.adobe.marketing.mobile.services.MockAppContextService
 import com.adobe.marketing.mobile.services.ServiceProviderModifier
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
 import org.junit.Assert.assertTrue
 import org.junit.Assert.fail
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.io.File
 import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 
 @RunWith(AndroidJUnit4::class)
 class AndroidEventHistoryTests {
@@ -105,6 +108,106 @@ class AndroidEventHistoryTests {
         assertTrue(latch.await(5, java.util.concurrent.TimeUnit.SECONDS))
     }
 
+    @Test
+    fun testRecordEventBatch_CallbacksCompletedAndQueryable() {
+        val data = mapOf("key" to "value")
+        val eventCount = 200
+        val latch = CountDownLatch(eventCount)
+        val successes = AtomicInteger(0)
+        repeat(eventCount) {
+            androidEventHistory.recordEvent(
+                Event.Builder("name", "type", "source").setEventData(data).build(),
+                object : AdobeCallbackWithError<Boolean> {
+                    override fun call(result: Boolean) {
+                        if (result) successes.incrementAndGet()
+                        latch.countDown()
+                    }
+
+                    override fun fail(error: AdobeError) {
+                        latch.countDown()
+                    }
+                }
+            )
+        }
+
+        // Query issued before the batches commit still observes every recorded event
+        val results = query(arrayOf(EventHistoryRequest(data, 0, 0)), false)
+        assertEquals(eventCount, results[0].count)
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS))
+        assertEquals(eventCount, successes.get())
+    }
+
+    @Test
+    fun testGetEvents_CachedSummaryReflectsRecordAndDelete() {
+        val data = mapOf("key" to "value")
+        assertTrue(record(data, 1000))
+        val requests = arrayOf(EventHistoryRequest(data, 0, 0))
+
+        // First query loads the summary, later ones are answered from memory
+        assertEquals(EventHistoryResult(1, 1000, 1000), query(requests, false)[0])
+
+        assertTrue(record(data, 2000))
+        assertEquals(EventHistoryResult(2, 1000, 2000), query(requests, false)[0])
+
+        assertEquals(2, delete(requests))
+        assertEquals(0, query(requests, false)[0].count)
+    }
+
+    @Test
+    fun testGetEvents_CachedSummaryCallsBackOnCallingThread() {
+        val data = mapOf("key" to "value")
+        assertTrue(record(data, 1000))
+        val requests = arrayOf(EventHistoryRequest(data, 0, 0))
+        query(requests, false)
+
+        var callbackThread: Thread? = null
+        var cachedResult: EventHistoryResult? = null
+        androidEventHistory.getEvents(
+            requests, false,
+            object : AdobeCallbackWithError<Array<EventHistoryResult>> {
+                override fun call(result: Array<EventHistoryResult>) {
+                    callbackThread = Thread.currentThread()
+                    cachedResult = result[0]
+                }
+
+                override fun fail(error: AdobeError) {
+                    callbackThread = Thread.currentThread()
+                }
+            }
+        )
+
+        // Answered from memory before getEvents returns
+        assertEquals(Thread.currentThread(), callbackThread)
+        assertEquals(EventHistoryResult(1, 1000, 1000), cachedResult)
+    }
+
+    @Test
+    fun testGetEvents_UncachedQueryCallsBackOnEventHistoryThread() {
+        val data = mapOf("key" to "value")
+        assertTrue(record(data, 1000))
+        val requests = arrayOf(EventHistoryRequest(data, 0, 0))
+
+        val latch = CountDownLatch(1)
+        var callbackThread: Thread? = null
+        androidEventHistory.getEvents(
+            requests, false,
+            object : AdobeCallbackWithError<Array<EventHistoryResult>> {
+                override fun call(result: Array<EventHistoryResult>) {
+                    callbackThread = Thread.currentThread()
+                    latch.countDown()
+                }
+
+                override fun fail(error: AdobeError) {
+                    latch.countDown()
+                }
+            }
+        )
+
+        assertTrue(latch.await(1, TimeUnit.SECONDS))
+        assertNotEquals(Thread.currentThread(), callbackThread)
+    }
+
     @Test
     fun testGetEventsWithEnforceOrder() {
         val data = mapOf("key" to "value")
@@ -137,6 +137,35 @@ public final class Event {
             return this;
         }
 
+        /**
+         * Sets the data for this {@code Event} without copying it. Accepts the same values as
+         * {@link #setEventData(Map)}.
+         *
+         * <p>Use this when {@code data} was built only for this event: the builder takes ownership
+         * of it and of every map and list nested in it, and makes them immutable in place. The
+         * caller must not modify or retain {@code data} afterwards.
+         *
+         * @param data Data associated with this {@link Event}
+         * @return this Event {@link Builder}
+         * @throws UnsupportedOperationException if this method is called after {@link
+         *     Builder#build()} was called
+         */
+        public Builder setEventDataTakingOwnership(final Map<String, Object> data) {
+            throwIfAlreadyBuilt();
+
+            try {
+                event.data = EventDataUtils.freeze(data);
+            } catch (final Exception e) {
+                Log.warning(
+                        CoreConstants.LOG_TAG,
+                        "EventBuilder",
+                        "Event data couldn't be serialized, empty data was set instead %s",
+                        e);
+            }
+
+            return this;
+        }
+
         /**
          * Builds and returns the {@code Event} object. It returns null if the event's type or
          * source are null
@@ -0,0 +1,24 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+/**
+ * Determines which event is dropped when the event queue of an extension is at the limit set
+ * through {@link InitOptions#setEventQueueLimit(Class, int, EventQueueOverflowPolicy)}.
+ */
+public enum EventQueueOverflowPolicy {
+    /** Drops the oldest waiting event. The event being processed is never dropped. */
+    DROP_OLDEST,
+
+    /** Drops the newly dispatched event. */
+    DROP_NEWEST
+}
@@ -13,6 +13,8 @@ package com.adobe.marketing.mobile;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.util.CloneFailedException;
+import com.adobe.marketing.mobile.util.EventDataUtils;
 import java.util.Map;
 
 /**
@@ -125,6 +127,52 @@ public abstract class ExtensionApi {
     public abstract void createXDMSharedState(
             @NonNull final Map<String, Object> state, @Nullable final Event event);
 
+    /**
+     * Creates a new shared state for this extension like {@link #createSharedState(Map, Event)},
+     * without copying {@code state}.
+     *
+     * <p>Use this when {@code state} was built only for this shared state: the SDK takes ownership
+     * of it and of every map and list nested in it, and makes them immutable in place. The caller
+     * must not modify or retain {@code state} afterwards.
+     *
+     * @param state {@code Map<String, Object>} representing current state of this extension
+     * @param event The {@link Event} for which the state is being set. Passing null will set the
+     *     state for the next shared state version
+     */
+    public void createSharedStateTakingOwnership(
+            @NonNull final Map<String, Object> state, @Nullable final Event event) {
+        createSharedState(freezeOrKeep(state), event);
+    }
+
+    /**
+     * Creates a new XDM shared state for this extension like {@link #createXDMSharedState(Map,
+     * Event)}, without copying {@code state}.
+     *
+     * <p>Use this when {@code state} was built only for this shared state: the SDK takes ownership
+     * of it and of every map and list nested in it, and makes them immutable in place. The caller
+     * must not modify or retain {@code state} afterwards.
+     *
+     * @param state {@code Map<String, Object>} representing current state of this extension
+     * @param event The {@link Event} for which the state is being set. Passing null will set the
+     *     state for the next shared state version
+     */
+    public void createXDMSharedStateTakingOwnership(
+            @NonNull final Map<String, Object> state, @Nullable final Event event) {
+        createXDMSharedState(freezeOrKeep(state), event);
+    }
+
+    /**
+     * Freezes {@code state} so the shared state can store it without cloning. If it cannot be
+     * frozen, it is returned as is and {@link #createSharedState(Map, Event)} reports the error.
+     */
+    private static Map<String, Object> freezeOrKeep(final Map<String, Object> state) {
+        try {
+            return EventDataUtils.freeze(state);
+        } catch (final CloneFailedException e) {
+            return state;
+        }
+    }
+
     /**
      * Creates a pending XDM shared state for this extension.
      *
@@ -163,6 +211,57 @@ public abstract class ExtensionApi {
             final boolean barrier,
             @NonNull final SharedStateResolution resolution);
 
+    /**
+     * Registers a listener notified with the values which changed each time {@code extensionName}
+     * publishes a shared state, so this extension can skip work when the values it depends on did
+     * not change. The listener is called on this extension's event thread, in order with the other
+     * events it receives. The changed values are only computed for shared states observed this way.
+     *
+     * @param extensionName the name of the extension whose shared state is observed
+     * @param listener the {@link SharedStateChangeListener} to notify
+     */
+    public void registerSharedStateChangeListener(
+            @NonNull final String extensionName,
+            @NonNull final SharedStateChangeListener listener) {
+        registerStateChangeListener(
+                SharedStateChange.STATE_CHANGE_EVENT_NAME, extensionName, listener);
+    }
+
+    /**
+     * Registers a listener notified with the values which changed each time {@code extensionName}
+     * publishes an XDM shared state. See {@link #registerSharedStateChangeListener(String,
+     * SharedStateChangeListener)}.
+     *
+     * @param extensionName the name of the extension whose XDM shared state is observed
+     * @param listener the {@link SharedStateChangeListener} to notify
+     */
+    public void registerXDMSharedStateChangeListener(
+            @NonNull final String extensionName,
+            @NonNull final SharedStateChangeListener listener) {
+        registerStateChangeListener(
+                SharedStateChange.XDM_STATE_CHANGE_EVENT_NAME, extensionName, listener);
+    }
+
+    private void registerStateChangeListener(
+            final String eventName,
+            final String extensionName,
+            final SharedStateChangeListener listener) {
+        registerEventListener(
+                EventType.HUB,
+                EventSource.SHARED_STATE,
+                event -> {
+                    if (!eventName.equals(event.getName())) {
+                        return;
+                    }
+
+                    final SharedStateChange change = SharedStateChange.fromEvent(event);
+                    if (change != null
+                            && change.getExtensionName().equalsIgnoreCase(extensionName)) {
+                        listener.onSharedStateChange(change);
+                    }
+                });
+    }
+
     /**
      * Unregisters current extension. <br>
      * This method executes asynchronously, unregistering the extension on the event hub thread.
@@ -193,6 +292,9 @@ public abstract class ExtensionApi {
     /**
      * Retrieves a count of historical events matching the provided requests.
      *
+     * <p>The callback may be called synchronously on the calling thread when the results are
+     * already cached in memory, or later from the event history thread.
+     *
      * @param eventHistoryRequests an array of {@link EventHistoryRequest}s used to generate the
      *     hash and timeframe for the event lookup
      * @param enforceOrder if `true`, consecutive lookups will use the oldest timestamp from the
@@ -11,6 +11,11 @@
 
 package com.adobe.marketing.mobile
 
+import com.adobe.marketing.mobile.internal.CoreConstants
+import com.adobe.marketing.mobile.internal.eventhub.EventQueueLimit
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryRetention
+import com.adobe.marketing.mobile.services.Log
+
 /**
  * This class holds initialization options for configuring the AEP SDK.
  */
@@ -24,10 +29,67 @@ class InitOptions {
             field = value?.toMap()
         }
 
+    // Flag indicating whether dispatched events are numbered on the calling thread instead of the EventHub thread.
+    // Events stay ordered among themselves, but are no longer ordered behind pending registrations or shared state updates.
+    var directEventDispatchEnabled: Boolean = false
+
+    // Flag indicating whether the EventHub and extensions share a small pool of worker threads instead of
+    // each owning a dedicated thread.
+    var sharedWorkerPoolEnabled: Boolean = false
+
     @JvmSynthetic
     internal var config: ConfigType = ConfigType.Bundled
 
+    @JvmSynthetic
+    internal val eventQueueLimits: MutableMap<Class<out Extension>, EventQueueLimit> = mutableMapOf()
+
+    @JvmSynthetic
+    internal var eventHistoryRetention: EventHistoryRetention = EventHistoryRetention.UNBOUNDED
+
+    /**
+     * Limits the number of events queued for an extension, e.g. while it waits for configuration
+     * before processing events. Events are queued without limit by default.
+     * @param extensionClass The class of the extension whose event queue is limited.
+     * @param maxEvents The maximum number of events queued for the extension. It should be positive.
+     * @param overflowPolicy The [EventQueueOverflowPolicy] determining which event is dropped when the queue is full.
+     */
+    fun setEventQueueLimit(
+        extensionClass: Class<out Extension>,
+        maxEvents: Int,
+        overflowPolicy: EventQueueOverflowPolicy
+    ) {
+        if (maxEvents <= 0) {
+            Log.warning(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "setEventQueueLimit failed - maxEvents ($maxEvents) for ${extensionClass.name} is not positive."
+            )
+            return
+        }
+        eventQueueLimits[extensionClass] = EventQueueLimit(maxEvents, overflowPolicy)
+    }
+
+    /**
+     * Bounds the size of the event history, which is otherwise kept until events are explicitly deleted.
+     * Bounds are enforced in the background, a bound which is not positive is not enforced.
+     * @param maxAgeMillis The age in milliseconds beyond which events are rolled up, per event and day, into
+     * summaries which keep their count along with their oldest and newest timestamp.
+     * @param maxEventsPerHash The maximum number of events kept individually per recorded event data, beyond
+     * which the oldest ones are rolled up into summaries like events beyond [maxAgeMillis].
+     * @param maxEvents The maximum number of events kept individually, beyond which the oldest ones are
+     * deleted. Summaries are bounded separately to the same number and merged per event when exceeding it.
+     */
+    fun setEventHistoryRetention(maxAgeMillis: Long, maxEventsPerHash: Int, maxEvents: Int) {
+        eventHistoryRetention = EventHistoryRetention(
+            maxAgeMS = maxAgeMillis.takeIf { it > 0 },
+            maxRows = maxEvents.takeIf { it > 0 },
+            maxRowsPerHash = maxEventsPerHash.takeIf { it > 0 }
+        )
+    }
+
     companion object {
+        private const val LOG_TAG = "InitOptions"
+
         /**
          * Configures the SDK by downloading the remote configuration file hosted on Adobe servers
          * specified by the given application ID(App ID) from tags property.
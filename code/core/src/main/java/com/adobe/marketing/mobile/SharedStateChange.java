@@ -0,0 +1,142 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which values of a shared state changed between two versions. A path names a value by
+ * the keys leading to it, so a change to {@code ["global", "privacy"]} is reported as such rather
+ * than as a change to {@code ["global"]}.
+ */
+public final class SharedStateChange {
+
+    /**
+     * The event data key of the changed paths in a shared state change event. Only present when a
+     * registered extension observes the shared state through {@link
+     * ExtensionApi#registerSharedStateChangeListener(String, SharedStateChangeListener)} or {@link
+     * ExtensionApi#registerXDMSharedStateChangeListener(String, SharedStateChangeListener)}.
+     */
+    public static final String EVENT_DATA_KEY_CHANGED_PATHS = "changedpaths";
+
+    static final String STATE_CHANGE_EVENT_NAME = "Shared state change";
+    static final String XDM_STATE_CHANGE_EVENT_NAME = "Shared state change (XDM)";
+    private static final String EVENT_DATA_KEY_STATE_OWNER = "stateowner";
+
+    private final String extensionName;
+    private final Set<List<String>> changedPaths;
+    private final Event event;
+
+    private SharedStateChange(
+            final String extensionName, final Set<List<String>> changedPaths, final Event event) {
+        this.extensionName = extensionName;
+        this.changedPaths = changedPaths;
+        this.event = event;
+    }
+
+    /**
+     * Creates a {@link SharedStateChange} from a shared state change event dispatched by the
+     * EventHub.
+     *
+     * @param event the shared state change {@link Event}
+     * @return the {@link SharedStateChange}, or null if {@code event} does not name the extension
+     *     whose shared state changed
+     */
+    @Nullable static SharedStateChange fromEvent(@NonNull final Event event) {
+        final Map<String, Object> eventData = event.getEventData();
+        final String extensionName =
+                DataReader.optString(eventData, EVENT_DATA_KEY_STATE_OWNER, null);
+        if (extensionName == null) {
+            return null;
+        }
+
+        final List<?> paths =
+                DataReader.optTypedList(
+                        Object.class, eventData, EVENT_DATA_KEY_CHANGED_PATHS, null);
+        if (paths == null) {
+            return new SharedStateChange(extensionName, null, event);
+        }
+
+        final Set<List<String>> changedPaths = new HashSet<>();
+        for (final Object path : paths) {
+            if (!(path instanceof List)) {
+                continue;
+            }
+
+            final List<String> keys = new ArrayList<>();
+            for (final Object key : (List<?>) path) {
+                keys.add(String.valueOf(key));
+            }
+            changedPaths.add(Collections.unmodifiableList(keys));
+        }
+        return new SharedStateChange(
+                extensionName, Collections.unmodifiableSet(changedPaths), event);
+    }
+
+    /** Returns the name of the extension whose shared state changed. */
+    public @NonNull String getExtensionName() {
+        return extensionName;
+    }
+
+    /**
+     * Returns the paths of the values which changed, each as the list of keys leading to the
+     * value. Values nested in a changed path may have changed as well. Empty if the changes are
+     * unknown, in which case {@link #hasChanged(String...)} reports every path as changed.
+     */
+    public @NonNull Set<List<String>> getChangedPaths() {
+        return changedPaths != null ? changedPaths : Collections.<List<String>>emptySet();
+    }
+
+    /**
+     * Returns the shared state change {@link Event}. Pass it to {@link
+     * ExtensionApi#getSharedState(String, Event, boolean, SharedStateResolution)} to read the
+     * shared state version which produced this change.
+     */
+    public @NonNull Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Checks if the value at the path of {@code keys}, a value nested in it, or a value containing
+     * it changed.
+     *
+     * @param keys the keys leading to the value, e.g. {@code hasChanged("global", "privacy")}
+     * @return true if the value at the path may have changed
+     */
+    public boolean hasChanged(@NonNull final String... keys) {
+        if (changedPaths == null) {
+            return true;
+        }
+
+        final List<String> path = Arrays.asList(keys);
+        for (final List<String> changedPath : changedPaths) {
+            if (isSameOrNested(changedPath, path) || isSameOrNested(path, changedPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSameOrNested(final List<String> path, final List<String> parentPath) {
+        return path.size() >= parentPath.size()
+                && path.subList(0, parentPath.size()).equals(parentPath);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+/**
+ * Determines how [EventHub.dispatch] hands events to the hub's dispatcher thread.
+ */
+internal enum class EventDispatchMode {
+    /**
+     * Events are numbered and enqueued on the EventHub executor, serialized with every other
+     * hub operation (registration, start, shared state updates) submitted before them.
+     */
+    SERIALIZED,
+
+    /**
+     * Events are numbered and enqueued on the calling thread. Events stay ordered with respect to
+     * each other, but are no longer ordered behind hub operations still pending on the EventHub executor.
+     */
+    DIRECT
+}
@@ -20,6 +20,7 @@ import com.adobe.marketing.mobile.EventSource
 import com.adobe.marketing.mobile.EventType
 import com.adobe.marketing.mobile.Extension
 import com.adobe.marketing.mobile.LoggingMode
+import com.adobe.marketing.mobile.SharedStateChange
 import com.adobe.marketing.mobile.SharedStateResolution
 import com.adobe.marketing.mobile.SharedStateResolver
 import com.adobe.marketing.mobile.SharedStateResult
@@ -28,6 +29,9 @@ import com.adobe.marketing.mobile.WrapperType
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.internal.eventhub.history.AndroidEventHistory
 import com.adobe.marketing.mobile.internal.eventhub.history.EventHistory
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryRetention
+import com.adobe.marketing.mobile.internal.util.SharedWorkerPool
+import com.adobe.marketing.mobile.internal.util.changedPaths
 import com.adobe.marketing.mobile.internal.util.prettify
 import com.adobe.marketing.mobile.services.Log
 import com.adobe.marketing.mobile.util.EventDataUtils
@@ -43,12 +47,84 @@ import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * EventHub class is responsible for delivering events to listeners and maintaining registered extension's lifecycle.
+ *
+ * @param dispatchMode the [EventDispatchMode] used by [dispatch]
+ * @param workerThreadMode the [WorkerThreadMode] for the event dispatcher and extension queues
  */
-internal class EventHub {
+internal class EventHub(
+    internal val dispatchMode: EventDispatchMode = EventDispatchMode.SERIALIZED,
+    internal val workerThreadMode: WorkerThreadMode = WorkerThreadMode.DEDICATED
+) {
 
     companion object {
         const val LOG_TAG = "EventHub"
-        var shared = EventHub()
+
+        /**
+         * The modes [shared] is created with, set through [configureShared]. Guarded by the companion monitor.
+         */
+        private var sharedDispatchMode = EventDispatchMode.SERIALIZED
+        private var sharedWorkerThreadMode = WorkerThreadMode.DEDICATED
+
+        @Volatile
+        private var sharedHub: EventHub? = null
+
+        /**
+         * The [EventHub] used by the SDK. It is created on first access with the modes set through [configureShared],
+         * so it is never swapped out while the SDK uses it, unless replaced explicitly.
+         */
+        var shared: EventHub
+            get() = sharedHub ?: synchronized(this) {
+                sharedHub ?: EventHub(sharedDispatchMode, sharedWorkerThreadMode).also { sharedHub = it }
+            }
+            set(value) {
+                sharedHub = value
+            }
+
+        /**
+         * Sets the modes [shared] is created with. This has no effect once [shared] has been created,
+         * so it must be called before any other SDK API.
+         *
+         * @param dispatchMode the [EventDispatchMode] for [shared]
+         * @param workerThreadMode the [WorkerThreadMode] for [shared]
+         * @return true if [shared] uses the requested modes, false if it was already created with other modes
+         */
+        @Synchronized
+        fun configureShared(dispatchMode: EventDispatchMode, workerThreadMode: WorkerThreadMode): Boolean {
+            val hub = sharedHub
+            if (hub == null) {
+                sharedDispatchMode = dispatchMode
+                sharedWorkerThreadMode = workerThreadMode
+                Log.debug(
+                    CoreConstants.LOG_TAG,
+                    LOG_TAG,
+                    "EventHub set to $dispatchMode dispatch and $workerThreadMode worker threads"
+                )
+                return true
+            }
+
+            if (hub.dispatchMode == dispatchMode && hub.workerThreadMode == workerThreadMode) {
+                return true
+            }
+
+            Log.warning(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "EventHub modes can not be changed after the SDK is in use, " +
+                    "keeping ${hub.dispatchMode} dispatch and ${hub.workerThreadMode} worker threads"
+            )
+            return false
+        }
+
+        /**
+         * Discards [shared] and the modes set through [configureShared], so the next access creates a new
+         * [EventHub] with the default modes. The discarded hub is not shut down.
+         */
+        @Synchronized
+        fun resetShared() {
+            sharedHub = null
+            sharedDispatchMode = EventDispatchMode.SERIALIZED
+            sharedWorkerThreadMode = WorkerThreadMode.DEDICATED
+        }
     }
 
     /**
@@ -68,11 +144,17 @@ internal class EventHub {
         ConcurrentHashMap()
 
     /**
-     * Concurrent list which stores the event listeners for response events.
+     * Concurrent map which stores the event listeners for response events, keyed by the unique identifier of
+     * the trigger event, so matching a response event or cancelling on timeout is a single lookup.
      */
     @VisibleForTesting
-    internal val responseEventListeners: ConcurrentLinkedQueue<ResponseListenerContainer> =
-        ConcurrentLinkedQueue()
+    internal val responseEventListeners: ConcurrentHashMap<String, List<ResponseListenerContainer>> =
+        ConcurrentHashMap()
+
+    /**
+     * Limits for the event queues of extensions, keyed by extension type name.
+     */
+    private val eventQueueLimits: ConcurrentHashMap<String, EventQueueLimit> = ConcurrentHashMap()
 
     /**
      * Concurrent list which stores the registered event preprocessors.
@@ -81,14 +163,27 @@ internal class EventHub {
     private val eventPreprocessors: ConcurrentLinkedQueue<EventPreprocessor> = ConcurrentLinkedQueue()
 
     /**
-     * Atomic counter which is incremented when processing event and shared state.
+     * Queue of events awaiting dispatch. Owns the event number counter, which is incremented
+     * for each dispatched event and each shared state version not tied to an event.
      */
-    private val lastEventNumber: AtomicInteger = AtomicInteger(0)
+    private val eventQueue: EventRingBuffer = EventRingBuffer(EventHubConstants.EVENT_QUEUE_CAPACITY)
 
     /**
      * A cache that maps UUID of an Event to an internal sequence of its dispatch.
+     * Entries are retired once every registered extension has processed past them, see [retireEventNumbers].
+     */
+    private val eventNumberIndex: EventNumberIndex = EventNumberIndex()
+
+    /**
+     * Number of events dispatched since [retireEventNumbers] last ran. Only accessed from the [eventDispatcher] thread.
      */
-    private val eventNumberMap: ConcurrentHashMap<String, Int> = ConcurrentHashMap<String, Int>()
+    private var eventsSinceRetire = 0
+
+    /**
+     * The number of events whose event number is still tracked.
+     */
+    val liveEventNumberCount: Int
+        get() = eventNumberIndex.size
 
     /**
      * Boolean to denote if event hub has started processing events
@@ -109,13 +204,9 @@ internal class EventHub {
 
             // Handle response event listeners
             if (processedEvent.responseID != null) {
-                val matchingResponseListeners = responseEventListeners.filterRemove { listener ->
-                    if (listener.shouldNotify(processedEvent)) {
-                        listener.timeoutTask?.cancel(false)
-                        true
-                    } else {
-                        false
-                    }
+                val matchingResponseListeners = responseEventListeners.remove(processedEvent.responseID) ?: emptyList()
+                matchingResponseListeners.forEach { listener ->
+                    listener.timeoutTask?.cancel(false)
                 }
 
                 // Call the response event listeners from different thread to avoid block event processing queue
@@ -139,6 +230,11 @@ internal class EventHub {
                 )
             }
 
+            if (++eventsSinceRetire >= EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL) {
+                eventsSinceRetire = 0
+                retireEventNumbers()
+            }
+
             // Record event history
             processedEvent.mask?.let {
                 eventHistory?.recordEvent(
@@ -171,7 +267,7 @@ internal class EventHub {
      * Responsible for processing and dispatching each event.
      */
     private val eventDispatcher: SerialWorkDispatcher<Event> =
-        SerialWorkDispatcher("EventHub", dispatchJob)
+        SerialWorkDispatcher("EventHub", dispatchJob, eventQueue, newWorkerExecutor("EventHub"))
 
     /**
      * Responsible for managing event history.
@@ -215,8 +311,10 @@ internal class EventHub {
 
     /**
      * Initializes event history. This must be called after the SDK has application context.
+     *
+     * @param retention the bounds enforced on the event history database, none by default
      */
-    fun initializeEventHistory() {
+    fun initializeEventHistory(retention: EventHistoryRetention = EventHistoryRetention.UNBOUNDED) {
         if (eventHistory != null) {
             Log.warning(
                 CoreConstants.LOG_TAG,
@@ -227,7 +325,7 @@ internal class EventHub {
         }
 
         eventHistory = try {
-            AndroidEventHistory()
+            AndroidEventHistory(retention)
         } catch (ex: Exception) {
             Log.warning(
                 CoreConstants.LOG_TAG,
@@ -255,23 +353,33 @@ internal class EventHub {
      * If the `event` has a `mask`, this method will attempt to record the `event` in `eventHistory`.
      * See [eventDispatcher] for more details.
      *
+     * With [EventDispatchMode.DIRECT] the event is numbered and enqueued on the calling thread,
+     * otherwise this happens on the EventHub executor.
+     *
      * @param event the [Event] to be dispatched to listeners
      */
     fun dispatch(event: Event) {
+        if (dispatchMode == EventDispatchMode.DIRECT) {
+            dispatchInternal(event)
+            return
+        }
+
         eventHubExecutor.submit {
             dispatchInternal(event)
         }
     }
 
     /**
-     * Internal method to dispatch an event
+     * Internal method to dispatch an event. Safe to call from any thread.
      */
     private fun dispatchInternal(event: Event) {
-        val eventNumber = lastEventNumber.incrementAndGet()
-        eventNumberMap[event.uniqueIdentifier] = eventNumber
+        // Record the event number before publishing so it is visible to anyone receiving the event.
+        val eventNumber = eventQueue.claim()
+        eventNumberIndex.put(event.uniqueIdentifier, eventNumber)
+        eventQueue.publish(eventNumber, event)
 
-        // Offer event to the serial dispatcher to perform operations on the event.
-        if (!eventDispatcher.offer(event)) {
+        // Signal the serial dispatcher to perform operations on the event.
+        if (!eventDispatcher.signal()) {
             Log.warning(
                 CoreConstants.LOG_TAG,
                 LOG_TAG,
@@ -331,16 +439,32 @@ internal class EventHub {
                 return@submit
             }
 
-            val container = ExtensionContainer(extensionClass) { error ->
+            val container = ExtensionContainer(extensionClass, newWorkerExecutor(extensionTypeName)) { error ->
                 eventHubExecutor.submit {
                     completion?.let { executeCompletionHandler { it(error) } }
                     extensionPostRegistration(extensionClass, error)
                 }
             }
+            eventQueueLimits[extensionTypeName]?.let { container.setEventQueueLimit(it) }
             registeredExtensions[extensionTypeName] = container
         }
     }
 
+    /**
+     * Bounds the event queue of an extension. Applies to the extension if already registered, and
+     * whenever it registers afterwards.
+     *
+     * @param extensionClass The class of extension whose event queue is bounded
+     * @param limit The [EventQueueLimit] for the event queue
+     */
+    fun setEventQueueLimit(extensionClass: Class<out Extension>, limit: EventQueueLimit) {
+        eventHubExecutor.submit {
+            val extensionTypeName = extensionClass.extensionTypeName
+            eventQueueLimits[extensionTypeName] = limit
+            registeredExtensions[extensionTypeName]?.setEventQueueLimit(limit)
+        }
+    }
+
     /**
      * Called after creating extension container to hold the extension
      *
@@ -407,7 +531,7 @@ internal class EventHub {
             val triggerEventId = triggerEvent.uniqueIdentifier
 
             if (timeoutMS == Long.MAX_VALUE) {
-                responseEventListeners.add(
+                addResponseListener(
                     ResponseListenerContainer(
                         triggerEventId,
                         null,
@@ -418,7 +542,7 @@ internal class EventHub {
             }
 
             val timeoutCallable: Callable<Unit> = Callable {
-                responseEventListeners.filterRemove { it.triggerEventId == triggerEventId }
+                responseEventListeners.remove(triggerEventId)
                 try {
                     listener.fail(AdobeError.CALLBACK_TIMEOUT)
                 } catch (ex: Exception) {
@@ -432,7 +556,7 @@ internal class EventHub {
             val timeoutTask =
                 scheduledExecutor.schedule(timeoutCallable, timeoutMS, TimeUnit.MILLISECONDS)
 
-            responseEventListeners.add(
+            addResponseListener(
                 ResponseListenerContainer(
                     triggerEventId,
                     timeoutTask,
@@ -442,6 +566,12 @@ internal class EventHub {
         }
     }
 
+    private fun addResponseListener(container: ResponseListenerContainer) {
+        responseEventListeners.compute(container.triggerEventId) { _, listeners ->
+            (listeners ?: emptyList()) + container
+        }
+    }
+
     /**
      * Registers an event listener which will be invoked whenever an [Event] with matched type and source is dispatched
      * @param eventType A String indicating the event type the current listener is listening for
@@ -528,6 +658,11 @@ internal class EventHub {
         }
 
         val version = resolveSharedStateVersion(sharedStateManager, event)
+        val previousState = if (isSharedStateObserved(sharedStateType, extensionName)) {
+            sharedStateManager.resolve(SharedStateManager.VERSION_LATEST)
+        } else {
+            null
+        }
         val didSet = sharedStateManager.setState(version, state)
         if (!didSet) {
             Log.warning(
@@ -541,7 +676,7 @@ internal class EventHub {
                 LOG_TAG,
                 "Created $sharedStateType shared state for extension \"$extensionName\" with version $version and data ${state?.prettify()}"
             )
-            dispatchSharedStateEvent(sharedStateType, extensionName)
+            dispatchSharedStateEvent(sharedStateType, extensionName, previousState?.let { state.changedPaths(it.value) })
         }
 
         return didSet
@@ -632,6 +767,11 @@ internal class EventHub {
                 return@Callable
             }
 
+            val previousState = if (isSharedStateObserved(sharedStateType, extensionName)) {
+                sharedStateManager.resolve(version)
+            } else {
+                null
+            }
             val didUpdate = sharedStateManager.updatePendingState(version, immutableState)
             if (!didUpdate) {
                 Log.warning(
@@ -647,7 +787,11 @@ internal class EventHub {
                 LOG_TAG,
                 "Resolved pending $sharedStateType shared state for \"$extensionName\" and version $version with data ${immutableState?.prettify()}"
             )
-            dispatchSharedStateEvent(sharedStateType, extensionName)
+            dispatchSharedStateEvent(
+                sharedStateType,
+                extensionName,
+                previousState?.let { immutableState.changedPaths(it.value) }
+            )
         }
         eventHubExecutor.submit(callable).get()
     }
@@ -668,45 +812,63 @@ internal class EventHub {
         barrier: Boolean,
         resolution: SharedStateResolution
     ): SharedStateResult? {
+        // Reads are served from the SharedStateManager snapshot on the calling thread. Round-trip through
+        // the EventHub executor only when the event is not numbered yet, as its dispatch may still be pending there.
+        if (event == null || getEventNumber(event) != null) {
+            return getSharedStateInternal(sharedStateType, extensionName, event, barrier, resolution)
+        }
+
         val callable = Callable<SharedStateResult?> {
-            val container = getExtensionContainer(extensionName) ?: run {
-                Log.debug(
-                    CoreConstants.LOG_TAG,
-                    LOG_TAG,
-                    "Unable to retrieve $sharedStateType shared state for \"$extensionName\". No such extension is registered."
-                )
+            return@Callable getSharedStateInternal(sharedStateType, extensionName, event, barrier, resolution)
+        }
+        return eventHubExecutor.submit(callable).get()
+    }
 
-                return@Callable null
-            }
+    /**
+     * Internal method to retrieve the shared state for a specific extension. Safe to call from any thread.
+     */
+    private fun getSharedStateInternal(
+        sharedStateType: SharedStateType,
+        extensionName: String,
+        event: Event?,
+        barrier: Boolean,
+        resolution: SharedStateResolution
+    ): SharedStateResult? {
+        val container = getExtensionContainer(extensionName) ?: run {
+            Log.debug(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "Unable to retrieve $sharedStateType shared state for \"$extensionName\". No such extension is registered."
+            )
 
-            val sharedStateManager = getSharedStateManager(sharedStateType, extensionName) ?: run {
-                Log.warning(
-                    CoreConstants.LOG_TAG,
-                    LOG_TAG,
-                    "Unable to retrieve $sharedStateType shared state for \"$extensionName\". SharedStateManager is null"
-                )
-                return@Callable null
-            }
+            return null
+        }
 
-            val version = getEventNumber(event) ?: SharedStateManager.VERSION_LATEST
+        val sharedStateManager = getSharedStateManager(sharedStateType, extensionName) ?: run {
+            Log.warning(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "Unable to retrieve $sharedStateType shared state for \"$extensionName\". SharedStateManager is null"
+            )
+            return null
+        }
 
-            val result: SharedStateResult = when (resolution) {
-                SharedStateResolution.ANY -> sharedStateManager.resolve(version)
-                SharedStateResolution.LAST_SET -> sharedStateManager.resolveLastSet(version)
-            }
+        val version = getEventNumber(event) ?: SharedStateManager.VERSION_LATEST
 
-            val stateProviderLastVersion = getEventNumber(container.lastProcessedEvent) ?: 0
-            // shared state is still considered pending if barrier is used and the state provider has not processed past the previous event
-            val hasProcessedEvent =
-                if (event == null) true else stateProviderLastVersion > version - 1
-            return@Callable if (barrier && !hasProcessedEvent && result.status == SharedStateStatus.SET) {
-                SharedStateResult(SharedStateStatus.PENDING, result.value)
-            } else {
-                result
-            }
+        val result: SharedStateResult = when (resolution) {
+            SharedStateResolution.ANY -> sharedStateManager.resolve(version)
+            SharedStateResolution.LAST_SET -> sharedStateManager.resolveLastSet(version)
         }
 
-        return eventHubExecutor.submit(callable).get()
+        val stateProviderLastVersion = getEventNumber(container.lastProcessedEvent) ?: 0
+        // shared state is still considered pending if barrier is used and the state provider has not processed past the previous event
+        val hasProcessedEvent =
+            if (event == null) true else stateProviderLastVersion > version - 1
+        return if (barrier && !hasProcessedEvent && result.status == SharedStateStatus.SET) {
+            SharedStateResult(SharedStateStatus.PENDING, result.value)
+        } else {
+            result
+        }
     }
 
     /**
@@ -742,6 +904,18 @@ internal class EventHub {
         return eventHubExecutor.submit(callable).get()
     }
 
+    /**
+     * Reports the shared state history retained for [extensionName].
+     *
+     * @param sharedStateType the type of shared state to report on
+     * @param extensionName the name of the extension whose shared state is reported
+     * @return the [SharedStateMetrics] for the extension, or null if no such extension is registered
+     */
+    fun getSharedStateMetrics(sharedStateType: SharedStateType, extensionName: String): SharedStateMetrics? {
+        val sharedStateManager = getSharedStateManager(sharedStateType, extensionName) ?: return null
+        return SharedStateMetrics(sharedStateManager.retainedVersionCount, sharedStateManager.estimateRetainedBytes())
+    }
+
     /**
      * Stops processing events and shuts down all registered extensions.
      */
@@ -761,18 +935,49 @@ internal class EventHub {
     }
 
     /**
-     * Retrieve the event number for the Event from the [eventNumberMap]
+     * Retrieve the event number for the Event from the [eventNumberIndex]
      *
      * @param event the [Event] for which the event number should be resolved
-     * @return the event number for the event if it exists (if it has been recorded/dispatched),
-     *         null otherwise
+     * @return the event number for the event if it has been recorded/dispatched, the watermark it was retired
+     *         below if it has been retired, null otherwise
      */
     private fun getEventNumber(event: Event?): Int? {
         if (event == null) {
             return null
         }
         val eventUUID = event.uniqueIdentifier
-        return eventNumberMap[eventUUID]
+        return eventNumberIndex[eventUUID]
+    }
+
+    /**
+     * Retires event numbers lower than the minimum [ExtensionContainer.lastProcessedEvent] across all
+     * registered extensions. No extension can query shared state at those versions anymore, since events
+     * are processed in order. Retired events resolve to the watermark they were retired below, so shared state
+     * can still be read and created with them. Shared state is therefore only compacted below the lowest
+     * watermark a retired event still resolves to, which keeps the version each retired event reads pinned.
+     * Nothing is retired while any extension has yet to process its first event.
+     */
+    private fun retireEventNumbers() {
+        var watermark = Int.MAX_VALUE
+        for (container in registeredExtensions.values) {
+            val lastProcessedEventNumber = getEventNumber(container.lastProcessedEvent) ?: return
+            watermark = minOf(watermark, lastProcessedEventNumber)
+        }
+
+        if (watermark != Int.MAX_VALUE) {
+            val retired = eventNumberIndex.retireBelow(watermark)
+            Log.trace(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "Retired $retired event numbers below #$watermark, ${eventNumberIndex.size} remaining"
+            )
+
+            val compactionBound = minOf(watermark, eventNumberIndex.lowestFloor)
+            for (container in registeredExtensions.values) {
+                container.getSharedStateManager(SharedStateType.STANDARD)?.compact(compactionBound)
+                container.getSharedStateManager(SharedStateType.XDM)?.compact(compactionBound)
+            }
+        }
     }
 
     /**
@@ -829,6 +1034,14 @@ internal class EventHub {
         return sharedStateManager
     }
 
+    /**
+     * Checks if a registered extension observes the [sharedStateType] shared state of [extensionName]
+     * through a [com.adobe.marketing.mobile.SharedStateChangeListener].
+     */
+    private fun isSharedStateObserved(sharedStateType: SharedStateType, extensionName: String): Boolean {
+        return registeredExtensions.values.any { it.observesSharedState(sharedStateType, extensionName) }
+    }
+
     /**
      * Retrieves the appropriate shared state version for the event.
      *
@@ -846,7 +1059,7 @@ internal class EventHub {
         //    before handling any event and other extensions should be able to read this state.
         return when {
             event != null -> getEventNumber(event) ?: 0
-            !sharedStateManager.isEmpty() -> lastEventNumber.incrementAndGet()
+            !sharedStateManager.isEmpty() -> eventQueue.reserve()
             else -> 0
         }
     }
@@ -855,12 +1068,20 @@ internal class EventHub {
      * Dispatch shared state update event for the [sharedStateType] and [extensionName]
      * @param sharedStateType The type of shared state set
      * @param extensionName Extension whose shared state was updated
+     * @param changedPaths The paths of the values changed by the update, see [changedPaths],
+     * or null if the shared state is not observed by a change listener
      */
-    private fun dispatchSharedStateEvent(sharedStateType: SharedStateType, extensionName: String) {
+    private fun dispatchSharedStateEvent(
+        sharedStateType: SharedStateType,
+        extensionName: String,
+        changedPaths: List<List<String>>?
+    ) {
         val eventName =
             if (sharedStateType == SharedStateType.STANDARD) EventHubConstants.STATE_CHANGE else EventHubConstants.XDM_STATE_CHANGE
-        val data =
-            mapOf(EventHubConstants.EventDataKeys.Configuration.EVENT_STATE_OWNER to extensionName)
+        val data = mutableMapOf<String, Any?>(
+            EventHubConstants.EventDataKeys.Configuration.EVENT_STATE_OWNER to extensionName
+        )
+        changedPaths?.let { data[SharedStateChange.EVENT_DATA_KEY_CHANGED_PATHS] = it }
 
         val event = Event.Builder(eventName, EventType.HUB, EventSource.SHARED_STATE)
             .setEventData(data).build()
@@ -905,6 +1126,18 @@ internal class EventHub {
         )
     }
 
+    /**
+     * Creates the executor backing a [SerialWorkDispatcher] according to [workerThreadMode].
+     *
+     * @param name the name of the dispatcher
+     */
+    private fun newWorkerExecutor(name: String): ExecutorService {
+        return when (workerThreadMode) {
+            WorkerThreadMode.DEDICATED -> Executors.newSingleThreadExecutor()
+            WorkerThreadMode.SHARED_POOL -> SharedWorkerPool.newStrand(name)
+        }
+    }
+
     private fun executeCompletionHandler(runnable: Runnable) {
         scheduledExecutor.submit {
             try {
@@ -919,16 +1152,3 @@ internal class EventHub {
         }
     }
 }
-
-private fun <T> MutableCollection<T>.filterRemove(predicate: (T) -> Boolean): MutableCollection<T> {
-    val ret = mutableListOf<T>()
-    this.removeAll {
-        if (predicate(it)) {
-            ret.add(it)
-            true
-        } else {
-            false
-        }
-    }
-    return ret
-}
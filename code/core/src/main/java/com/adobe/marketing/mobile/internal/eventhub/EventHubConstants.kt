@@ -19,6 +19,9 @@ internal object EventHubConstants {
     const val VERSION_NUMBER = CoreConstants.VERSION
     const val STATE_CHANGE = "Shared state change"
     const val XDM_STATE_CHANGE = "Shared state change (XDM)"
+    const val EVENT_QUEUE_CAPACITY = 1024
+    const val EVENT_NUMBER_RETIRE_INTERVAL = 64
+    const val RETIRED_EVENT_NUMBER_CAPACITY = 1024
 
     object EventDataKeys {
         const val VERSION = "version"
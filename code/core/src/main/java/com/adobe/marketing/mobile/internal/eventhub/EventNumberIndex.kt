@@ -0,0 +1,108 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Maps the unique identifier of a dispatched [com.adobe.marketing.mobile.Event] to its event number.
+ *
+ * Entries are retired through [retireBelow] once every extension has processed past their event number,
+ * which keeps the index bounded by the backlog of the slowest extension. A retired event still resolves
+ * to the watermark it was retired below, as long as it is one of the last [retiredCapacity] retired events.
+ * Older retired events are forgotten and resolve like events which were never dispatched. Shared state
+ * must stay resolvable at [lowestFloor] for retired events to read the version they were retired at.
+ *
+ * @param retiredCapacity the maximum number of retired events which still resolve to their watermark
+ */
+internal class EventNumberIndex(
+    private val retiredCapacity: Int = EventHubConstants.RETIRED_EVENT_NUMBER_CAPACITY
+) {
+
+    private val numbersById: ConcurrentHashMap<String, Int> = ConcurrentHashMap()
+
+    private val idsByNumber: ConcurrentHashMap<Int, String> = ConcurrentHashMap()
+
+    /**
+     * The watermark each retired event was retired below, in retirement order, so the floors never decrease
+     * from the eldest entry to the newest. The eldest entries are evicted beyond [retiredCapacity].
+     * Guarded by its own monitor.
+     */
+    private val floorsById: LinkedHashMap<String, Int> = object : LinkedHashMap<String, Int>() {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Int>?): Boolean {
+            return size > retiredCapacity
+        }
+    }
+
+    /**
+     * The lowest event number which has not been retired yet.
+     */
+    private var retiredUpTo: Int = 1
+
+    /**
+     * The number of live entries in this index.
+     */
+    val size: Int
+        get() = numbersById.size
+
+    /**
+     * The lowest watermark a retired event still resolves to, or [Int.MAX_VALUE] if there is none.
+     */
+    val lowestFloor: Int
+        get() = synchronized(floorsById) { floorsById.values.firstOrNull() ?: Int.MAX_VALUE }
+
+    /**
+     * Records [eventNumber] for the event with [eventId]. Re-dispatching an event replaces its number.
+     *
+     * @param eventId the unique identifier of the event
+     * @param eventNumber the number assigned to the event
+     */
+    fun put(eventId: String, eventNumber: Int) {
+        idsByNumber[eventNumber] = eventId
+        numbersById[eventId] = eventNumber
+    }
+
+    /**
+     * Returns the event number for [eventId], the watermark it was retired below if it has been retired,
+     * or null if it was never recorded or has been forgotten since it was retired.
+     */
+    operator fun get(eventId: String): Int? {
+        return numbersById[eventId] ?: synchronized(floorsById) { floorsById[eventId] }
+    }
+
+    /**
+     * Retires all entries with an event number lower than [watermark].
+     *
+     * @param watermark the lowest event number that may still be queried
+     * @return the number of entries removed
+     */
+    @Synchronized
+    fun retireBelow(watermark: Int): Int {
+        var removed = 0
+        while (retiredUpTo < watermark) {
+            val eventNumber = retiredUpTo++
+            val eventId = idsByNumber.remove(eventNumber) ?: continue
+
+            // Record the floor before removing the entry, so that concurrent lookups always resolve.
+            // A stale floor of a re-dispatched event is shadowed by its newer number.
+            synchronized(floorsById) {
+                // Re-insert to keep the entries in retirement order.
+                floorsById.remove(eventId)
+                floorsById[eventId] = watermark
+            }
+            if (numbersById.remove(eventId, eventNumber)) {
+                removed++
+            }
+        }
+        return removed
+    }
+}
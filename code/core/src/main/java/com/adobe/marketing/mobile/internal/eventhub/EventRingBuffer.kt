@@ -0,0 +1,213 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import com.adobe.marketing.mobile.Event
+import java.util.AbstractQueue
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * A multi-producer, single-consumer queue of [Event]s ordered by event number.
+ *
+ * Producers claim the next event number with a single atomic increment and publish the event
+ * into the ring slot derived from that number. The consumer drains the slots strictly in event number
+ * order, so delivery order always matches numbering order regardless of which producer publishes first.
+ * A number that was claimed but not yet published holds back every later number until it is published.
+ *
+ * Capacity: the ring holds up to `capacity` events without allocating. Producers never wait for room, because
+ * the consumer thread can itself be a producer (e.g. an [EventPreprocessor] dispatching a consequence event)
+ * and would deadlock waiting on itself. Events published while their slot is still occupied are parked in an
+ * overflow map keyed by event number instead, until the consumer catches up. The overflow map is not bounded:
+ * a burst larger than the ring grows memory by one map entry per parked event, as an unbounded queue would,
+ * and [overflowSize] reports how many events are parked. The EventHub consumer only runs preprocessors and hands
+ * events to extension queues, so the overflow holds a burst only until the dispatcher thread catches up; extension
+ * backlogs are bounded separately through [EventQueueLimit].
+ *
+ * [claim], [reserve], [publish] and [offer] are safe to call from any thread.
+ * [poll] and [clear] must only be called from the single consumer. [peek] and [iterator] do not modify
+ * the queue, so they can also be used from other threads, though their results are then only a hint.
+ *
+ * @param capacity the number of ring slots, must be a power of two
+ */
+internal class EventRingBuffer(capacity: Int) : AbstractQueue<Event>() {
+
+    private companion object {
+        /**
+         * Published for event numbers which will never carry an event, such as shared state versions.
+         */
+        val RESERVED = Any()
+    }
+
+    init {
+        require(capacity > 0 && (capacity and (capacity - 1)) == 0) {
+            "EventRingBuffer capacity ($capacity) must be a power of two"
+        }
+    }
+
+    private val mask: Int = capacity - 1
+
+    private val slots: AtomicReferenceArray<Any?> = AtomicReferenceArray(capacity)
+
+    /**
+     * Holds published items whose slot was still in use by an older, unconsumed item.
+     */
+    private val overflow: ConcurrentHashMap<Int, Any> = ConcurrentHashMap()
+
+    /**
+     * The last event number handed out to a producer.
+     */
+    private val lastClaimed: AtomicInteger = AtomicInteger(0)
+
+    /**
+     * The event number the consumer will deliver next.
+     */
+    @Volatile
+    private var nextToConsume: Int = 1
+
+    /**
+     * The last event number handed out by [claim] or [reserve].
+     */
+    val lastEventNumber: Int
+        get() = lastClaimed.get()
+
+    /**
+     * Claims the next event number. Every claimed number must be published via [publish],
+     * otherwise the consumer stalls at that number.
+     *
+     * @return the claimed event number
+     */
+    fun claim(): Int = lastClaimed.incrementAndGet()
+
+    /**
+     * Claims the next event number for a use that does not carry an event. The consumer skips it.
+     *
+     * @return the claimed event number
+     */
+    fun reserve(): Int {
+        val eventNumber = claim()
+        store(eventNumber, RESERVED)
+        return eventNumber
+    }
+
+    /**
+     * Makes [event] available to the consumer at [eventNumber], which was previously returned by [claim].
+     *
+     * @param eventNumber the event number claimed for [event]
+     * @param event the [Event] to publish
+     */
+    fun publish(eventNumber: Int, event: Event) {
+        store(eventNumber, event)
+    }
+
+    override fun offer(e: Event): Boolean {
+        publish(claim(), e)
+        return true
+    }
+
+    override fun peek(): Event? {
+        // Scan past reserved numbers without consuming them, so that concurrent peeks
+        // can never move the consumer.
+        val consumed = nextToConsume
+        var eventNumber = consumed
+        while (true) {
+            val item = itemAt(eventNumber, consumed) ?: return null
+            if (item !== RESERVED) {
+                return item as Event
+            }
+            eventNumber++
+        }
+    }
+
+    override fun poll(): Event? {
+        while (true) {
+            val eventNumber = nextToConsume
+            val index = eventNumber and mask
+            var item: Any? = slots.get(index)
+            if (item != null) {
+                slots.set(index, null)
+            } else {
+                item = overflow.remove(eventNumber) ?: return null
+            }
+            nextToConsume = eventNumber + 1
+
+            if (item !== RESERVED) {
+                return item as Event
+            }
+        }
+    }
+
+    /**
+     * Number of published items parked in the overflow map because their ring slot was still occupied.
+     */
+    val overflowSize: Int
+        get() = overflow.size
+
+    /**
+     * Number of claimed event numbers not yet consumed, including reserved and unpublished ones.
+     */
+    override val size: Int
+        get() = maxOf(0, lastClaimed.get() - nextToConsume + 1)
+
+    /**
+     * Returns an iterator over a snapshot of the events [poll] would currently deliver, in event number order.
+     *
+     * The snapshot ends at the first claimed but unpublished number, and like [peek] it does not modify the queue.
+     * The iterator does not support [MutableIterator.remove], so neither do the inherited bulk removal methods.
+     */
+    override fun iterator(): MutableIterator<Event> {
+        val snapshot = mutableListOf<Event>()
+        val consumed = nextToConsume
+        var eventNumber = consumed
+        while (true) {
+            val item = itemAt(eventNumber, consumed) ?: break
+            if (item !== RESERVED) {
+                snapshot.add(item as Event)
+            }
+            eventNumber++
+        }
+
+        val events = snapshot.iterator()
+        return object : MutableIterator<Event> {
+            override fun hasNext(): Boolean = events.hasNext()
+
+            override fun next(): Event = events.next()
+
+            override fun remove() {
+                throw UnsupportedOperationException("EventRingBuffer does not support removal while iterating")
+            }
+        }
+    }
+
+    private fun store(eventNumber: Int, item: Any) {
+        // The slot is free once the consumer is within one ring length of this number.
+        // Otherwise park the item; the consumer checks both locations.
+        if (eventNumber - nextToConsume < slots.length()) {
+            slots.set(eventNumber and mask, item)
+        } else {
+            overflow[eventNumber] = item
+        }
+    }
+
+    /**
+     * Returns the item published at [eventNumber] without removing it.
+     *
+     * @param eventNumber the event number to look up, not less than [consumed]
+     * @param consumed the value of [nextToConsume] read by the caller
+     */
+    private fun itemAt(eventNumber: Int, consumed: Int): Any? {
+        // Only numbers within one ring length of the consumer can be in their slot.
+        val item = if (eventNumber - consumed < slots.length()) slots.get(eventNumber and mask) else null
+        return item ?: overflow[eventNumber]
+    }
+}
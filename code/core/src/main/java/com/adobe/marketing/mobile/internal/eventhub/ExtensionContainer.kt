@@ -17,9 +17,11 @@ import com.adobe.marketing.mobile.Event
 import com.adobe.marketing.mobile.EventHistoryRequest
 import com.adobe.marketing.mobile.EventHistoryResult
 import com.adobe.marketing.mobile.EventHistoryResultHandler
+import com.adobe.marketing.mobile.EventQueueOverflowPolicy
 import com.adobe.marketing.mobile.Extension
 import com.adobe.marketing.mobile.ExtensionApi
 import com.adobe.marketing.mobile.ExtensionEventListener
+import com.adobe.marketing.mobile.SharedStateChangeListener
 import com.adobe.marketing.mobile.SharedStateResolution
 import com.adobe.marketing.mobile.SharedStateResolver
 import com.adobe.marketing.mobile.SharedStateResult
@@ -27,10 +29,15 @@ import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.launch.rulesengine.convertEventHistoryResultToInt
 import com.adobe.marketing.mobile.services.Log
 import com.adobe.marketing.mobile.util.SerialWorkDispatcher
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
 import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
 
 internal class ExtensionContainer constructor(
     private val extensionClass: Class<out Extension>,
+    executorService: ExecutorService = Executors.newSingleThreadExecutor(),
     callback: (EventHubError) -> Unit
 ) : ExtensionApi() {
 
@@ -38,6 +45,7 @@ internal class ExtensionContainer constructor(
         const val LOG_TAG = "ExtensionContainer"
     }
 
+    @Volatile
     var sharedStateName: String? = null
         private set
 
@@ -50,15 +58,31 @@ internal class ExtensionContainer constructor(
     var metadata: Map<String, String>? = null
         private set
 
+    @Volatile
     var lastProcessedEvent: Event? = null
         private set
 
     var extension: Extension? = null
         private set
 
+    @Volatile
     private var sharedStateManagers: Map<SharedStateType, SharedStateManager>? = null
-    private val eventListeners: ConcurrentLinkedQueue<ExtensionListenerContainer> =
-        ConcurrentLinkedQueue()
+
+    /**
+     * Listeners registered by the extension, replaced with a new index on every registration.
+     */
+    @Volatile
+    private var eventListeners: ExtensionListenerIndex = ExtensionListenerIndex.EMPTY
+    private val eventListenersMutex = Any()
+
+    /**
+     * Lower-cased names of the extensions whose shared states this extension observes through
+     * a [SharedStateChangeListener], by [SharedStateType].
+     */
+    private val observedSharedStates: Map<SharedStateType, MutableSet<String>> = mapOf(
+        SharedStateType.STANDARD to ConcurrentHashMap.newKeySet<String>(),
+        SharedStateType.XDM to ConcurrentHashMap.newKeySet<String>()
+    )
 
     /**
      * Implementation of [SerialWorkDispatcher.WorkHandler] that is responsible for dispatching
@@ -70,10 +94,8 @@ internal class ExtensionContainer constructor(
                 return@WorkHandler false
             }
 
-            eventListeners.forEach {
-                if (it.shouldNotify(event)) {
-                    it.notify(event)
-                }
+            eventListeners.listenersFor(event).forEach {
+                it.notify(event)
             }
 
             lastProcessedEvent = event
@@ -126,7 +148,7 @@ internal class ExtensionContainer constructor(
     }
 
     val eventProcessor: SerialWorkDispatcher<Event> =
-        SerialWorkDispatcher(extensionClass.extensionTypeName, dispatchJob)
+        SerialWorkDispatcher(extensionClass.extensionTypeName, dispatchJob, ConcurrentLinkedQueue(), executorService)
 
     init {
 
@@ -154,13 +176,51 @@ internal class ExtensionContainer constructor(
         return "ExtensionContainer[$sharedStateName($version)]"
     }
 
+    /**
+     * Checks if the extension observes the [type] shared state of [extensionName] through a [SharedStateChangeListener].
+     */
+    fun observesSharedState(type: SharedStateType, extensionName: String): Boolean {
+        return observedSharedStates[type]?.contains(extensionName.lowercase(Locale.ROOT)) == true
+    }
+
+    /**
+     * Bounds the queue of events awaiting processing by the extension.
+     *
+     * @param limit the [EventQueueLimit] to apply
+     */
+    fun setEventQueueLimit(limit: EventQueueLimit) {
+        val policy = when (limit.policy) {
+            EventQueueOverflowPolicy.DROP_OLDEST -> SerialWorkDispatcher.OverflowPolicy.DROP_OLDEST
+            EventQueueOverflowPolicy.DROP_NEWEST -> SerialWorkDispatcher.OverflowPolicy.DROP_NEWEST
+        }
+        eventProcessor.setCapacity(limit.capacity, policy)
+    }
+
     // Override ExtensionApi Methods
     override fun registerEventListener(
         eventType: String,
         eventSource: String,
         eventListener: ExtensionEventListener
     ) {
-        eventListeners.add(ExtensionListenerContainer(eventType, eventSource, eventListener))
+        synchronized(eventListenersMutex) {
+            eventListeners += ExtensionListenerContainer(eventType, eventSource, eventListener)
+        }
+    }
+
+    override fun registerSharedStateChangeListener(
+        extensionName: String,
+        listener: SharedStateChangeListener
+    ) {
+        observedSharedStates[SharedStateType.STANDARD]?.add(extensionName.lowercase(Locale.ROOT))
+        super.registerSharedStateChangeListener(extensionName, listener)
+    }
+
+    override fun registerXDMSharedStateChangeListener(
+        extensionName: String,
+        listener: SharedStateChangeListener
+    ) {
+        observedSharedStates[SharedStateType.XDM]?.add(extensionName.lowercase(Locale.ROOT))
+        super.registerXDMSharedStateChangeListener(extensionName, listener)
     }
 
     override fun dispatch(
@@ -0,0 +1,71 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventSource
+import com.adobe.marketing.mobile.EventType
+
+/**
+ * Immutable dispatch table of the [ExtensionListenerContainer]s registered by an extension.
+ *
+ * Listeners are indexed by their lowercased event type and source, so finding the listeners for an
+ * event takes a hash lookup instead of testing every registered listener. Each indexed list also
+ * holds the wildcard listeners, in registration order, so listeners are notified in the same order
+ * they were registered. Registering a listener returns a new index through [plus].
+ */
+internal class ExtensionListenerIndex private constructor(
+    private val listenersByTypeAndSource: Map<String, Map<String, List<ExtensionListenerContainer>>>,
+    private val wildcardListeners: List<ExtensionListenerContainer>
+) {
+
+    /**
+     * Returns the listeners that should be notified of [event], in registration order.
+     * Matches the rules of [ExtensionListenerContainer.shouldNotify].
+     */
+    fun listenersFor(event: Event): List<ExtensionListenerContainer> {
+        // Wildcard listeners are the only ones notified of paired response events.
+        if (event.responseID != null) {
+            return wildcardListeners
+        }
+
+        val type = event.type ?: return wildcardListeners
+        val source = event.source ?: return wildcardListeners
+        return listenersByTypeAndSource[normalize(type)]?.get(normalize(source)) ?: wildcardListeners
+    }
+
+    /**
+     * Returns a new index containing the current listeners followed by [listener].
+     */
+    operator fun plus(listener: ExtensionListenerContainer): ExtensionListenerIndex {
+        if (listener.eventType == EventType.WILDCARD && listener.eventSource == EventSource.WILDCARD) {
+            // Wildcard listeners match every (type, source) pair.
+            val indexed = listenersByTypeAndSource.mapValues { (_, bySource) ->
+                bySource.mapValues { (_, listeners) -> listeners + listener }
+            }
+            return ExtensionListenerIndex(indexed, wildcardListeners + listener)
+        }
+
+        val type = normalize(listener.eventType)
+        val source = normalize(listener.eventSource)
+        val bySource = listenersByTypeAndSource[type] ?: emptyMap()
+        val listeners = bySource[source] ?: wildcardListeners
+        val indexed = listenersByTypeAndSource + (type to (bySource + (source to (listeners + listener))))
+        return ExtensionListenerIndex(indexed, wildcardListeners)
+    }
+
+    companion object {
+        val EMPTY = ExtensionListenerIndex(emptyMap(), emptyList())
+
+        private fun normalize(value: String): String = value.lowercase()
+    }
+}
@@ -15,7 +15,7 @@ import com.adobe.marketing.mobile.SharedStateResult
 import com.adobe.marketing.mobile.SharedStateStatus
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.services.Log
-import java.util.TreeMap
+import java.util.IdentityHashMap
 
 /**
  * Internal representation of a shared event state.
@@ -33,12 +33,85 @@ internal enum class SharedStateType {
     XDM
 }
 
+/**
+ * An immutable view of the first [size] versions of a shared state history, in ascending version order.
+ *
+ * The backing arrays are append-only: [SharedStateManager] appends by writing past [size] and publishing
+ * a new view with a larger size, which never affects what older views observe. Any other change copies
+ * the arrays.
+ *
+ * @param versions the versions, in ascending order
+ * @param states the state at each version
+ * @param lastSetIndices for each index, the index of the last non pending state at or before it, or -1
+ * @param size the number of versions in this view
+ */
+private class SharedStateHistory(
+    val versions: IntArray,
+    val states: Array<SharedState?>,
+    val lastSetIndices: IntArray,
+    val size: Int
+) {
+    operator fun get(index: Int): SharedState = states[index]!!
+
+    /**
+     * Returns the index of the highest version less than or equal to [version], or -1 if there is none.
+     */
+    fun floorIndex(version: Int): Int {
+        var low = 0
+        var high = size - 1
+        while (low <= high) {
+            val mid = (low + high) ushr 1
+            val midVersion = versions[mid]
+            when {
+                midVersion < version -> low = mid + 1
+                midVersion > version -> high = mid - 1
+                else -> return mid
+            }
+        }
+        return high
+    }
+
+    companion object {
+        val EMPTY = SharedStateHistory(IntArray(0), arrayOfNulls(0), IntArray(0), 0)
+
+        /**
+         * Creates a history holding [states], which must be in ascending version order.
+         */
+        fun of(states: List<SharedState>): SharedStateHistory {
+            val capacity = maxOf(states.size, 1)
+            val history = SharedStateHistory(IntArray(capacity), arrayOfNulls(capacity), IntArray(capacity), states.size)
+            states.forEachIndexed { index, state ->
+                history.versions[index] = state.version
+                history.states[index] = state
+            }
+            history.updateLastSetIndices(0)
+            return history
+        }
+    }
+
+    /**
+     * Recomputes [lastSetIndices] from [fromIndex] on. Only valid on arrays not yet published.
+     */
+    fun updateLastSetIndices(fromIndex: Int) {
+        for (index in fromIndex until size) {
+            lastSetIndices[index] = when {
+                states[index]!!.status != SharedStateStatus.PENDING -> index
+                index > 0 -> lastSetIndices[index - 1]
+                else -> -1
+            }
+        }
+    }
+}
+
 /**
  * Responsible for managing the shared state operations for an extension.
- * Employs a red-black tree to store the state data and their versions
+ * Stores the versions in ascending order in a [SharedStateHistory] and resolves them by binary search.
  * The knowledge of whether or not a state is pending is deferred to the caller to ensure this class
  * is decoupled from the rules for a pending state.
  *
+ * Writes are serialized and publish a new immutable snapshot of the versions, so reads never take a lock
+ * and always observe a consistent set of versions.
+ *
  * Note that the methods in this class fall on the public ExtensionApi path and, changes to method
  * behaviors may impact the shared state API behavior.
  */
@@ -47,14 +120,28 @@ internal class SharedStateManager(private val name: String) {
     private val LOG_TAG = "SharedStateManager($name)"
 
     /**
-     * A mapping between the version of the state to the state.
+     * The versions of the state. Versions visible through the published history are never modified;
+     * writers append past its size or replace it with an updated copy.
      */
-    private val states: TreeMap<Int, SharedState> = TreeMap<Int, SharedState>()
+    @Volatile
+    private var history: SharedStateHistory = SharedStateHistory.EMPTY
 
     companion object {
         const val VERSION_LATEST: Int = Int.MAX_VALUE
+
+        // Rough per-object costs used by [estimateRetainedBytes].
+        private const val OBJECT_OVERHEAD_BYTES = 16L
+        private const val REFERENCE_BYTES = 8L
+        private const val MAP_ENTRY_BYTES = 32L
+        private const val STRING_OVERHEAD_BYTES = 40L
     }
 
+    /**
+     * The number of versions currently retained.
+     */
+    val retainedVersionCount: Int
+        get() = history.size
+
     /**
      * Sets the shared state for the extension at [version] as [data] if it does not already exist.
      *
@@ -87,14 +174,26 @@ internal class SharedStateManager(private val name: String) {
      */
     @Synchronized
     fun updatePendingState(version: Int, data: Map<String, Any?>?): Boolean {
-        val stateAtVersion = states[version] ?: return false
-        if (stateAtVersion.status != SharedStateStatus.PENDING) {
+        val history = this.history
+        val index = history.floorIndex(version)
+        if (index < 0 || history.versions[index] != version) {
+            return false
+        }
+        if (history[index].status != SharedStateStatus.PENDING) {
             return false
         }
 
         // At this point, there exists a previously recorded state at the version provided.
         // Overwrite its value with a confirmed state.
-        states[version] = SharedState(version, SharedStateStatus.SET, data)
+        val updatedHistory = SharedStateHistory(
+            history.versions.copyOf(),
+            history.states.copyOf(),
+            history.lastSetIndices.copyOf(),
+            history.size
+        )
+        updatedHistory.states[index] = SharedState(version, SharedStateStatus.SET, data)
+        updatedHistory.updateLastSetIndices(index)
+        this.history = updatedHistory
         return true
     }
 
@@ -107,16 +206,17 @@ internal class SharedStateManager(private val name: String) {
      *         shared state at [version] does not exist,
      *         null - If no state at or before [version] is found
      */
-    @Synchronized
     fun resolve(version: Int): SharedStateResult {
+        val history = this.history
+
         // Return first state equal to or less than version
-        val resolvedState = states.floorEntry(version)?.value
-        if (resolvedState != null) {
-            return resolvedState.getResult()
+        val index = history.floorIndex(version)
+        if (index >= 0) {
+            return history[index].getResult()
         }
 
         // If not return the lowest shared state or null if empty
-        return states.firstEntry()?.value?.getResult() ?: SharedStateResult(SharedStateStatus.NONE, null)
+        return if (history.size > 0) history[0].getResult() else SharedStateResult(SharedStateStatus.NONE, null)
     }
 
     /**
@@ -128,18 +228,20 @@ internal class SharedStateManager(private val name: String) {
      *         shared state at [version] does not exist,
      *         null - If no state at or before [version] is found
      */
-    @Synchronized
     fun resolveLastSet(version: Int): SharedStateResult {
+        val history = this.history
+
         // Return the first non pending state equal to or less than version
-        states.descendingMap().tailMap(version).forEach {
-            val state = it.value
-            if (state.status != SharedStateStatus.PENDING) {
-                return state.getResult()
+        val index = history.floorIndex(version)
+        if (index >= 0) {
+            val lastSetIndex = history.lastSetIndices[index]
+            if (lastSetIndex >= 0) {
+                return history[lastSetIndex].getResult()
             }
         }
 
         // If not return the lowest shared state if it is non pending or null otherwise
-        val lowestState = states.firstEntry()?.value
+        val lowestState = if (history.size > 0) history[0] else null
         return if (lowestState?.status == SharedStateStatus.SET) {
             lowestState.getResult()
         } else {
@@ -148,19 +250,101 @@ internal class SharedStateManager(private val name: String) {
     }
 
     /**
-     * Removes all the states being tracked from [states]
+     * Drops versions which cannot be resolved by queries at [watermark] or later anymore, and collapses
+     * consecutive set versions with equal data into the earliest of them.
+     *
+     * The last set version at or before [watermark] is kept, along with all later versions, so [resolve]
+     * and [resolveLastSet] return the same results for any version from [watermark] on. Pending versions
+     * are kept so they can still be resolved, and the latest version is never collapsed so [setState]
+     * keeps rejecting older versions.
+     *
+     * Queries below [watermark] may resolve to a newer state afterwards, so [watermark] must not exceed the
+     * lowest version any event can still resolve to, including retired events resolving to their floor.
+     *
+     * @param watermark the lowest version that may still be queried
+     * @return the number of versions dropped
+     */
+    @Synchronized
+    fun compact(watermark: Int): Int {
+        val history = this.history
+        val lastSetIndex = history.lastSetIndices.getOrNull(history.floorIndex(watermark)) ?: -1
+        if (lastSetIndex < 0) {
+            return 0
+        }
+
+        val retainedStates = ArrayList<SharedState>(history.size)
+        for (index in 0 until lastSetIndex) {
+            if (history[index].status == SharedStateStatus.PENDING) {
+                retainedStates.add(history[index])
+            }
+        }
+
+        var previousState: SharedState? = null
+        for (index in lastSetIndex until history.size) {
+            val state = history[index]
+            val previous = previousState
+            if (index < history.size - 1 && previous != null && previous.status == SharedStateStatus.SET &&
+                state.status == SharedStateStatus.SET && previous.data == state.data
+            ) {
+                continue
+            }
+            retainedStates.add(state)
+            previousState = state
+        }
+
+        val dropped = history.size - retainedStates.size
+        if (dropped == 0) {
+            return 0
+        }
+
+        this.history = SharedStateHistory.of(retainedStates)
+        Log.trace(
+            CoreConstants.LOG_TAG,
+            LOG_TAG,
+            "Compacted $dropped $name shared state versions below #$watermark, ${retainedStates.size} remaining"
+        )
+        return dropped
+    }
+
+    /**
+     * Estimates the memory retained by the data of all versions. Data shared between versions is counted
+     * once. The estimate is approximate and meant for diagnostics only.
+     */
+    fun estimateRetainedBytes(): Long {
+        val history = this.history
+        val visited = IdentityHashMap<Any, Unit>()
+        return (0 until history.size).sumOf { estimateBytes(history[it].data, visited) }
+    }
+
+    private fun estimateBytes(value: Any?, visited: IdentityHashMap<Any, Unit>): Long {
+        if (value == null || visited.put(value, Unit) != null) {
+            return 0
+        }
+        return when (value) {
+            is String -> STRING_OVERHEAD_BYTES + 2L * value.length
+            is Map<*, *> -> value.entries.fold(OBJECT_OVERHEAD_BYTES) { total, entry ->
+                total + MAP_ENTRY_BYTES + estimateBytes(entry.key, visited) + estimateBytes(entry.value, visited)
+            }
+            is Collection<*> -> value.fold(OBJECT_OVERHEAD_BYTES) { total, element ->
+                total + REFERENCE_BYTES + estimateBytes(element, visited)
+            }
+            else -> OBJECT_OVERHEAD_BYTES + REFERENCE_BYTES
+        }
+    }
+
+    /**
+     * Removes all the states being tracked from [history]
      */
     @Synchronized
     fun clear() {
-        states.clear()
+        history = SharedStateHistory.EMPTY
     }
 
     /**
      * Checks if the [SharedStateManager] is empty.
      */
-    @Synchronized
     fun isEmpty(): Boolean {
-        return states.size == 0
+        return history.size == 0
     }
 
     /**
@@ -172,7 +356,8 @@ internal class SharedStateManager(private val name: String) {
      */
     private fun set(version: Int, state: SharedState): Boolean {
         // Check if there exists a state at a version equal to, or higher than the one provided.
-        if (states.ceilingEntry(version) != null) {
+        val history = this.history
+        if (history.size > 0 && history.versions[history.size - 1] >= version) {
             Log.trace(
                 CoreConstants.LOG_TAG,
                 LOG_TAG,
@@ -183,7 +368,35 @@ internal class SharedStateManager(private val name: String) {
         }
 
         // At this point, there does not exist a state at the provided version.
-        states[version] = state
+        append(history, state)
         return true
     }
+
+    /**
+     * Publishes [history] with [state] appended. Writes past the size of [history], growing the arrays if
+     * they are full, so the versions visible to readers are not modified. Must be called while holding the lock.
+     */
+    private fun append(history: SharedStateHistory, state: SharedState) {
+        val size = history.size
+        val target = if (size < history.versions.size) {
+            history
+        } else {
+            val capacity = maxOf(size * 2, 4)
+            SharedStateHistory(
+                history.versions.copyOf(capacity),
+                history.states.copyOf(capacity),
+                history.lastSetIndices.copyOf(capacity),
+                size
+            )
+        }
+
+        target.versions[size] = state.version
+        target.states[size] = state
+        target.lastSetIndices[size] = when {
+            state.status != SharedStateStatus.PENDING -> size
+            size > 0 -> target.lastSetIndices[size - 1]
+            else -> -1
+        }
+        this.history = SharedStateHistory(target.versions, target.states, target.lastSetIndices, size + 1)
+    }
 }
@@ -0,0 +1,24 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.internal.eventhub
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+/**
+ * Memory held by the shared state history of an extension.
+ *
+ * @param retainedVersions the number of shared state versions retained
+ * @param retainedBytes an approximation of the memory retained by the data of those versions
+ */
+internal data class SharedStateMetrics(
+    val retainedVersions: Int,
+    val retainedBytes: Long
+)
@@ -0,0 +1,29 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+/**
+ * Determines which threads run the EventHub dispatcher and the extension event queues.
+ */
+internal enum class WorkerThreadMode {
+    /**
+     * The EventHub dispatcher and each extension own a dedicated thread.
+     */
+    DEDICATED,
+
+    /**
+     * The EventHub dispatcher and each extension run as serial strands multiplexed on
+     * [com.adobe.marketing.mobile.internal.util.SharedWorkerPool]. Each queue keeps its FIFO order.
+     * Threads are only added while all of them are busy, e.g. with an extension blocking in a listener.
+     */
+    SHARED_POOL
+}
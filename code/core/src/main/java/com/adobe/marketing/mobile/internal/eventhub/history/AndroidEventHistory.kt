@@ -18,17 +18,41 @@ import com.adobe.marketing.mobile.EventHistoryRequest
 import com.adobe.marketing.mobile.EventHistoryResult
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.EVENT_HISTORY_ERROR
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.INSERT_BATCH_DELAY_MS
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.INSERT_BATCH_MAX_ROWS
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.RETENTION_INITIAL_DELAY_MS
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.RETENTION_INTERVAL_MS
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.RETENTION_STEP_DELAY_MS
 import com.adobe.marketing.mobile.internal.util.convertMapToFnv1aHash
 import com.adobe.marketing.mobile.services.Log
 import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.math.max
 
 /**
  * The Android implementation of [EventHistory] which provides functionality for performing
  * database operations on an [AndroidEventHistoryDatabase].
+ *
+ * @param retention the bounds enforced on the database in the background once events are recorded,
+ * none by default
  */
-internal class AndroidEventHistory : EventHistory {
-    private val androidEventHistoryDatabase = AndroidEventHistoryDatabase()
+internal class AndroidEventHistory(
+    retention: EventHistoryRetention = EventHistoryRetention.UNBOUNDED
+) : EventHistory {
+    private val androidEventHistoryDatabase = AndroidEventHistoryDatabase(retention)
+    private val enforcesRetention = retention.isBounded
+
+    /**
+     * Summary of the committed occurrences of recently queried hashes.
+     */
+    private val cache = EventHistoryCache()
+
+    /**
+     * Number of [recordEvent] and [deleteEvents] operations which have not been committed and
+     * applied to [cache] yet. Queries are only answered without waiting for [executor] when zero.
+     */
+    private val pendingMutations = AtomicInteger(0)
 
     companion object {
         private const val LOG_TAG = "AndroidEventHistory"
@@ -38,30 +62,147 @@ internal class AndroidEventHistory : EventHistory {
      * Responsible for holding a single thread executor for lazy initialization only if
      * AndroidEventHistory operations are used.
      */
-    private val executor by lazy { Executors.newSingleThreadExecutor() }
+    private val executor by lazy { Executors.newSingleThreadScheduledExecutor() }
+
+    /**
+     * Recorded events waiting to be written to the database. Only accessed from [executor].
+     */
+    private val pendingInserts = ArrayList<PendingInsert>()
+
+    /**
+     * Whether a delayed [flushPendingInserts] is scheduled on [executor]. Only accessed from [executor].
+     */
+    private var flushScheduled = false
+
+    /**
+     * Whether retention enforcement has been scheduled on [executor]. Only accessed from [executor].
+     */
+    private var retentionScheduled = false
+
+    private class PendingInsert(
+        val hash: Long,
+        val timestampMS: Long,
+        val callback: AdobeCallbackWithError<Boolean>?
+    )
 
     /**
      * Record an event in the [AndroidEventHistoryDatabase].
      *
+     * Events are written in batches of up to [INSERT_BATCH_MAX_ROWS] rows, at most
+     * [INSERT_BATCH_DELAY_MS] milliseconds after being recorded. The callback is notified once
+     * the batch containing the event has been committed.
+     *
      * @param event the [Event] to be recorded
      * @param callback whose call method will be called with a `boolean` indicating if the database operation was successful
      * or `fail` if a database failure occurred
      */
     override fun recordEvent(event: Event, callback: AdobeCallbackWithError<Boolean>?) {
+        pendingMutations.incrementAndGet()
         executor.submit {
-            val fnv1aHash = convertMapToFnv1aHash(event.eventData, event.mask)
-            Log.debug(
+            var queued = false
+            try {
+                queued = addPendingInsert(event, callback)
+            } finally {
+                // Queued events stay pending until their batch is committed
+                if (!queued) {
+                    pendingMutations.decrementAndGet()
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues [event] for the next batch. Must be called from [executor].
+     *
+     * @return whether [event] was queued
+     */
+    private fun addPendingInsert(event: Event, callback: AdobeCallbackWithError<Boolean>?): Boolean {
+        val fnv1aHash = convertMapToFnv1aHash(event.eventData, event.mask)
+        Log.debug(
+            CoreConstants.LOG_TAG,
+            LOG_TAG,
+            "%s hash($fnv1aHash) for Event(${event.uniqueIdentifier})",
+            if (fnv1aHash == 0L) "Not Recording" else "Recording"
+        )
+        if (fnv1aHash == 0L) {
+            notifyHandler(callback, false, true)
+            return false
+        }
+
+        if (enforcesRetention && !retentionScheduled) {
+            retentionScheduled = true
+            scheduleRetentionStep(RETENTION_INITIAL_DELAY_MS)
+        }
+
+        pendingInserts.add(PendingInsert(fnv1aHash, event.timestamp, callback))
+        if (pendingInserts.size >= INSERT_BATCH_MAX_ROWS) {
+            flushPendingInserts()
+        } else if (!flushScheduled) {
+            flushScheduled = true
+            executor.schedule(
+                {
+                    flushScheduled = false
+                    flushPendingInserts()
+                },
+                INSERT_BATCH_DELAY_MS,
+                TimeUnit.MILLISECONDS
+            )
+        }
+        return true
+    }
+
+    /**
+     * Writes all pending recorded events to the database in a single transaction and notifies
+     * their callbacks with the outcome. Committed events are added to [cache].
+     * Must be called from [executor].
+     */
+    private fun flushPendingInserts() {
+        if (pendingInserts.isEmpty()) {
+            return
+        }
+
+        val batch = pendingInserts.toTypedArray()
+        pendingInserts.clear()
+        var res = false
+        try {
+            res = androidEventHistoryDatabase.insertAll(
+                LongArray(batch.size) { batch[it].hash },
+                LongArray(batch.size) { batch[it].timestampMS }
+            )
+            Log.trace(
                 CoreConstants.LOG_TAG,
                 LOG_TAG,
-                "%s hash($fnv1aHash) for Event(${event.uniqueIdentifier})",
-                if (fnv1aHash == 0L) "Not Recording" else "Recording"
+                "Recorded batch of %d events (%s)",
+                batch.size,
+                if (res) "committed" else "failed"
             )
-            val res = if (fnv1aHash != 0L) {
-                androidEventHistoryDatabase.insert(fnv1aHash, event.timestamp)
+        } finally {
+            if (res) {
+                batch.forEach { cache.record(it.hash, it.timestampMS) }
             } else {
-                false
+                batch.forEach { cache.invalidate(it.hash) }
             }
-            notifyHandler(callback, res, !res)
+            pendingMutations.addAndGet(-batch.size)
+        }
+        batch.forEach { notifyHandler(it.callback, res, !res) }
+    }
+
+    private fun scheduleRetentionStep(delayMS: Long) {
+        executor.schedule({ enforceRetentionStep() }, delayMS, TimeUnit.MILLISECONDS)
+    }
+
+    /**
+     * Runs one bounded step of retention enforcement, rescheduling itself shortly while rows are
+     * being rolled up or deleted so that recorded events are written in between steps.
+     * Must be called from [executor].
+     */
+    private fun enforceRetentionStep() {
+        val affectedRows = androidEventHistoryDatabase.enforceRetention(System.currentTimeMillis())
+        if (affectedRows > 0) {
+            cache.clear()
+            scheduleRetentionStep(RETENTION_STEP_DELAY_MS)
+        } else {
+            scheduleRetentionStep(RETENTION_INTERVAL_MS)
         }
     }
 
@@ -69,6 +210,12 @@ internal class AndroidEventHistory : EventHistory {
      * Query the [AndroidEventHistoryDatabase] for [Event]s which match the contents of
      * the [EventHistoryRequest] array.
      *
+     * Requests which can be answered from the in-memory summary are answered without waiting for
+     * the database, provided no recorded or deleted events are still being processed. In that case
+     * the callback is called synchronously on the calling thread, before this method returns, so it
+     * does not wait behind pending writes or retention work. Otherwise it is called from the event
+     * history thread once the database has been queried.
+     *
      * @param eventHistoryRequests an array of `EventHistoryRequest`s to be matched
      * @param enforceOrder `boolean` if true, consecutive lookups will use the oldest
      * timestamp from the previous event as their from date
@@ -81,42 +228,94 @@ internal class AndroidEventHistory : EventHistory {
         enforceOrder: Boolean,
         callback: AdobeCallbackWithError<Array<EventHistoryResult>>
     ) {
+        if (pendingMutations.get() == 0) {
+            val cachedResults = queryCache(eventHistoryRequests, enforceOrder)
+            if (cachedResults != null) {
+                notifyHandler(callback, cachedResults, false)
+                return
+            }
+        }
+
         executor.submit {
-            var dbError = false
-            val results = mutableListOf<EventHistoryResult>()
-            var previousEventOldestOccurrence: Long? = null
-            eventHistoryRequests.forEachIndexed { index, request ->
-                val eventHash = request.maskAsDecimalHash
-                val adjustedFromDate = if (enforceOrder) request.adjustedFromDate(previousEventOldestOccurrence) else request.fromDate
-                val res = androidEventHistoryDatabase.query(eventHash, adjustedFromDate, request.adjustedToDate)
-
-                Log.trace(
-                    CoreConstants.LOG_TAG,
-                    LOG_TAG,
-                    "EventHistoryRequest[%d] - (%d of %d) for hash(%d) from %d to %d" +
-                        " with enforceOrder (%s) returned %d events",
-                    eventHistoryRequests.hashCode(),
-                    index + 1,
-                    eventHistoryRequests.size,
-                    eventHash,
-                    adjustedFromDate,
-                    request.adjustedToDate,
-                    if (enforceOrder) "true" else "false",
-                    res.count
-                )
-
-                if (enforceOrder) {
-                    if (res.count == EVENT_HISTORY_ERROR) {
-                        dbError = true
-                    }
-                    previousEventOldestOccurrence = res.oldestOccurrence
-                }
-                results.add(res)
+            // Pending events are written first so the query observes every recorded event.
+            flushPendingInserts()
+            val cachedResults = queryCache(eventHistoryRequests, enforceOrder)
+            if (cachedResults != null) {
+                notifyHandler(callback, cachedResults, false)
+                return@submit
             }
-            notifyHandler(callback, results.toTypedArray(), dbError)
+
+            eventHistoryRequests.forEach { loadIntoCache(it.maskAsDecimalHash) }
+
+            val results = queryCache(eventHistoryRequests, enforceOrder)
+                ?: queryDatabase(eventHistoryRequests, enforceOrder)
+            val dbError = enforceOrder && results.any { it.count == EVENT_HISTORY_ERROR }
+            notifyHandler(callback, results, dbError)
         }
     }
 
+    /**
+     * Answers all [eventHistoryRequests] from [cache], or returns null if any of them cannot be.
+     */
+    private fun queryCache(
+        eventHistoryRequests: Array<out EventHistoryRequest>,
+        enforceOrder: Boolean
+    ): Array<EventHistoryResult>? {
+        val results = ArrayList<EventHistoryResult>(eventHistoryRequests.size)
+        var previousEventOldestOccurrence: Long? = null
+        for (request in eventHistoryRequests) {
+            val adjustedFromDate = if (enforceOrder) request.adjustedFromDate(previousEventOldestOccurrence) else request.fromDate
+            val res = cache.query(request.maskAsDecimalHash, adjustedFromDate, request.adjustedToDate)
+                ?: return null
+            previousEventOldestOccurrence = res.oldestOccurrence
+            results.add(res)
+        }
+        return results.toTypedArray()
+    }
+
+    /**
+     * Answers all [eventHistoryRequests] with a single database query. Must be called from [executor].
+     */
+    private fun queryDatabase(
+        eventHistoryRequests: Array<out EventHistoryRequest>,
+        enforceOrder: Boolean
+    ): Array<EventHistoryResult> {
+        val hashes = LongArray(eventHistoryRequests.size) { eventHistoryRequests[it].maskAsDecimalHash }
+        val fromDates = LongArray(eventHistoryRequests.size) { eventHistoryRequests[it].fromDate }
+        val toDates = LongArray(eventHistoryRequests.size) { eventHistoryRequests[it].adjustedToDate }
+        val results = androidEventHistoryDatabase.queryAll(hashes, fromDates, toDates, enforceOrder)
+
+        results.forEachIndexed { index, res ->
+            Log.trace(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "EventHistoryRequest[%d] - (%d of %d) for hash(%d) from %d to %d" +
+                    " with enforceOrder (%s) returned %d events",
+                eventHistoryRequests.hashCode(),
+                index + 1,
+                eventHistoryRequests.size,
+                hashes[index],
+                fromDates[index],
+                toDates[index],
+                if (enforceOrder) "true" else "false",
+                res.count
+            )
+        }
+        return results
+    }
+
+    /**
+     * Loads the summary of [hash] from the database into [cache] if it is not cached yet.
+     * Must be called from [executor] with no pending inserts.
+     */
+    private fun loadIntoCache(hash: Long) {
+        if (cache.contains(hash)) {
+            return
+        }
+        val buckets = androidEventHistoryDatabase.summarize(hash, EventHistoryCache.DEFAULT_BUCKET_SIZE_MS) ?: return
+        cache.load(hash, buckets)
+    }
+
     /**
      * Delete rows from the [AndroidEventHistoryDatabase] that contain [Event]s which
      * match the contents of the [EventHistoryRequest] array.
@@ -130,17 +329,27 @@ internal class AndroidEventHistory : EventHistory {
         callback: AdobeCallbackWithError<Int>?
     ) {
         var dbError = false
+        pendingMutations.incrementAndGet()
         executor.submit {
-            val deletedRows = eventHistoryRequests.fold(0) { acc, request ->
-                val noOfDeletedRows = androidEventHistoryDatabase.delete(request.maskAsDecimalHash, request.fromDate, request.adjustedToDate)
-                if (noOfDeletedRows == EVENT_HISTORY_ERROR) {
-                    dbError = true
-                    acc
-                } else {
-                    acc + noOfDeletedRows
+            try {
+                flushPendingInserts()
+                val deletedRows = eventHistoryRequests.fold(0) { acc, request ->
+                    val eventHash = request.maskAsDecimalHash
+                    val adjustedToDate = request.adjustedToDate
+                    val noOfDeletedRows = androidEventHistoryDatabase.delete(eventHash, request.fromDate, adjustedToDate)
+                    if (noOfDeletedRows == EVENT_HISTORY_ERROR) {
+                        cache.invalidate(eventHash)
+                        dbError = true
+                        acc
+                    } else {
+                        cache.delete(eventHash, request.fromDate, adjustedToDate)
+                        acc + noOfDeletedRows
+                    }
                 }
+                notifyHandler(callback, deletedRows, dbError)
+            } finally {
+                pendingMutations.decrementAndGet()
             }
-            notifyHandler(callback, deletedRows, dbError)
         }
     }
 
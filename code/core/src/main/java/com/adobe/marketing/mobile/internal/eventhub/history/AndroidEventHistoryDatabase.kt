@@ -11,8 +11,8 @@
 
 package com.adobe.marketing.mobile.internal.eventhub.history
 
-import android.content.ContentValues
 import android.database.sqlite.SQLiteDatabase
+import android.database.sqlite.SQLiteStatement
 import com.adobe.marketing.mobile.EventHistoryResult
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryConstants.EVENT_HISTORY_ERROR
@@ -22,10 +22,27 @@ import com.adobe.marketing.mobile.services.Log
 import com.adobe.marketing.mobile.services.ServiceProvider
 import java.io.File
 
-internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
+/**
+ * The Android implementation of [EventHistoryDatabase], backed by SQLite.
+ *
+ * @param retention the bounds enforced on the database by [enforceRetention]
+ */
+internal class AndroidEventHistoryDatabase(
+    private val retention: EventHistoryRetention = EventHistoryRetention.UNBOUNDED
+) : EventHistoryDatabase {
     private val dbMutex = Any()
     private val databaseFile: File
-    private var database: SQLiteDatabase? = null
+
+    /**
+     * The connection kept open across operations, guarded by [dbMutex].
+     */
+    private var connection: Connection? = null
+
+    /**
+     * The size of [databaseFile] observed when [connection] was last used, used to detect the file
+     * being replaced or truncated underneath the open connection.
+     */
+    private var databaseFileLength: Long = 0L
 
     /**
      * Constructor.
@@ -48,6 +65,67 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
                     "An error occurred while creating the $TABLE_NAME table in the Android Event History database."
                 )
             }
+
+            if (!migrateSchema()) {
+                throw EventHistoryDatabaseCreationException(
+                    "An error occurred while migrating the $TABLE_NAME table to schema version $SCHEMA_VERSION."
+                )
+            }
+        }
+    }
+
+    /**
+     * Upgrades the schema of an existing database to [SCHEMA_VERSION], tracked through the
+     * database `user_version`.
+     *
+     * - Version 1 adds an index on ([COLUMN_HASH], [COLUMN_TIMESTAMP]), replacing a full table
+     *   scan with an index range scan.
+     * - Version 2 adds [COLUMN_OCCURRENCES] and [COLUMN_NEWEST_TIMESTAMP] for summary rows created
+     *   by [enforceRetention], and extends the index so that it still covers every statement.
+     *
+     * @return true if the schema is at [SCHEMA_VERSION]
+     */
+    private fun migrateSchema(): Boolean {
+        return SQLiteDatabaseHelper.process(
+            databaseFile.path,
+            SQLiteDatabaseHelper.DatabaseOpenMode.READ_WRITE
+        ) { database ->
+            if (database == null) {
+                return@process false
+            }
+            if (database.version >= SCHEMA_VERSION) {
+                return@process true
+            }
+
+            database.beginTransaction()
+            try {
+                if (database.version < 1) {
+                    database.execSQL(
+                        "CREATE INDEX IF NOT EXISTS $INDEX_NAME_V1 ON $TABLE_NAME ($COLUMN_HASH, $COLUMN_TIMESTAMP);"
+                    )
+                }
+                if (database.version < 2) {
+                    database.execSQL(
+                        "ALTER TABLE $TABLE_NAME ADD COLUMN $COLUMN_OCCURRENCES INTEGER NOT NULL DEFAULT 1;"
+                    )
+                    database.execSQL("ALTER TABLE $TABLE_NAME ADD COLUMN $COLUMN_NEWEST_TIMESTAMP INTEGER;")
+                    database.execSQL("DROP INDEX IF EXISTS $INDEX_NAME_V1;")
+                    database.execSQL(
+                        "CREATE INDEX IF NOT EXISTS $INDEX_NAME ON $TABLE_NAME " +
+                            "($COLUMN_HASH, $COLUMN_TIMESTAMP, $COLUMN_OCCURRENCES, $COLUMN_NEWEST_TIMESTAMP);"
+                    )
+                }
+                database.version = SCHEMA_VERSION
+                database.setTransactionSuccessful()
+            } finally {
+                database.endTransaction()
+            }
+            Log.debug(
+                CoreConstants.LOG_TAG,
+                LOG_TAG,
+                "Migrated the $TABLE_NAME table to schema version $SCHEMA_VERSION"
+            )
+            true
         }
     }
 
@@ -92,15 +170,37 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
      * @return a `boolean` which will contain the status of the database insert operation
      */
     override fun insert(hash: Long, timestampMS: Long): Boolean {
+        return insertAll(longArrayOf(hash), longArrayOf(timestampMS))
+    }
+
+    /**
+     * Insert rows into a table in the database within a single transaction.
+     *
+     * @param hashes `long` array containing the 32-bit FNV-1a hashed representation of each Event's data
+     * @param timestampsMS `long` array containing each Event's timestamp in milliseconds
+     * @return a `boolean` which will contain the status of the database insert operation
+     */
+    override fun insertAll(hashes: LongArray, timestampsMS: LongArray): Boolean {
         synchronized(dbMutex) {
             try {
-                openDatabase()
-                val contentValues = ContentValues().apply {
-                    put(COLUMN_HASH, hash)
-                    put(COLUMN_TIMESTAMP, timestampMS)
+                val connection = openDatabase()
+                val database = connection.database
+                database.beginTransactionNonExclusive()
+                try {
+                    val statement = connection.insertStatement
+                    for (i in hashes.indices) {
+                        statement.bindLong(1, hashes[i])
+                        statement.bindLong(2, timestampsMS[i])
+                        if (statement.executeInsert() < 0) {
+                            return false
+                        }
+                    }
+                    database.setTransactionSuccessful()
+                } finally {
+                    database.endTransaction()
                 }
-                val res = database?.insert(TABLE_NAME, null, contentValues) ?: EVENT_HISTORY_ERROR.toLong()
-                return res > 0
+                databaseFileLength = databaseFile.length()
+                return true
             } catch (e: Exception) {
                 Log.warning(
                     CoreConstants.LOG_TAG,
@@ -108,9 +208,8 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
                     "Failed to insert rows into the table (%s)",
                     if (e.localizedMessage != null) e.localizedMessage else e.message
                 )
-                return false
-            } finally {
                 closeDatabase()
+                return false
             }
         }
     }
@@ -129,21 +228,15 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
     override fun query(hash: Long, from: Long, to: Long): EventHistoryResult {
         synchronized(dbMutex) {
             try {
-                openDatabase()
-                val rawQuery =
-                    "SELECT COUNT(*) as $QUERY_COUNT, min($COLUMN_TIMESTAMP) as $QUERY_OLDEST, max($COLUMN_TIMESTAMP) as $QUERY_NEWEST FROM $TABLE_NAME WHERE $COLUMN_HASH = ? AND $COLUMN_TIMESTAMP >= ? AND $COLUMN_TIMESTAMP <= ?"
-                val whereArgs = arrayOf(hash.toString(), from.toString(), to.toString())
-                val cursor = database?.rawQuery(rawQuery, whereArgs) ?: return EventHistoryResult(EVENT_HISTORY_ERROR)
-                cursor.use {
-                    cursor.moveToFirst()
-                    val count = cursor.getInt(QUERY_COUNT_INDEX)
-                    if (count == 0) {
-                        return EventHistoryResult(0)
-                    } else {
-                        val oldest = cursor.getLong(QUERY_OLDEST_INDEX)
-                        val newest = cursor.getLong(QUERY_NEWEST_INDEX)
-                        return EventHistoryResult(count, oldest, newest)
-                    }
+                val connection = openDatabase()
+                val count = connection.countStatement.queryForLong(hash, from, to).toInt()
+                if (count == 0) {
+                    return EventHistoryResult(0)
+                } else {
+                    // With the index, min is a single seek to the start of the range.
+                    val oldest = connection.oldestStatement.queryForLong(hash, from, to)
+                    val newest = connection.newestStatement.queryForLong(hash, from, to)
+                    return EventHistoryResult(count, oldest, newest)
                 }
             } catch (e: Exception) {
                 Log.warning(
@@ -152,9 +245,71 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
                     "Failed to execute query (%s)",
                     if (e.localizedMessage != null) e.localizedMessage else e.message
                 )
+                closeDatabase()
                 return EventHistoryResult(EVENT_HISTORY_ERROR)
-            } finally {
+            }
+        }
+    }
+
+    /**
+     * Queries the database for several hashes and date ranges with a single statement.
+     *
+     * With [enforceOrder], the ranges are chained through a recursive common table expression
+     * so that each range starts no earlier than the oldest occurrence matched by the previous one.
+     * Requests beyond [MAX_BATCH_QUERY_REQUESTS] are queried one at a time to stay within the
+     * SQLite bound parameter limit.
+     *
+     * @param hashes `long` array containing the 32-bit FNV-1a hashed representation of each requested Event's data
+     * @param from `long` array containing the lower bounds of each date range
+     * @param to `long` array containing the upper bounds of each date range
+     * @param enforceOrder `boolean` if true, the lower bound of each range is raised to the oldest
+     * occurrence matched by the previous range, if any
+     * @return an array of [EventHistoryResult], one for each requested hash.
+     * If no database connection is available or error occurs, each result has a count of -1.
+     */
+    override fun queryAll(
+        hashes: LongArray,
+        from: LongArray,
+        to: LongArray,
+        enforceOrder: Boolean
+    ): Array<EventHistoryResult> {
+        if (hashes.size > MAX_BATCH_QUERY_REQUESTS) {
+            var previousOldest: Long? = null
+            return Array(hashes.size) { index ->
+                val adjustedFrom = previousOldest?.takeIf { enforceOrder }?.let { maxOf(from[index], it) } ?: from[index]
+                query(hashes[index], adjustedFrom, to[index]).also { previousOldest = it.oldestOccurrence }
+            }
+        }
+
+        synchronized(dbMutex) {
+            try {
+                val database = openDatabase().database
+                val args = Array(hashes.size * 3) { i ->
+                    when (i % 3) {
+                        0 -> hashes[i / 3]
+                        1 -> from[i / 3]
+                        else -> to[i / 3]
+                    }.toString()
+                }
+                database.rawQuery(batchQuery(hashes.size, enforceOrder), args).use { cursor ->
+                    val results = Array(hashes.size) { EventHistoryResult(0) }
+                    while (cursor.moveToNext()) {
+                        val count = cursor.getInt(1)
+                        if (count > 0) {
+                            results[cursor.getInt(0)] = EventHistoryResult(count, cursor.getLong(2), cursor.getLong(3))
+                        }
+                    }
+                    return results
+                }
+            } catch (e: Exception) {
+                Log.warning(
+                    CoreConstants.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to execute batched query (%s)",
+                    if (e.localizedMessage != null) e.localizedMessage else e.message
+                )
                 closeDatabase()
+                return Array(hashes.size) { EventHistoryResult(EVENT_HISTORY_ERROR) }
             }
         }
     }
@@ -170,11 +325,20 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
     override fun delete(hash: Long, from: Long, to: Long): Int {
         synchronized(dbMutex) {
             try {
-                openDatabase()
-                val whereClause =
-                    "$COLUMN_HASH = ? AND $COLUMN_TIMESTAMP >= ? AND $COLUMN_TIMESTAMP <= ?"
-                val whereArgs = arrayOf(hash.toString(), from.toString(), to.toString())
-                val affectedRowsCount = database?.delete(TABLE_NAME, whereClause, whereArgs) ?: EVENT_HISTORY_ERROR
+                val connection = openDatabase()
+                val database = connection.database
+                database.beginTransactionNonExclusive()
+                val affectedRowsCount = try {
+                    // Summary rows stand for several events, so count the events before deleting.
+                    val deletedEvents = connection.countStatement.queryForLong(hash, from, to).toInt()
+                    connection.deleteStatement.bindRange(hash, from, to)
+                    connection.deleteStatement.executeUpdateDelete()
+                    database.setTransactionSuccessful()
+                    deletedEvents
+                } finally {
+                    database.endTransaction()
+                }
+                databaseFileLength = databaseFile.length()
                 Log.trace(
                     CoreConstants.LOG_TAG,
                     LOG_TAG,
@@ -188,23 +352,339 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
                     "Failed to delete table rows (%s)",
                     if (e.localizedMessage != null) e.localizedMessage else e.message
                 )
+                closeDatabase()
                 return EVENT_HISTORY_ERROR
-            } finally {
+            }
+        }
+    }
+
+    /**
+     * Summarizes all entries for a hash into time buckets.
+     *
+     * @param hash `long` containing the 32-bit FNV-1a hashed representation of an Event's data
+     * @param bucketSizeMS `long` the size of each bucket in milliseconds
+     * @return the non-empty buckets with their count and oldest and newest timestamp, or null if an error occurred
+     */
+    override fun summarize(hash: Long, bucketSizeMS: Long): List<EventHistoryBucket>? {
+        synchronized(dbMutex) {
+            try {
+                val database = openDatabase().database
+                val whereArgs = arrayOf(bucketSizeMS.toString(), hash.toString())
+                database.rawQuery(SUMMARIZE_QUERY, whereArgs).use { cursor ->
+                    val buckets = ArrayList<EventHistoryBucket>(cursor.count)
+                    while (cursor.moveToNext()) {
+                        buckets.add(
+                            EventHistoryBucket(
+                                cursor.getLong(0),
+                                cursor.getInt(1),
+                                cursor.getLong(2),
+                                cursor.getLong(3)
+                            )
+                        )
+                    }
+                    return buckets
+                }
+            } catch (e: Exception) {
+                Log.warning(
+                    CoreConstants.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to summarize table rows (%s)",
+                    if (e.localizedMessage != null) e.localizedMessage else e.message
+                )
+                closeDatabase()
+                return null
+            }
+        }
+    }
+
+    /**
+     * Performs a bounded step of [retention] enforcement, so that it can be interleaved with other
+     * operations. Callers repeat the step while it returns a positive value.
+     *
+     * Each step handles at most [RETENTION_GROUPS_PER_STEP] hashes or days, or deletes at most
+     * [RETENTION_ROWS_PER_STEP] rows, in the order: age, per hash cap, then total row count.
+     *
+     * @param nowMS `long` the current time in milliseconds
+     * @return the number of rows rolled up or deleted, 0 if the database is within bounds or -1 if an error occurred
+     */
+    fun enforceRetention(nowMS: Long): Int {
+        synchronized(dbMutex) {
+            try {
+                val database = openDatabase().database
+                database.beginTransactionNonExclusive()
+                try {
+                    val affectedRows = retention.maxAgeMS?.let { enforceMaxAge(database, nowMS - it) }?.takeIf { it > 0 }
+                        ?: retention.maxRowsPerHash?.let { enforceMaxRowsPerHash(database, it) }?.takeIf { it > 0 }
+                        ?: retention.maxRows?.let { enforceMaxRows(database, it) }
+                        ?: 0
+                    database.setTransactionSuccessful()
+                    if (affectedRows > 0) {
+                        Log.trace(
+                            CoreConstants.LOG_TAG,
+                            LOG_TAG,
+                            "Retention rolled up or deleted $affectedRows rows in table $TABLE_NAME"
+                        )
+                    }
+                    return affectedRows
+                } finally {
+                    database.endTransaction()
+                }
+            } catch (e: Exception) {
+                Log.debug(
+                    CoreConstants.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to enforce retention (%s)",
+                    if (e.localizedMessage != null) e.localizedMessage else e.message
+                )
                 closeDatabase()
+                return EVENT_HISTORY_ERROR
+            }
+        }
+    }
+
+    /**
+     * Rolls up or deletes non-summary rows older than [cutoffMS], one hash and day at a time.
+     */
+    private fun enforceMaxAge(database: SQLiteDatabase, cutoffMS: Long): Int {
+        if (!retention.rollUp) {
+            database.compileStatement(
+                "DELETE FROM $TABLE_NAME WHERE rowid IN " +
+                    "(SELECT rowid FROM $TABLE_NAME WHERE $COLUMN_TIMESTAMP < ? LIMIT $RETENTION_ROWS_PER_STEP)"
+            ).use {
+                it.bindLong(1, cutoffMS)
+                return it.executeUpdateDelete()
+            }
+        }
+
+        var affectedRows = 0
+        database.rawQuery(
+            "SELECT DISTINCT $COLUMN_HASH, $COLUMN_TIMESTAMP / $DAY_MS FROM $TABLE_NAME " +
+                "WHERE $COLUMN_NEWEST_TIMESTAMP IS NULL AND $COLUMN_TIMESTAMP < CAST(? AS INTEGER) " +
+                "LIMIT $RETENTION_GROUPS_PER_STEP",
+            arrayOf(cutoffMS.toString())
+        ).use { cursor ->
+            while (cursor.moveToNext()) {
+                val dayStart = cursor.getLong(1) * DAY_MS
+                affectedRows += rollUp(database, cursor.getLong(0), dayStart, minOf(dayStart + DAY_MS, cutoffMS))
+            }
+        }
+        return affectedRows
+    }
+
+    /**
+     * Rolls up or deletes the oldest non-summary rows of hashes with more than [maxRowsPerHash] of them.
+     * Rows are rolled up per day, like rows beyond the maximum age, so that queries starting within
+     * the rolled up window still count most of its occurrences.
+     */
+    private fun enforceMaxRowsPerHash(database: SQLiteDatabase, maxRowsPerHash: Int): Int {
+        var affectedRows = 0
+        var remainingGroups = RETENTION_GROUPS_PER_STEP
+        database.rawQuery(
+            "SELECT $COLUMN_HASH, sum($COLUMN_NEWEST_TIMESTAMP IS NULL) AS rawRows FROM $TABLE_NAME " +
+                "GROUP BY $COLUMN_HASH HAVING rawRows > CAST(? AS INTEGER) LIMIT $RETENTION_GROUPS_PER_STEP",
+            arrayOf(maxRowsPerHash.toString())
+        ).use { cursor ->
+            while (remainingGroups > 0 && cursor.moveToNext()) {
+                val hash = cursor.getLong(0)
+                val excessRows = cursor.getLong(1) - maxRowsPerHash
+                // Rows up to the newest excess row are rolled up or deleted, including any ties.
+                val newestExcessMS = database.compileStatement(
+                    "SELECT $COLUMN_TIMESTAMP FROM $TABLE_NAME WHERE $COLUMN_HASH = ? " +
+                        "AND $COLUMN_NEWEST_TIMESTAMP IS NULL ORDER BY $COLUMN_TIMESTAMP LIMIT 1 OFFSET ?"
+                ).use {
+                    it.bindLong(1, hash)
+                    it.bindLong(2, excessRows - 1)
+                    it.simpleQueryForLong()
+                }
+                if (!retention.rollUp) {
+                    remainingGroups--
+                    affectedRows += database.delete(
+                        TABLE_NAME,
+                        "$COLUMN_HASH = ? AND $COLUMN_TIMESTAMP <= ?",
+                        arrayOf(hash.toString(), newestExcessMS.toString())
+                    )
+                    continue
+                }
+
+                database.rawQuery(
+                    "SELECT DISTINCT $COLUMN_TIMESTAMP / $DAY_MS FROM $TABLE_NAME WHERE $COLUMN_HASH = ? " +
+                        "AND $COLUMN_NEWEST_TIMESTAMP IS NULL AND $COLUMN_TIMESTAMP <= CAST(? AS INTEGER) " +
+                        "LIMIT $remainingGroups",
+                    arrayOf(hash.toString(), newestExcessMS.toString())
+                ).use { days ->
+                    while (days.moveToNext()) {
+                        remainingGroups--
+                        val dayStart = days.getLong(0) * DAY_MS
+                        affectedRows += rollUp(database, hash, dayStart, minOf(dayStart + DAY_MS, newestExcessMS + 1))
+                    }
+                }
             }
         }
+        return affectedRows
     }
 
-    private fun openDatabase() {
-        database = SQLiteDatabaseHelper.openDatabase(
+    /**
+     * Bounds the number of non-summary rows and the number of summary rows to [maxRows] each.
+     *
+     * Summary rows do not count towards the non-summary rows, so recently recorded events are
+     * never deleted to make room for old aggregates. The oldest inserted non-summary rows beyond
+     * [maxRows] are deleted. Beyond [maxRows] summary rows, all summary rows of the hashes with the
+     * most of them are merged into one, which keeps their counts but no longer tells their days
+     * apart. As every hash keeps at least one summary row, there can be more summary rows than
+     * [maxRows] when more hashes than that have been rolled up.
+     */
+    private fun enforceMaxRows(database: SQLiteDatabase, maxRows: Int): Int {
+        val rows = database.compileStatement(
+            "SELECT COUNT(*) FROM $TABLE_NAME WHERE $COLUMN_NEWEST_TIMESTAMP IS NULL"
+        ).use { it.simpleQueryForLong() }
+        val excessRows = minOf(rows - maxRows, RETENTION_ROWS_PER_STEP.toLong())
+        if (excessRows > 0) {
+            database.compileStatement(
+                "DELETE FROM $TABLE_NAME WHERE rowid IN (SELECT rowid FROM $TABLE_NAME " +
+                    "WHERE $COLUMN_NEWEST_TIMESTAMP IS NULL ORDER BY rowid LIMIT ?)"
+            ).use {
+                it.bindLong(1, excessRows)
+                return it.executeUpdateDelete()
+            }
+        }
+
+        val summaryRows = database.compileStatement(
+            "SELECT COUNT(*) FROM $TABLE_NAME WHERE $COLUMN_NEWEST_TIMESTAMP IS NOT NULL"
+        ).use { it.simpleQueryForLong() }
+        var excessSummaryRows = summaryRows - maxRows
+        var affectedRows = 0
+        database.rawQuery(
+            "SELECT $COLUMN_HASH, COUNT(*) AS summaryRows, max($COLUMN_TIMESTAMP) FROM $TABLE_NAME " +
+                "WHERE $COLUMN_NEWEST_TIMESTAMP IS NOT NULL GROUP BY $COLUMN_HASH HAVING summaryRows > 1 " +
+                "ORDER BY summaryRows DESC LIMIT $RETENTION_GROUPS_PER_STEP",
+            null
+        ).use { cursor ->
+            while (excessSummaryRows > 0 && cursor.moveToNext()) {
+                excessSummaryRows -= cursor.getLong(1) - 1
+                affectedRows += rollUp(database, cursor.getLong(0), 0, cursor.getLong(2) + 1)
+            }
+        }
+        return affectedRows
+    }
+
+    /**
+     * Replaces all rows of [hash] with a timestamp in [[from], [toExclusive]), including earlier
+     * summary rows, by a single summary row.
+     *
+     * @return the number of rows replaced, or 0 if there were none
+     */
+    private fun rollUp(database: SQLiteDatabase, hash: Long, from: Long, toExclusive: Long): Int {
+        val summaryRowId = database.compileStatement(
+            "INSERT INTO $TABLE_NAME ($COLUMN_HASH, $COLUMN_TIMESTAMP, $COLUMN_OCCURRENCES, $COLUMN_NEWEST_TIMESTAMP) " +
+                "SELECT $COLUMN_HASH, min($COLUMN_TIMESTAMP), sum($COLUMN_OCCURRENCES), max($NEWEST_OCCURRENCE) " +
+                "FROM $TABLE_NAME WHERE $COLUMN_HASH = ? AND $COLUMN_TIMESTAMP >= ? AND $COLUMN_TIMESTAMP < ? " +
+                "GROUP BY $COLUMN_HASH"
+        ).use {
+            it.bindLong(1, hash)
+            it.bindLong(2, from)
+            it.bindLong(3, toExclusive)
+            it.executeInsert()
+        }
+        if (summaryRowId < 0) {
+            return 0
+        }
+        return database.delete(
+            TABLE_NAME,
+            "$COLUMN_HASH = ? AND $COLUMN_TIMESTAMP >= ? AND $COLUMN_TIMESTAMP < ? AND rowid != ?",
+            arrayOf(hash.toString(), from.toString(), toExclusive.toString(), summaryRowId.toString())
+        )
+    }
+
+    /**
+     * Builds the statement for [queryAll] with [size] requests, each bound as hash, from and to.
+     */
+    private fun batchQuery(size: Int, enforceOrder: Boolean): String {
+        val values = (0 until size).joinToString(", ") {
+            "($it, CAST(? AS INTEGER), CAST(? AS INTEGER), CAST(? AS INTEGER))"
+        }
+        val requests = "requests(idx, hash, fromDate, toDate) AS (VALUES $values)"
+        val ranges = if (enforceOrder) {
+            val adjustedFrom = "max(r.fromDate, coalesce(p.oldest, r.fromDate))"
+            "ranges(idx, hash, fromDate, toDate, oldest) AS (" +
+                "SELECT idx, hash, fromDate, toDate, " +
+                "(SELECT min($COLUMN_TIMESTAMP) FROM $TABLE_NAME WHERE $COLUMN_HASH = requests.hash " +
+                "AND $COLUMN_TIMESTAMP >= requests.fromDate AND $COLUMN_TIMESTAMP <= requests.toDate) " +
+                "FROM requests WHERE idx = 0 " +
+                "UNION ALL " +
+                "SELECT r.idx, r.hash, $adjustedFrom, r.toDate, " +
+                "(SELECT min($COLUMN_TIMESTAMP) FROM $TABLE_NAME WHERE $COLUMN_HASH = r.hash " +
+                "AND $COLUMN_TIMESTAMP >= $adjustedFrom AND $COLUMN_TIMESTAMP <= r.toDate) " +
+                "FROM ranges p JOIN requests r ON r.idx = p.idx + 1)"
+        } else {
+            "ranges AS (SELECT * FROM requests)"
+        }
+        return "WITH RECURSIVE $requests, $ranges " +
+            "SELECT ranges.idx, ifnull(sum(e.$COLUMN_OCCURRENCES), 0), min(e.$COLUMN_TIMESTAMP), " +
+            "max(ifnull(e.$COLUMN_NEWEST_TIMESTAMP, e.$COLUMN_TIMESTAMP)) " +
+            "FROM ranges LEFT JOIN $TABLE_NAME e ON e.$COLUMN_HASH = ranges.hash " +
+            "AND e.$COLUMN_TIMESTAMP >= ranges.fromDate AND e.$COLUMN_TIMESTAMP <= ranges.toDate " +
+            "GROUP BY ranges.idx"
+    }
+
+    /**
+     * Returns the open connection, opening it in write-ahead logging mode if needed.
+     *
+     * The connection is reopened if the database file was deleted or shrunk since it was last
+     * used, so that operations fail the same way they would on a freshly opened connection rather
+     * than being served from the stale connection. Must be called while holding [dbMutex].
+     *
+     * @throws [android.database.SQLException] if the database cannot be opened or the statements
+     * cannot be compiled against it
+     */
+    private fun openDatabase(): Connection {
+        val openConnection = connection
+        if (openConnection != null && openConnection.database.isOpen &&
+            databaseFile.exists() && databaseFile.length() >= databaseFileLength
+        ) {
+            return openConnection
+        }
+
+        closeDatabase()
+        val database = SQLiteDatabaseHelper.openDatabase(
             databaseFile.path,
             SQLiteDatabaseHelper.DatabaseOpenMode.READ_WRITE
         )
+        val newConnection = try {
+            database.enableWriteAheadLogging()
+            Connection(database)
+        } catch (e: Exception) {
+            SQLiteDatabaseHelper.closeDatabase(database)
+            throw e
+        }
+        connection = newConnection
+        databaseFileLength = databaseFile.length()
+        return newConnection
     }
 
     private fun closeDatabase() {
-        SQLiteDatabaseHelper.closeDatabase(database)
-        database = null
+        connection?.close()
+        connection = null
+    }
+
+    /**
+     * An open database together with the statements compiled against it, which are reused for
+     * every operation until the connection is closed.
+     */
+    private class Connection(val database: SQLiteDatabase) {
+        val insertStatement: SQLiteStatement = database.compileStatement(INSERT_STATEMENT)
+        val countStatement: SQLiteStatement = database.compileStatement(COUNT_STATEMENT)
+        val oldestStatement: SQLiteStatement = database.compileStatement(OLDEST_STATEMENT)
+        val newestStatement: SQLiteStatement = database.compileStatement(NEWEST_STATEMENT)
+        val deleteStatement: SQLiteStatement = database.compileStatement(DELETE_STATEMENT)
+
+        fun close() {
+            insertStatement.close()
+            countStatement.close()
+            oldestStatement.close()
+            newestStatement.close()
+            deleteStatement.close()
+            SQLiteDatabaseHelper.closeDatabase(database)
+        }
     }
 
     companion object {
@@ -214,11 +694,41 @@ internal class AndroidEventHistoryDatabase : EventHistoryDatabase {
         private const val TABLE_NAME = "Events"
         private const val COLUMN_HASH = "eventHash"
         private const val COLUMN_TIMESTAMP = "timestamp"
-        private const val QUERY_COUNT = "count"
-        private const val QUERY_COUNT_INDEX = 0
-        private const val QUERY_OLDEST = "oldest"
-        private const val QUERY_OLDEST_INDEX = 1
-        private const val QUERY_NEWEST = "newest"
-        private const val QUERY_NEWEST_INDEX = 2
+        private const val COLUMN_OCCURRENCES = "occurrences"
+        private const val COLUMN_NEWEST_TIMESTAMP = "newestTimestamp"
+        private const val INDEX_NAME_V1 = "Events_eventHash_timestamp"
+        private const val INDEX_NAME = "Events_eventHash_timestamp_occurrences"
+        private const val SCHEMA_VERSION = 2
+        private const val MAX_BATCH_QUERY_REQUESTS = 250
+        private const val RETENTION_GROUPS_PER_STEP = 16
+        private const val RETENTION_ROWS_PER_STEP = 500
+        private const val DAY_MS = 24 * 60 * 60 * 1000L
+        private const val RANGE_CLAUSE =
+            "$COLUMN_HASH = ? AND $COLUMN_TIMESTAMP >= ? AND $COLUMN_TIMESTAMP <= ?"
+        private const val INSERT_STATEMENT =
+            "INSERT INTO $TABLE_NAME ($COLUMN_HASH, $COLUMN_TIMESTAMP) VALUES (?, ?)"
+        private const val NEWEST_OCCURRENCE = "ifnull($COLUMN_NEWEST_TIMESTAMP, $COLUMN_TIMESTAMP)"
+        private const val COUNT_STATEMENT =
+            "SELECT ifnull(sum($COLUMN_OCCURRENCES), 0) FROM $TABLE_NAME WHERE $RANGE_CLAUSE"
+        private const val OLDEST_STATEMENT =
+            "SELECT min($COLUMN_TIMESTAMP) FROM $TABLE_NAME WHERE $RANGE_CLAUSE"
+        private const val NEWEST_STATEMENT =
+            "SELECT max($NEWEST_OCCURRENCE) FROM $TABLE_NAME WHERE $RANGE_CLAUSE"
+        private const val DELETE_STATEMENT =
+            "DELETE FROM $TABLE_NAME WHERE $RANGE_CLAUSE"
+        private const val SUMMARIZE_QUERY =
+            "SELECT $COLUMN_TIMESTAMP / CAST(? AS INTEGER), sum($COLUMN_OCCURRENCES), min($COLUMN_TIMESTAMP), max($NEWEST_OCCURRENCE) " +
+                "FROM $TABLE_NAME WHERE $COLUMN_HASH = CAST(? AS INTEGER) GROUP BY 1"
     }
 }
+
+private fun SQLiteStatement.bindRange(hash: Long, from: Long, to: Long) {
+    bindLong(1, hash)
+    bindLong(2, from)
+    bindLong(3, to)
+}
+
+private fun SQLiteStatement.queryForLong(hash: Long, from: Long, to: Long): Long {
+    bindRange(hash, from, to)
+    return simpleQueryForLong()
+}
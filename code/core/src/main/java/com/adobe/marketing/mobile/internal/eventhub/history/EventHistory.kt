@@ -31,6 +31,9 @@ internal interface EventHistory {
      * Query the [EventHistoryDatabase] for [Event]s which match the contents of the
      * [EventHistoryRequest] array.
      *
+     * The callback may be called synchronously on the calling thread when the results are
+     * already known, or later from a background thread.
+     *
      * @param eventHistoryRequests an array of `EventHistoryRequest`s to be matched
      * @param enforceOrder `boolean` if true, consecutive lookups will use the oldest
      * timestamp from the previous event as their from date
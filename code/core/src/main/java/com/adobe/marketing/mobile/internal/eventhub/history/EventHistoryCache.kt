@@ -0,0 +1,169 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub.history
+
+import com.adobe.marketing.mobile.EventHistoryResult
+import java.util.TreeMap
+
+/**
+ * Aggregated occurrences of an event hash within one time bucket.
+ *
+ * @param bucket the index of the bucket, `timestamp / bucketSizeMS`
+ * @param count the number of occurrences in the bucket
+ * @param oldestOccurrence the oldest timestamp in the bucket
+ * @param newestOccurrence the newest timestamp in the bucket
+ */
+internal data class EventHistoryBucket(
+    val bucket: Long,
+    val count: Int,
+    val oldestOccurrence: Long,
+    val newestOccurrence: Long
+)
+
+/**
+ * In-memory summary of the event history for the most recently queried event hashes.
+ *
+ * Occurrences of each cached hash are aggregated into buckets of [bucketSizeMS] holding the count
+ * and the oldest and newest timestamp. A range query is answered exactly when every bucket it
+ * touches lies either entirely inside or entirely outside the range, which always holds for the
+ * common `from = 0, to = now` requests. Otherwise [query] returns null and the database has to be
+ * consulted.
+ *
+ * At most [maxHashes] hashes are cached, evicting the least recently used. This class is thread safe.
+ */
+internal class EventHistoryCache(
+    private val bucketSizeMS: Long = DEFAULT_BUCKET_SIZE_MS,
+    private val maxHashes: Int = DEFAULT_MAX_HASHES
+) {
+    private class Bucket(var count: Int, var oldestOccurrence: Long, var newestOccurrence: Long)
+
+    private val bucketsByHash = object : LinkedHashMap<Long, TreeMap<Long, Bucket>>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<Long, TreeMap<Long, Bucket>>?): Boolean {
+            return size > maxHashes
+        }
+    }
+
+    /**
+     * Returns true if the occurrences of [hash] are cached.
+     */
+    @Synchronized
+    fun contains(hash: Long): Boolean = bucketsByHash.containsKey(hash)
+
+    /**
+     * Caches the summary of all occurrences of [hash], as loaded from the database, replacing any
+     * previously cached summary.
+     *
+     * @param hash the event hash
+     * @param buckets the occurrences of [hash] aggregated into buckets of [bucketSizeMS]
+     */
+    @Synchronized
+    fun load(hash: Long, buckets: List<EventHistoryBucket>) {
+        val summary = TreeMap<Long, Bucket>()
+        buckets.forEach {
+            summary[it.bucket] = Bucket(it.count, it.oldestOccurrence, it.newestOccurrence)
+        }
+        bucketsByHash[hash] = summary
+    }
+
+    /**
+     * Adds an occurrence of [hash] at [timestampMS] if [hash] is cached.
+     */
+    @Synchronized
+    fun record(hash: Long, timestampMS: Long) {
+        val summary = bucketsByHash[hash] ?: return
+        val bucket = summary[bucketOf(timestampMS)]
+        if (bucket == null) {
+            summary[bucketOf(timestampMS)] = Bucket(1, timestampMS, timestampMS)
+        } else {
+            bucket.count++
+            if (timestampMS < bucket.oldestOccurrence) bucket.oldestOccurrence = timestampMS
+            if (timestampMS > bucket.newestOccurrence) bucket.newestOccurrence = timestampMS
+        }
+    }
+
+    /**
+     * Removes the occurrences of [hash] between [from] and [to], inclusive. The hash is evicted
+     * if the range splits a bucket.
+     */
+    @Synchronized
+    fun delete(hash: Long, from: Long, to: Long) {
+        val summary = bucketsByHash[hash] ?: return
+        if (from > to) {
+            return
+        }
+
+        val iterator = summary.subMap(bucketOf(from), true, bucketOf(to), true).values.iterator()
+        while (iterator.hasNext()) {
+            val bucket = iterator.next()
+            when {
+                bucket.newestOccurrence < from || bucket.oldestOccurrence > to -> continue
+                bucket.oldestOccurrence >= from && bucket.newestOccurrence <= to -> iterator.remove()
+                else -> {
+                    bucketsByHash.remove(hash)
+                    return
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts [hash], for example after its occurrences failed to be written to the database.
+     */
+    @Synchronized
+    fun invalidate(hash: Long) {
+        bucketsByHash.remove(hash)
+    }
+
+    /**
+     * Evicts all hashes, for example after retention rolled up or deleted rows.
+     */
+    @Synchronized
+    fun clear() {
+        bucketsByHash.clear()
+    }
+
+    /**
+     * Returns the occurrences of [hash] between [from] and [to], inclusive, or null if [hash] is not
+     * cached or the range splits a bucket.
+     */
+    @Synchronized
+    fun query(hash: Long, from: Long, to: Long): EventHistoryResult? {
+        val summary = bucketsByHash[hash] ?: return null
+        if (from > to) {
+            return EventHistoryResult(0)
+        }
+
+        var count = 0
+        var oldest = Long.MAX_VALUE
+        var newest = Long.MIN_VALUE
+        for (bucket in summary.subMap(bucketOf(from), true, bucketOf(to), true).values) {
+            when {
+                bucket.newestOccurrence < from || bucket.oldestOccurrence > to -> continue
+                bucket.oldestOccurrence >= from && bucket.newestOccurrence <= to -> {
+                    count += bucket.count
+                    if (bucket.oldestOccurrence < oldest) oldest = bucket.oldestOccurrence
+                    if (bucket.newestOccurrence > newest) newest = bucket.newestOccurrence
+                }
+                else -> return null
+            }
+        }
+        return if (count == 0) EventHistoryResult(0) else EventHistoryResult(count, oldest, newest)
+    }
+
+    // Matches the integer division used by the database when summarizing, see EventHistoryDatabase.summarize.
+    private fun bucketOf(timestampMS: Long): Long = timestampMS / bucketSizeMS
+
+    companion object {
+        const val DEFAULT_BUCKET_SIZE_MS = 60 * 60 * 1000L
+        const val DEFAULT_MAX_HASHES = 128
+    }
+}
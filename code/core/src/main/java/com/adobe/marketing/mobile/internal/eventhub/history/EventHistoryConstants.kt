@@ -14,4 +14,29 @@ package com.adobe.marketing.mobile.internal.eventhub.history
 internal object EventHistoryConstants {
     const val EVENT_HISTORY_ERROR = -1
     const val EVENT_HISTORY_RESULT_NOT_FOUND = 0
+
+    /**
+     * Maximum number of recorded events written to the database in a single transaction.
+     */
+    const val INSERT_BATCH_MAX_ROWS = 64
+
+    /**
+     * Maximum time in milliseconds a recorded event waits for other events to be batched with.
+     */
+    const val INSERT_BATCH_DELAY_MS = 50L
+
+    /**
+     * Delay in milliseconds before retention is first enforced after events start being recorded.
+     */
+    const val RETENTION_INITIAL_DELAY_MS = 10_000L
+
+    /**
+     * Delay in milliseconds between consecutive retention steps while the database exceeds its bounds.
+     */
+    const val RETENTION_STEP_DELAY_MS = 100L
+
+    /**
+     * Delay in milliseconds before retention is enforced again once the database is within its bounds.
+     */
+    const val RETENTION_INTERVAL_MS = 60 * 60 * 1000L
 }
@@ -25,6 +25,15 @@ internal interface EventHistoryDatabase {
      */
     fun insert(hash: Long, timestampMS: Long): Boolean
 
+    /**
+     * Insert rows into a table in the database. Either all rows are inserted or none are.
+     *
+     * @param hashes `long` array containing the 32-bit FNV-1a hashed representation of each Event's data
+     * @param timestampsMS `long` array containing each Event's timestamp in milliseconds, matching [hashes] by index
+     * @return a `boolean` which will contain the status of the database insert operation
+     */
+    fun insertAll(hashes: LongArray, timestampsMS: LongArray): Boolean
+
     /**
      * Queries the database to search for the existence of events.
      * This method will count all records in the event history database that match the provided
@@ -37,6 +46,19 @@ internal interface EventHistoryDatabase {
      */
     fun query(hash: Long, from: Long, to: Long): EventHistoryResult
 
+    /**
+     * Queries the database for several hashes and date ranges at once.
+     * The result at each index is the one [query] would return for the hash and range at that index.
+     *
+     * @param hashes `long` array containing the 32-bit FNV-1a hashed representation of each requested Event's data
+     * @param from `long` array containing the lower bounds of each date range
+     * @param to `long` array containing the upper bounds of each date range
+     * @param enforceOrder `boolean` if true, the lower bound of each range is raised to the oldest
+     * occurrence matched by the previous range, if any
+     * @return an array of `EventHistoryResult`, one for each requested hash. If an error occurs, each result has a count of -1
+     */
+    fun queryAll(hashes: LongArray, from: LongArray, to: LongArray, enforceOrder: Boolean): Array<EventHistoryResult>
+
     /**
      * Delete entries from the event history database.
      *
@@ -46,4 +68,13 @@ internal interface EventHistoryDatabase {
      * @return `int` which will contain the number of rows deleted.
      */
     fun delete(hash: Long, from: Long, to: Long): Int
+
+    /**
+     * Summarizes all entries for a hash into time buckets.
+     *
+     * @param hash `long` containing the 32-bit FNV-1a hashed representation of an Event's data
+     * @param bucketSizeMS `long` the size of each bucket in milliseconds, entries are assigned to bucket `timestamp / bucketSizeMS`
+     * @return the non-empty buckets with their count and oldest and newest timestamp, or null if an error occurred
+     */
+    fun summarize(hash: Long, bucketSizeMS: Long): List<EventHistoryBucket>?
 }
@@ -0,0 +1,49 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub.history
+
+/**
+ * Bounds on the size of the event history database, enforced incrementally in the background.
+ *
+ * When [rollUp] is true, rows beyond [maxAgeMS] or [maxRowsPerHash] are rolled up into summary
+ * rows, which keep the number of occurrences along with the oldest and newest timestamp, so counts
+ * over ranges covering the rolled up window stay correct. Otherwise those rows are deleted.
+ * [maxRows] bounds non-summary rows and summary rows separately: the oldest non-summary rows are
+ * deleted, and beyond [maxRows] summary rows the summary rows of a hash are merged into one. Summary
+ * rows never displace recently recorded events. A null bound is not enforced. Retention is opt-in:
+ * event history is [UNBOUNDED] unless bounds are provided.
+ *
+ * @param maxAgeMS the age in milliseconds beyond which rows are rolled up, per hash and day, or deleted
+ * @param maxRows the maximum number of non-summary rows, and of summary rows, in the database
+ * @param maxRowsPerHash the maximum number of non-summary rows kept for a single hash
+ * @param rollUp whether rows beyond [maxAgeMS] or [maxRowsPerHash] are rolled up instead of deleted
+ */
+internal data class EventHistoryRetention(
+    val maxAgeMS: Long? = null,
+    val maxRows: Int? = null,
+    val maxRowsPerHash: Int? = null,
+    val rollUp: Boolean = true
+) {
+    /**
+     * Whether any bound is enforced.
+     */
+    val isBounded: Boolean
+        get() = maxAgeMS != null || maxRows != null || maxRowsPerHash != null
+
+    companion object {
+        /**
+         * No bounds, the default. Rows only leave the database through explicit deletes.
+         */
+        @JvmField
+        val UNBOUNDED = EventHistoryRetention()
+    }
+}
@@ -17,29 +17,167 @@ import org.json.JSONObject
 /**
  * Convert map to a decimal FNV1a 32-bit hash. If a mask is provided, only use keys in the provided mask and alphabetize their order.
  *
+ * When masks are provided, each mask is resolved by walking the nested map directly and the matching
+ * `key:value` pairs are fed to the hash incrementally, producing the same hash as hashing the
+ * concatenated pairs of the [flattening] of this map.
+ *
  * @param masks contain keys to be hashed.
  * @return the decimal FNV1a 32-bit hash.
  */
 @JvmSynthetic
 internal fun Map<String, Any?>.fnv1a32(masks: Array<String>? = null): Long {
-    val flattenedMap = this.flattening()
+    if (masks != null) {
+        return fnv1a32Masked(masks)
+    }
+
     val kvPairs = StringBuilder()
-    masks?.let {
-        it.sortedArray().forEach { mask ->
-            if (mask.isNotEmpty() && !flattenedMap[mask].isNullOrEmptyString()) {
-                kvPairs.append(mask).append(":").append(flattenedMap[mask].toString())
-            }
+    this.flattening().toSortedMap().forEach { entry ->
+        if (!entry.value.isNullOrEmptyString()) {
+            kvPairs.append(entry.key).append(":").append(entry.value.toString())
+        }
+    }
+    return kvPairs.toString().fnv1a32()
+}
+
+/**
+ * Returns the value [flattening] would store under the dot-separated [path], without flattening this map.
+ * Only the nested maps, lists and arrays along the path are visited.
+ *
+ * @param path the flattened key, e.g. `rootKey.key1.0`
+ * @return the value at [path], or null if there is none
+ */
+@JvmSynthetic
+internal fun Map<String, Any?>.getFlattenedValue(path: String): Any? {
+    val value = resolveFlattenedPath(this, path, 0)
+    return if (value === PATH_NOT_FOUND) null else value
+}
+
+/**
+ * Hashes the `mask:value` pairs of the masked values of this map in alphabetical mask order.
+ */
+private fun Map<String, Any?>.fnv1a32Masked(masks: Array<String>): Long {
+    val sortedMasks = if (masks.isSorted()) masks else masks.sortedArray()
+    var hash = FNV1A_32_OFFSET_BASIS
+    var hashedAny = false
+    for (mask in sortedMasks) {
+        if (mask.isEmpty()) {
+            continue
         }
-    } ?: run {
-        flattenedMap.toSortedMap().forEach { entry ->
-            if (!entry.value.isNullOrEmptyString()) {
-                kvPairs.append(entry.key).append(":").append(entry.value.toString())
+
+        val value = resolveFlattenedPath(this, mask, 0)
+        if (value === PATH_NOT_FOUND || value.isNullOrEmptyString()) {
+            continue
+        }
+
+        hash = fnv1a32Update(hash, mask)
+        hash = fnv1a32Update(hash, ':'.code)
+        hash = fnv1a32Update(hash, value.toString())
+        hashedAny = true
+    }
+
+    // Hashing an empty string yields 0, see String.fnv1a32()
+    return if (hashedAny) hash.toUInt().toLong() else 0
+}
+
+private fun Array<String>.isSorted(): Boolean {
+    for (i in 1 until size) {
+        if (this[i - 1] > this[i]) {
+            return false
+        }
+    }
+    return true
+}
+
+/**
+ * Marks a path which has no value in the flattened map, as opposed to a path with a null value.
+ */
+private val PATH_NOT_FOUND = Any()
+
+/**
+ * Returns the value [flattening] would store under [path], without building the flattened map.
+ *
+ * [container] is a map, list or array whose flattened keys are prefixed with `path[0, offset)`,
+ * followed by a "." unless [offset] is 0. Keys may contain dots, so every entry which matches a prefix
+ * of the remaining path is visited. When several entries flatten to the same path, the last one in
+ * iteration order wins, same as in [flattening].
+ *
+ * @return the value at [path], or [PATH_NOT_FOUND]
+ */
+private fun resolveFlattenedPath(container: Any?, path: String, offset: Int): Any? {
+    val start = if (offset == 0) 0 else offset + 1
+    if (offset != 0 && (offset >= path.length || path[offset] != '.')) {
+        return PATH_NOT_FOUND
+    }
+
+    return when (container) {
+        is Map<*, *> -> {
+            var result: Any? = PATH_NOT_FOUND
+            for ((key, value) in container) {
+                val keyString = key as String
+                if (!path.regionMatches(start, keyString, 0, keyString.length)) {
+                    continue
+                }
+
+                val end = start + keyString.length
+                val resolved = if (value.isFlattenedContainer()) {
+                    resolveFlattenedPath(value, path, end)
+                } else if (end == path.length) {
+                    value
+                } else {
+                    PATH_NOT_FOUND
+                }
+                if (resolved !== PATH_NOT_FOUND) {
+                    result = resolved
+                }
             }
+            result
+        }
+        is List<*> -> resolveIndexedPath(path, start) { index ->
+            if (index < container.size) container[index] else PATH_NOT_FOUND
+        }
+        is Array<*> -> resolveIndexedPath(path, start) { index ->
+            if (index < container.size) container[index] else PATH_NOT_FOUND
         }
+        else -> PATH_NOT_FOUND
+    }
+}
+
+/**
+ * Resolves [path] in a list or array, where the segment starting at [start] must be an element index.
+ * Indices are flattened without leading zeros, so at most one element can match.
+ */
+private inline fun resolveIndexedPath(path: String, start: Int, element: (Int) -> Any?): Any? {
+    var end = start
+    var index = 0
+    while (end < path.length && path[end] in '0'..'9') {
+        if (end > start && index == 0) {
+            return PATH_NOT_FOUND // leading zero
+        }
+        if (index > (Int.MAX_VALUE - 9) / 10) {
+            return PATH_NOT_FOUND // beyond the size of any list
+        }
+        index = index * 10 + (path[end] - '0')
+        end++
+    }
+    if (end == start) {
+        return PATH_NOT_FOUND
+    }
+
+    val value = element(index)
+    return when {
+        value === PATH_NOT_FOUND -> PATH_NOT_FOUND
+        value.isFlattenedContainer() -> resolveFlattenedPath(value, path, end)
+        end == path.length -> value
+        else -> PATH_NOT_FOUND
     }
-    return kvPairs.toString().fnv1a32()
 }
 
+/**
+ * Returns true if [flattening] expands this value into dot-separated keys.
+ */
+private fun Any?.isFlattenedContainer(): Boolean =
+    (this is Map<*, *> && this.keys.isAllString()) || this is List<*> || this is Array<*>
+
 /**
  * Recursively flattens nested [Map]s, [List]s and [Array]s values inside a Map<String, Any?> into a
  * single-level Map<String, Any> with dot-separated keys.
@@ -115,6 +253,59 @@ internal fun Map<String, Any?>.serializeToQueryString(): String {
     return if (builder.isNotEmpty()) builder.substring(1).toString() else builder.toString()
 }
 
+/**
+ * Returns the paths of the values which differ between [previous] and this map, each as the list
+ * of keys leading to the value, in key order. Nested maps present in both are compared key by key;
+ * any other changed value, including a list, is reported at its own path. Maps shared by reference
+ * are skipped without being compared.
+ *
+ * @param previous the map to compare against
+ * @return the changed paths
+ */
+@JvmSynthetic
+internal fun Map<String, Any?>?.changedPaths(previous: Map<String, Any?>?): List<List<String>> {
+    val changedPaths = mutableListOf<List<String>>()
+    collectChangedPaths(previous, this, emptyList(), changedPaths)
+    return changedPaths.sortedWith(::comparePaths)
+}
+
+private fun collectChangedPaths(
+    previous: Map<*, *>?,
+    current: Map<*, *>?,
+    prefix: List<String>,
+    changedPaths: MutableList<List<String>>
+) {
+    if (previous === current) {
+        return
+    }
+
+    val keys = mutableSetOf<Any?>()
+    previous?.let { keys.addAll(it.keys) }
+    current?.let { keys.addAll(it.keys) }
+    for (key in keys) {
+        val path = prefix + key.toString()
+        val previousValue = previous?.get(key)
+        val currentValue = current?.get(key)
+        if (previousValue is Map<*, *> && currentValue is Map<*, *>) {
+            collectChangedPaths(previousValue, currentValue, path, changedPaths)
+        } else if (previousValue != currentValue ||
+            (previous?.containsKey(key) == true) != (current?.containsKey(key) == true)
+        ) {
+            changedPaths.add(path)
+        }
+    }
+}
+
+private fun comparePaths(first: List<String>, second: List<String>): Int {
+    for (index in 0 until minOf(first.size, second.size)) {
+        val result = first[index].compareTo(second[index])
+        if (result != 0) {
+            return result
+        }
+    }
+    return first.size - second.size
+}
+
 /**
  * Converts a map to a prettified JSON string
  *
@@ -0,0 +1,74 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.internal.util
+
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.SynchronousQueue
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A pool of worker threads on which [StrandExecutorService]s are multiplexed.
+ *
+ * Idle threads are reused, and a thread is only added when every existing thread is busy. A strand runs at
+ * most one task at a time, so the pool never grows beyond the number of strands with work in flight, i.e. one
+ * thread per registered extension at worst. A strand blocked in a task (e.g. an extension waiting on a latch)
+ * therefore never delays the others. Threads retire after [KEEP_ALIVE_SECONDS] of idleness.
+ */
+internal object SharedWorkerPool {
+    private const val CORE_THREADS = 2
+    private const val KEEP_ALIVE_SECONDS = 30L
+    private const val THREAD_NAME_PREFIX = "AEPSDKWorker-"
+
+    private val threadFactory = object : ThreadFactory {
+        private val threadNumber = AtomicInteger(1)
+
+        override fun newThread(runnable: Runnable): Thread {
+            return Thread(runnable, THREAD_NAME_PREFIX + threadNumber.getAndIncrement()).apply { isDaemon = true }
+        }
+    }
+
+    private val pool: ThreadPoolExecutor by lazy {
+        // Tasks are handed to an idle thread or a new one, never queued behind a busy thread.
+        ThreadPoolExecutor(
+            CORE_THREADS,
+            Int.MAX_VALUE,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            SynchronousQueue(),
+            threadFactory
+        ).apply {
+            allowCoreThreadTimeOut(true)
+        }
+    }
+
+    /**
+     * The number of threads currently alive in the pool.
+     */
+    val threadCount: Int
+        get() = pool.poolSize
+
+    /**
+     * The largest number of threads that have ever simultaneously been in the pool.
+     */
+    val largestThreadCount: Int
+        get() = pool.largestPoolSize
+
+    /**
+     * Creates a new serial strand backed by this pool.
+     *
+     * @param name the name of the strand, used when logging
+     * @return an [ExecutorService] which runs its tasks one at a time in submission order
+     */
+    fun newStrand(name: String): ExecutorService = StrandExecutorService(name, pool)
+}
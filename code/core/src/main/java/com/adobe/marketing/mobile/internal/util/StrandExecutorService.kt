@@ -0,0 +1,127 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.internal.util
+
+import com.adobe.marketing.mobile.internal.CoreConstants
+import com.adobe.marketing.mobile.services.Log
+import java.util.concurrent.AbstractExecutorService
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+/**
+ * An [java.util.concurrent.ExecutorService] that runs its tasks one at a time, in submission order,
+ * on threads borrowed from [backingExecutor]. Behaves like a single thread executor without
+ * owning a thread, so many strands can be multiplexed on a small shared pool.
+ *
+ * After each task the strand hands its thread back to [backingExecutor] and re-queues itself if
+ * more tasks are pending, so a busy strand cannot starve the others.
+ *
+ * @param name the name used when logging
+ * @param backingExecutor the executor that provides threads to this strand
+ */
+internal class StrandExecutorService(
+    private val name: String,
+    private val backingExecutor: Executor
+) : AbstractExecutorService() {
+
+    private companion object {
+        private const val LOG_TAG = "StrandExecutorService"
+    }
+
+    private val lock = Any()
+
+    // Guarded by lock
+    private val tasks: ArrayDeque<Runnable> = ArrayDeque()
+    private var scheduled = false
+    private var shutdown = false
+    private var runner: Thread? = null
+
+    private val terminated = CountDownLatch(1)
+
+    private val runNext = Runnable {
+        val task = synchronized(lock) {
+            val next = tasks.removeFirstOrNull()
+            if (next == null) {
+                scheduled = false
+                if (shutdown) terminated.countDown()
+                return@Runnable
+            }
+            runner = Thread.currentThread()
+            next
+        }
+
+        try {
+            task.run()
+        } catch (ex: Exception) {
+            Log.warning(CoreConstants.LOG_TAG, "$LOG_TAG-$name", "Exception thrown while running task. $ex")
+        } finally {
+            synchronized(lock) { runner = null }
+            // Do not leak an interrupt meant for this task to the next user of the pooled thread.
+            Thread.interrupted()
+        }
+
+        schedule()
+    }
+
+    override fun execute(command: Runnable) {
+        synchronized(lock) {
+            if (shutdown) {
+                throw RejectedExecutionException("Strand ($name) has been shutdown.")
+            }
+            tasks.addLast(command)
+            if (scheduled) return
+            scheduled = true
+        }
+        schedule()
+    }
+
+    /**
+     * Hands [runNext] to the [backingExecutor]. Only one [runNext] is queued or running at a time.
+     */
+    private fun schedule() {
+        try {
+            backingExecutor.execute(runNext)
+        } catch (ex: RejectedExecutionException) {
+            synchronized(lock) {
+                scheduled = false
+                tasks.clear()
+                terminated.countDown()
+            }
+            Log.warning(CoreConstants.LOG_TAG, "$LOG_TAG-$name", "Backing executor rejected strand. $ex")
+        }
+    }
+
+    override fun shutdown() {
+        synchronized(lock) {
+            shutdown = true
+            if (!scheduled) terminated.countDown()
+        }
+    }
+
+    override fun shutdownNow(): List<Runnable> {
+        synchronized(lock) {
+            shutdown = true
+            val pending = tasks.toList()
+            tasks.clear()
+            runner?.interrupt()
+            if (!scheduled) terminated.countDown()
+            return pending
+        }
+    }
+
+    override fun isShutdown(): Boolean = synchronized(lock) { shutdown }
+
+    override fun isTerminated(): Boolean = terminated.count == 0L
+
+    override fun awaitTermination(timeout: Long, unit: TimeUnit): Boolean = terminated.await(timeout, unit)
+}
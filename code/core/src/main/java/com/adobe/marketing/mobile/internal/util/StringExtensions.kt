@@ -48,3 +48,50 @@ private fun computeFnv1aHash(input: String?): Int {
 internal fun String?.fnv1a32(): Long {
     return computeFnv1aHash(this).toUInt().toLong()
 }
+
+internal const val FNV1A_32_OFFSET_BASIS = -0x7ee3623b // 2166136261 as hex
+private const val FNV1A_32_PRIME = 0x1000193 // 16777619 as hex
+
+/**
+ * Continues an FNV-1a 32-bit hash with the UTF-8 encoding of [input], without allocating its bytes.
+ * Unpaired surrogates are encoded as '?', matching [String.toByteArray].
+ *
+ * @param hash the hash state so far, [FNV1A_32_OFFSET_BASIS] for a new hash
+ * @param input the characters to be hashed
+ * @return the updated hash state
+ */
+internal fun fnv1a32Update(hash: Int, input: CharSequence): Int {
+    var state = hash
+    var i = 0
+    while (i < input.length) {
+        val c = input[i]
+        val code = c.code
+        when {
+            code < 0x80 -> state = fnv1a32Update(state, code)
+            code < 0x800 -> {
+                state = fnv1a32Update(state, 0xC0 or (code shr 6))
+                state = fnv1a32Update(state, 0x80 or (code and 0x3F))
+            }
+            c.isHighSurrogate() && i + 1 < input.length && input[i + 1].isLowSurrogate() -> {
+                val codePoint = Character.toCodePoint(c, input[++i])
+                state = fnv1a32Update(state, 0xF0 or (codePoint shr 18))
+                state = fnv1a32Update(state, 0x80 or ((codePoint shr 12) and 0x3F))
+                state = fnv1a32Update(state, 0x80 or ((codePoint shr 6) and 0x3F))
+                state = fnv1a32Update(state, 0x80 or (codePoint and 0x3F))
+            }
+            c.isSurrogate() -> state = fnv1a32Update(state, '?'.code)
+            else -> {
+                state = fnv1a32Update(state, 0xE0 or (code shr 12))
+                state = fnv1a32Update(state, 0x80 or ((code shr 6) and 0x3F))
+                state = fnv1a32Update(state, 0x80 or (code and 0x3F))
+            }
+        }
+        i++
+    }
+    return state
+}
+
+/**
+ * Continues an FNV-1a 32-bit hash with a single byte.
+ */
+internal fun fnv1a32Update(hash: Int, byte: Int): Int = (hash xor (byte and 0xFF)) * FNV1A_32_PRIME
@@ -0,0 +1,127 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.launch.rulesengine
+
+import com.adobe.marketing.mobile.rulesengine.DelimiterPair
+import com.adobe.marketing.mobile.rulesengine.Template
+import com.adobe.marketing.mobile.rulesengine.TokenFinder
+import com.adobe.marketing.mobile.rulesengine.Transforming
+import com.adobe.marketing.mobile.util.EventDataUtils
+
+/**
+ * The detail of a [RuleConsequence] with the tokens of its strings parsed ahead of rendering.
+ *
+ * Strings, maps and lists without tokens are rendered as the same instance, so only the parts of the
+ * detail holding tokens are copied when the consequence is rendered for an event.
+ */
+internal sealed class ConsequenceTemplate {
+
+    /**
+     * Whether rendering this template may return a value other than the compiled one.
+     */
+    abstract val hasTokens: Boolean
+
+    /**
+     * Renders this template, replacing its tokens with values found by [tokenFinder].
+     *
+     * @param tokenFinder [TokenFinder] instance which replaces the tokens with values
+     * @param transforming [Transforming] instance which applies the transforms of the tokens
+     * @return the value with replaced tokens
+     */
+    abstract fun render(tokenFinder: TokenFinder, transforming: Transforming): Any?
+
+    companion object {
+        private const val LAUNCH_RULE_TOKEN_LEFT_DELIMITER = "{%"
+        private const val LAUNCH_RULE_TOKEN_RIGHT_DELIMITER = "%}"
+        private val delimiterPair =
+            DelimiterPair(LAUNCH_RULE_TOKEN_LEFT_DELIMITER, LAUNCH_RULE_TOKEN_RIGHT_DELIMITER)
+
+        /**
+         * Compiles the consequence [detail].
+         *
+         * @param detail the detail of a [RuleConsequence]
+         * @return the compiled [ConsequenceTemplate]
+         */
+        fun compile(detail: Map<String, Any?>): ConsequenceTemplate = compileMap(detail)
+
+        private fun compileValue(value: Any?): ConsequenceTemplate {
+            return when (value) {
+                is String -> compileString(value)
+                is Map<*, *> -> EventDataUtils.castFromGenericType(value)?.let { compileMap(it) } ?: InvalidMap
+                is List<*> -> compileList(value)
+                else -> Constant(value)
+            }
+        }
+
+        private fun compileString(value: String): ConsequenceTemplate {
+            // A string without a start tag renders as itself
+            return if (value.contains(LAUNCH_RULE_TOKEN_LEFT_DELIMITER)) {
+                Text(Template(value, delimiterPair))
+            } else {
+                Constant(value)
+            }
+        }
+
+        private fun compileMap(value: Map<String, Any?>): ConsequenceTemplate {
+            val entries = value.mapValues { compileValue(it.value) }
+            return if (entries.values.any { it.hasTokens }) MapTemplate(entries) else Constant(value)
+        }
+
+        private fun compileList(value: List<*>): ConsequenceTemplate {
+            val items = value.map { compileValue(it) }
+            return if (items.any { it.hasTokens }) ListTemplate(items) else Constant(value)
+        }
+    }
+
+    private class Constant(private val value: Any?) : ConsequenceTemplate() {
+        override val hasTokens: Boolean = false
+
+        override fun render(tokenFinder: TokenFinder, transforming: Transforming): Any? = value
+    }
+
+    /**
+     * A map with keys other than strings, which is replaced by null.
+     */
+    private object InvalidMap : ConsequenceTemplate() {
+        override val hasTokens: Boolean = true
+
+        override fun render(tokenFinder: TokenFinder, transforming: Transforming): Any? = null
+    }
+
+    private class Text(private val template: Template) : ConsequenceTemplate() {
+        override val hasTokens: Boolean = true
+
+        override fun render(tokenFinder: TokenFinder, transforming: Transforming): Any? =
+            template.render(tokenFinder, transforming)
+    }
+
+    private class MapTemplate(
+        private val entries: Map<String, ConsequenceTemplate>
+    ) : ConsequenceTemplate() {
+        override val hasTokens: Boolean = true
+
+        override fun render(tokenFinder: TokenFinder, transforming: Transforming): Any? {
+            val rendered = LinkedHashMap<String, Any?>(entries.size)
+            for ((key, value) in entries) {
+                rendered[key] = value.render(tokenFinder, transforming)
+            }
+            return rendered
+        }
+    }
+
+    private class ListTemplate(private val items: List<ConsequenceTemplate>) : ConsequenceTemplate() {
+        override val hasTokens: Boolean = true
+
+        override fun render(tokenFinder: TokenFinder, transforming: Transforming): Any? =
+            items.map { it.render(tokenFinder, transforming) }
+    }
+}
@@ -171,7 +171,6 @@ public class LaunchRulesEngine {
             final List<LaunchRule> revaluableRules,
             final List<LaunchRule> processedRules,
             final RuleReevaluationInterceptor reevaluationInterceptor) {
-        final LaunchTokenFinder tokenFinder = new LaunchTokenFinder(processedEvent, extensionApi);
         reevaluationInterceptor.onReevaluationTriggered(
                 processedEvent,
                 revaluableRules,
@@ -180,6 +179,9 @@ public class LaunchRulesEngine {
                     // consequences. If update is not success intercepted rules are not
                     // processed
                     if (success) {
+                        // Token values are memoized per finder, so shared states are read afresh
+                        final LaunchTokenFinder tokenFinder =
+                                new LaunchTokenFinder(processedEvent, extensionApi);
                         final ArrayList<LaunchRule> newlyMatchedRules =
                                 new ArrayList<>(ruleRulesEngine.evaluate(tokenFinder));
                         newlyMatchedRules.removeAll(processedRules);
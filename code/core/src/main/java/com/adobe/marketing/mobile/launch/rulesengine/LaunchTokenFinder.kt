@@ -16,6 +16,7 @@ import com.adobe.marketing.mobile.ExtensionApi
 import com.adobe.marketing.mobile.MobileCore
 import com.adobe.marketing.mobile.SharedStateResolution
 import com.adobe.marketing.mobile.internal.util.flattening
+import com.adobe.marketing.mobile.internal.util.getFlattenedValue
 import com.adobe.marketing.mobile.internal.util.serializeToQueryString
 import com.adobe.marketing.mobile.rulesengine.TokenFinder
 import com.adobe.marketing.mobile.services.Log
@@ -23,6 +24,13 @@ import com.adobe.marketing.mobile.util.TimeUtils
 import org.json.JSONObject
 import java.security.SecureRandom
 
+/**
+ * Resolves rule tokens for a single evaluation of [event].
+ *
+ * Event data and shared state tokens are resolved by walking their dotted keys and memoized, so repeated
+ * lookups of the same token during the evaluation are served without resolving them again. Shared states
+ * are read once per evaluation; create a new instance for each evaluation.
+ */
 internal class LaunchTokenFinder(val event: Event, val extensionApi: ExtensionApi) : TokenFinder {
 
     companion object {
@@ -42,6 +50,16 @@ internal class LaunchTokenFinder(val event: Event, val extensionApi: ExtensionAp
         private const val SHARED_STATE_KEY_DELIMITER = "/"
     }
 
+    /**
+     * Values of the event data and shared state tokens resolved so far, including null values.
+     */
+    private val resolvedTokens: MutableMap<String, Any?> = HashMap()
+
+    /**
+     * Shared states read so far, by shared state name.
+     */
+    private val sharedStates: MutableMap<String, Map<String, Any?>?> = HashMap()
+
     // ========================================================
     // public methods
     // ========================================================
@@ -101,11 +119,16 @@ internal class LaunchTokenFinder(val event: Event, val extensionApi: ExtensionAp
                 }
             }
             else -> {
-                if (key.startsWith(KEY_SHARED_STATE)) {
+                if (resolvedTokens.containsKey(key)) {
+                    return resolvedTokens[key]
+                }
+                val value = if (key.startsWith(KEY_SHARED_STATE)) {
                     getValueFromSharedState(key)
                 } else {
                     getValueFromEvent(key)
                 }
+                resolvedTokens[key] = value
+                value
             }
         }
     }
@@ -123,16 +146,20 @@ internal class LaunchTokenFinder(val event: Event, val extensionApi: ExtensionAp
             return null
         }
         val (sharedStateName, dataKeyName) = sharedStateKeyString.split(SHARED_STATE_KEY_DELIMITER)
-        val sharedStateMap = extensionApi.getSharedState(
-            sharedStateName,
-            event,
-            false,
-            SharedStateResolution.ANY
-        )?.value?.flattening()
-        if (sharedStateMap.isNullOrEmpty() || dataKeyName.isBlank() || !sharedStateMap.containsKey(dataKeyName)) {
+        if (dataKeyName.isBlank()) {
             return null
         }
-        return sharedStateMap[dataKeyName]
+        val sharedStateMap = if (sharedStates.containsKey(sharedStateName)) {
+            sharedStates[sharedStateName]
+        } else {
+            extensionApi.getSharedState(
+                sharedStateName,
+                event,
+                false,
+                SharedStateResolution.ANY
+            )?.value.also { sharedStates[sharedStateName] = it }
+        }
+        return sharedStateMap?.getFlattenedValue(dataKeyName)
     }
 
     /**
@@ -143,10 +170,7 @@ internal class LaunchTokenFinder(val event: Event, val extensionApi: ExtensionAp
      * @return [Any] containing value to be substituted for the [key] from the [Event]'s data if [key] is present, null otherwise
      */
     private fun getValueFromEvent(key: String): Any? {
-        if (event.eventData == null) {
-            return EMPTY_STRING
-        }
-        val eventDataMap = event.eventData.flattening()
-        return eventDataMap[key]
+        val eventData = event.eventData ?: return EMPTY_STRING
+        return eventData.getFlattenedValue(key)
     }
 }
@@ -24,4 +24,9 @@ data class RuleConsequence(
     val id: String,
     val type: String,
     val detail: Map<String, Any?>
-)
+) {
+    /**
+     * The [detail] compiled for token replacement, on first use.
+     */
+    internal val detailTemplate: ConsequenceTemplate by lazy { ConsequenceTemplate.compile(detail) }
+}
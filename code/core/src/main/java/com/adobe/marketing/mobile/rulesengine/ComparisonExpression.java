@@ -73,4 +73,16 @@ public class ComparisonExpression<A, B> implements Evaluable {
 
         return context.evaluator.evaluate(resolvedLhs, operationName, resolvedRhs);
     }
+
+    Operand<A> getLhs() {
+        return lhs;
+    }
+
+    Operand<B> getRhs() {
+        return rhs;
+    }
+
+    String getOperationName() {
+        return operationName;
+    }
 }
@@ -0,0 +1,378 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.rulesengine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles the conditions of rules into evaluables specialized for a {@link ConditionEvaluator}.
+ *
+ * <p>Operators are resolved once at compile time instead of being dispatched by name on every
+ * evaluation, and constant operands are prepared ahead, such as the parsed number of a numeric
+ * comparison or the matcher of a string comparison. Compiled conditions match exactly when the
+ * original conditions do. They do not report why a condition failed; every failure is {@link
+ * #FAILED}, so evaluating them does not allocate results.
+ */
+final class ConditionCompiler {
+
+    /** The result of every compiled condition which did not match. */
+    static final RulesResult FAILED =
+            new RulesResult(RulesResult.FailureType.CONDITION_FAILED, "Condition not matched");
+
+    private static final String OPERATOR_AND = "and";
+    private static final String OPERATOR_OR = "or";
+
+    private final ConditionEvaluator evaluator;
+
+    private ConditionCompiler(final ConditionEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Compiles {@code evaluable} for evaluation with {@code evaluating}.
+     *
+     * @param evaluable the condition of a rule
+     * @param evaluating the evaluator the condition is evaluated with
+     * @return the compiled condition, or {@code evaluable} itself if it cannot be compiled for
+     *     {@code evaluating}
+     */
+    static Evaluable compile(final Evaluable evaluable, final Evaluating evaluating) {
+        if (evaluating == null || evaluating.getClass() != ConditionEvaluator.class) {
+            return evaluable;
+        }
+        return new ConditionCompiler((ConditionEvaluator) evaluating).compile(evaluable);
+    }
+
+    private Evaluable compile(final Evaluable evaluable) {
+        if (evaluable instanceof LogicalExpression) {
+            return compileLogical((LogicalExpression) evaluable);
+        } else if (evaluable instanceof ComparisonExpression) {
+            return compileComparison((ComparisonExpression<?, ?>) evaluable);
+        } else if (evaluable instanceof UnaryExpression) {
+            return compileUnary((UnaryExpression<?>) evaluable);
+        }
+        return evaluable;
+    }
+
+    private Evaluable compileLogical(final LogicalExpression expression) {
+        if (expression.operationName == null || expression.operationName.isEmpty()) {
+            return Constant.FALSE;
+        }
+        final boolean isAnd = OPERATOR_AND.equals(expression.operationName);
+        if (!isAnd && !OPERATOR_OR.equals(expression.operationName)) {
+            return Constant.FALSE;
+        }
+        if (expression.operands == null) {
+            return expression;
+        }
+
+        // Null operands are skipped by both operations
+        final List<Evaluable> operands = new ArrayList<>(expression.operands.size());
+        for (final Evaluable operand : expression.operands) {
+            if (operand != null) {
+                operands.add(compile(operand));
+            }
+        }
+        final Evaluable[] compiledOperands = operands.toArray(new Evaluable[0]);
+        return isAnd ? new And(compiledOperands) : new Or(compiledOperands);
+    }
+
+    private Evaluable compileComparison(final ComparisonExpression<?, ?> expression) {
+        final String operation = expression.getOperationName();
+        final Operand<?> lhs = expression.getLhs();
+        final Operand<?> rhs = expression.getRhs();
+        if (operation == null || lhs == null || rhs == null) {
+            return Constant.FALSE;
+        }
+
+        switch (operation) {
+            case ConditionEvaluator.OPERATOR_EQUALS:
+            case ConditionEvaluator.OPERATOR_NOT_EQUALS:
+            case ConditionEvaluator.OPERATOR_GREATER_THAN:
+            case ConditionEvaluator.OPERATOR_GREATER_THAN_OR_EQUALS:
+            case ConditionEvaluator.OPERATOR_LESS_THAN:
+            case ConditionEvaluator.OPERATOR_LESS_THAN_OR_EQUALS:
+                if (rhs instanceof OperandLiteral) {
+                    return compileConstantComparison(
+                            lhs, operation, ((OperandLiteral<?>) rhs).getValue());
+                }
+                return new Comparison(lhs, operation, rhs, evaluator);
+            case ConditionEvaluator.OPERATOR_CONTAINS:
+            case ConditionEvaluator.OPERATOR_NOT_CONTAINS:
+            case ConditionEvaluator.OPERATOR_STARTS_WITH:
+            case ConditionEvaluator.OPERATOR_ENDS_WITH:
+                if (rhs instanceof OperandLiteral
+                        && ((OperandLiteral<?>) rhs).getValue() instanceof String) {
+                    return compileStringComparison(
+                            lhs, operation, (String) ((OperandLiteral<?>) rhs).getValue());
+                }
+                return new Comparison(lhs, operation, rhs, evaluator);
+            default:
+                // Not a binary operator
+                return Constant.FALSE;
+        }
+    }
+
+    private Evaluable compileConstantComparison(
+            final Operand<?> lhs, final String operation, final Object value) {
+        if (value == null) {
+            return Constant.FALSE;
+        }
+
+        switch (operation) {
+            case ConditionEvaluator.OPERATOR_EQUALS:
+                return new Equals(lhs, value, false, evaluator.isCaseInsensitive());
+            case ConditionEvaluator.OPERATOR_NOT_EQUALS:
+                return new Equals(lhs, value, true, evaluator.isCaseInsensitive());
+            default:
+                final Double number = ConditionEvaluator.tryParseDouble(value);
+                if (number == null) {
+                    return Constant.FALSE;
+                }
+                return new NumericComparison(lhs, operation, number);
+        }
+    }
+
+    private Evaluable compileStringComparison(
+            final Operand<?> lhs, final String operation, final String value) {
+        final boolean caseInsensitive = evaluator.isCaseInsensitive();
+        switch (operation) {
+            case ConditionEvaluator.OPERATOR_STARTS_WITH:
+                return new StringComparison(
+                        lhs, StringMatcher.startsWith(value, caseInsensitive), false);
+            case ConditionEvaluator.OPERATOR_ENDS_WITH:
+                return new StringComparison(
+                        lhs, StringMatcher.endsWith(value, caseInsensitive), false);
+            case ConditionEvaluator.OPERATOR_CONTAINS:
+                return new StringComparison(
+                        lhs, StringMatcher.contains(value, caseInsensitive), false);
+            default:
+                return new StringComparison(
+                        lhs, StringMatcher.contains(value, caseInsensitive), true);
+        }
+    }
+
+    private Evaluable compileUnary(final UnaryExpression<?> expression) {
+        final String operation = expression.getOperationName();
+        if (ConditionEvaluator.OPERATOR_EXISTS.equals(operation)) {
+            return new Exists(expression.getLhs(), true);
+        } else if (ConditionEvaluator.OPERATOR_NOT_EXISTS.equals(operation)) {
+            return new Exists(expression.getLhs(), false);
+        }
+        return Constant.FALSE;
+    }
+
+    private static RulesResult result(final boolean matched) {
+        return matched ? RulesResult.SUCCESS : FAILED;
+    }
+
+    /** A condition which never matches, such as one with an invalid operator. */
+    private static final class Constant implements Evaluable {
+        static final Constant FALSE = new Constant();
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            return FAILED;
+        }
+    }
+
+    private static final class And implements Evaluable {
+        private final Evaluable[] operands;
+
+        And(final Evaluable[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            for (final Evaluable operand : operands) {
+                if (!operand.evaluate(context).isSuccess()) {
+                    return FAILED;
+                }
+            }
+            return RulesResult.SUCCESS;
+        }
+    }
+
+    private static final class Or implements Evaluable {
+        private final Evaluable[] operands;
+
+        Or(final Evaluable[] operands) {
+            this.operands = operands;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            for (final Evaluable operand : operands) {
+                if (operand.evaluate(context).isSuccess()) {
+                    return RulesResult.SUCCESS;
+                }
+            }
+            return FAILED;
+        }
+    }
+
+    /** Equality, or inequality, with a constant. */
+    private static final class Equals implements Evaluable {
+        private final Operand<?> lhs;
+        private final Object value;
+        private final String stringValue;
+        private final boolean negated;
+
+        Equals(
+                final Operand<?> lhs,
+                final Object value,
+                final boolean negated,
+                final boolean caseInsensitive) {
+            this.lhs = lhs;
+            this.value = value;
+            this.stringValue = caseInsensitive && value instanceof String ? (String) value : null;
+            this.negated = negated;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            final Object resolvedLhs = lhs.resolve(context);
+            if (resolvedLhs == null) {
+                return FAILED;
+            }
+
+            final boolean equal =
+                    stringValue != null && resolvedLhs instanceof String
+                            ? stringValue.equalsIgnoreCase((String) resolvedLhs)
+                            : resolvedLhs.equals(value);
+            return result(equal != negated);
+        }
+    }
+
+    /** Numeric comparison with a constant, parsed at compile time. */
+    private static final class NumericComparison implements Evaluable {
+        private final Operand<?> lhs;
+        private final String operation;
+        private final double value;
+
+        NumericComparison(final Operand<?> lhs, final String operation, final double value) {
+            this.lhs = lhs;
+            this.operation = operation;
+            this.value = value;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            final Object resolvedLhs = lhs.resolve(context);
+            if (resolvedLhs == null) {
+                return FAILED;
+            }
+
+            final double number;
+            if (resolvedLhs instanceof Double
+                    || resolvedLhs instanceof Integer
+                    || resolvedLhs instanceof Long
+                    || resolvedLhs instanceof Short
+                    || resolvedLhs instanceof Byte) {
+                // Same value as parsing their string representation
+                number = ((Number) resolvedLhs).doubleValue();
+            } else {
+                try {
+                    number = Double.parseDouble(resolvedLhs.toString());
+                } catch (Exception ex) {
+                    return FAILED;
+                }
+            }
+
+            switch (operation) {
+                case ConditionEvaluator.OPERATOR_GREATER_THAN:
+                    return result(number > value);
+                case ConditionEvaluator.OPERATOR_GREATER_THAN_OR_EQUALS:
+                    return result(number >= value);
+                case ConditionEvaluator.OPERATOR_LESS_THAN:
+                    return result(number < value);
+                default:
+                    return result(number <= value);
+            }
+        }
+    }
+
+    /** String comparison with a constant, matched by a {@link StringMatcher}. */
+    private static final class StringComparison implements Evaluable {
+        private final Operand<?> lhs;
+        private final StringMatcher matcher;
+        private final boolean negated;
+
+        StringComparison(
+                final Operand<?> lhs, final StringMatcher matcher, final boolean negated) {
+            this.lhs = lhs;
+            this.matcher = matcher;
+            this.negated = negated;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            final Object resolvedLhs = lhs.resolve(context);
+            if (resolvedLhs == null) {
+                return FAILED;
+            }
+
+            // Values other than strings never match, as with the ConditionEvaluator
+            final boolean matched =
+                    resolvedLhs instanceof String && matcher.matches((String) resolvedLhs);
+            return result(matched != negated);
+        }
+    }
+
+    /** Any other comparison, evaluated by the {@link ConditionEvaluator}. */
+    private static final class Comparison implements Evaluable {
+        private final Operand<?> lhs;
+        private final String operation;
+        private final Operand<?> rhs;
+        private final ConditionEvaluator evaluator;
+
+        Comparison(
+                final Operand<?> lhs,
+                final String operation,
+                final Operand<?> rhs,
+                final ConditionEvaluator evaluator) {
+            this.lhs = lhs;
+            this.operation = operation;
+            this.rhs = rhs;
+            this.evaluator = evaluator;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            final Object resolvedLhs = lhs.resolve(context);
+            final Object resolvedRhs = rhs.resolve(context);
+            if (resolvedLhs == null || resolvedRhs == null) {
+                return FAILED;
+            }
+            return result(
+                    Boolean.TRUE.equals(evaluator.matches(resolvedLhs, operation, resolvedRhs)));
+        }
+    }
+
+    private static final class Exists implements Evaluable {
+        private final Operand<?> lhs;
+        private final boolean exists;
+
+        Exists(final Operand<?> lhs, final boolean exists) {
+            this.lhs = lhs;
+            this.exists = exists;
+        }
+
+        @Override
+        public RulesResult evaluate(final Context context) {
+            final Object resolvedLhs = lhs != null ? lhs.resolve(context) : null;
+            return result((resolvedLhs != null) == exists);
+        }
+    }
+}
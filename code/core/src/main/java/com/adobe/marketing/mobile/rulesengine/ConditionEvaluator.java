@@ -16,18 +16,18 @@ import java.util.regex.Pattern;
 public class ConditionEvaluator implements Evaluating {
 
     private final Option option;
-    private static final String OPERATOR_EQUALS = "equals";
-    private static final String OPERATOR_NOT_EQUALS = "notEquals";
-    private static final String OPERATOR_GREATER_THAN = "greaterThan";
-    private static final String OPERATOR_GREATER_THAN_OR_EQUALS = "greaterEqual";
-    private static final String OPERATOR_LESS_THAN = "lessThan";
-    private static final String OPERATOR_LESS_THAN_OR_EQUALS = "lessEqual";
-    private static final String OPERATOR_CONTAINS = "contains";
-    private static final String OPERATOR_NOT_CONTAINS = "notContains";
-    private static final String OPERATOR_STARTS_WITH = "startsWith";
-    private static final String OPERATOR_ENDS_WITH = "endsWith";
-    private static final String OPERATOR_EXISTS = "exists";
-    private static final String OPERATOR_NOT_EXISTS = "notExist";
+    static final String OPERATOR_EQUALS = "equals";
+    static final String OPERATOR_NOT_EQUALS = "notEquals";
+    static final String OPERATOR_GREATER_THAN = "greaterThan";
+    static final String OPERATOR_GREATER_THAN_OR_EQUALS = "greaterEqual";
+    static final String OPERATOR_LESS_THAN = "lessThan";
+    static final String OPERATOR_LESS_THAN_OR_EQUALS = "lessEqual";
+    static final String OPERATOR_CONTAINS = "contains";
+    static final String OPERATOR_NOT_CONTAINS = "notContains";
+    static final String OPERATOR_STARTS_WITH = "startsWith";
+    static final String OPERATOR_ENDS_WITH = "endsWith";
+    static final String OPERATOR_EXISTS = "exists";
+    static final String OPERATOR_NOT_EXISTS = "notExist";
 
     public enum Option {
         DEFAULT, // For case sensitive string operations
@@ -54,50 +54,53 @@ public class ConditionEvaluator implements Evaluating {
      */
     @Override
     public <A, B> RulesResult evaluate(final A lhs, final String operation, final B rhs) {
-        boolean evaluationResult;
+        final Boolean evaluationResult = matches(lhs, operation, rhs);
+        if (evaluationResult == null) {
+            return new RulesResult(
+                    RulesResult.FailureType.MISSING_OPERATOR,
+                    String.format("Operator is invalid \"%s\"", operation));
+        }
 
+        return evaluationResult
+                ? RulesResult.SUCCESS
+                : new RulesResult(
+                        RulesResult.FailureType.CONDITION_FAILED,
+                        String.format("Condition not matched for operation \"%s\"", operation));
+    }
+
+    /**
+     * Runs operation on the resolved operands, without building a {@link RulesResult}.
+     *
+     * @param lhs A resolved {@link Operand}
+     * @param operation A {@link String} representing the operation to be performed on the operands
+     * @param rhs A resolved {@code Operand}
+     * @return whether the operation evaluates to true, or null if the operation is not supported
+     */
+    Boolean matches(final Object lhs, final String operation, final Object rhs) {
         switch (operation) {
             case OPERATOR_EQUALS:
-                evaluationResult = this.checkEqual(lhs, rhs);
-                break;
+                return this.checkEqual(lhs, rhs);
             case OPERATOR_NOT_EQUALS:
-                evaluationResult = this.notEqual(lhs, rhs);
-                break;
+                return this.notEqual(lhs, rhs);
             case OPERATOR_STARTS_WITH:
-                evaluationResult = this.startsWith(lhs, rhs);
-                break;
+                return this.startsWith(lhs, rhs);
             case OPERATOR_ENDS_WITH:
-                evaluationResult = this.endsWith(lhs, rhs);
-                break;
+                return this.endsWith(lhs, rhs);
             case OPERATOR_GREATER_THAN:
-                evaluationResult = this.greaterThan(lhs, rhs);
-                break;
+                return this.greaterThan(lhs, rhs);
             case OPERATOR_GREATER_THAN_OR_EQUALS:
-                evaluationResult = this.greaterThanEquals(lhs, rhs);
-                break;
+                return this.greaterThanEquals(lhs, rhs);
             case OPERATOR_LESS_THAN:
-                evaluationResult = this.lesserThan(lhs, rhs);
-                break;
+                return this.lesserThan(lhs, rhs);
             case OPERATOR_LESS_THAN_OR_EQUALS:
-                evaluationResult = this.lesserThanOrEqual(lhs, rhs);
-                break;
+                return this.lesserThanOrEqual(lhs, rhs);
             case OPERATOR_CONTAINS:
-                evaluationResult = this.contains(lhs, rhs);
-                break;
+                return this.contains(lhs, rhs);
             case OPERATOR_NOT_CONTAINS:
-                evaluationResult = this.notContains(lhs, rhs);
-                break;
+                return this.notContains(lhs, rhs);
             default:
-                return new RulesResult(
-                        RulesResult.FailureType.MISSING_OPERATOR,
-                        String.format("Operator is invalid \"%s\"", operation));
+                return null;
         }
-
-        return evaluationResult
-                ? RulesResult.SUCCESS
-                : new RulesResult(
-                        RulesResult.FailureType.CONDITION_FAILED,
-                        String.format("Condition not matched for operation \"%s\"", operation));
     }
 
     @Override
@@ -124,6 +127,32 @@ public class ConditionEvaluator implements Evaluating {
                         String.format("Condition not matched for operation \"%s\"", operation));
     }
 
+    boolean isCaseInsensitive() {
+        return option == Option.CASE_INSENSITIVE;
+    }
+
+    /**
+     * Returns a key for a string operand of {@link #OPERATOR_EQUALS}, such that operands which are
+     * equal for this evaluator have equal keys.
+     *
+     * @param value a string operand
+     * @return the key for {@code value}
+     */
+    String equalityKey(final String value) {
+        if (option != Option.CASE_INSENSITIVE) {
+            return value;
+        }
+
+        // Characters which are equal ignoring case share their lowercased uppercase form.
+        final StringBuilder key = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); ) {
+            final int codePoint = value.codePointAt(i);
+            key.appendCodePoint(Character.toLowerCase(Character.toUpperCase(codePoint)));
+            i += Character.charCount(codePoint);
+        }
+        return key.toString();
+    }
+
     // --------------------------------------------------------------------------
     // Private - Operator definitions
     // --------------------------------------------------------------------------
@@ -237,7 +266,7 @@ public class ConditionEvaluator implements Evaluating {
         return !contains(lhs, rhs);
     }
 
-    private Double tryParseDouble(final Object value) {
+    static Double tryParseDouble(final Object value) {
         try {
             return Double.valueOf(value.toString());
         } catch (Exception ex) {
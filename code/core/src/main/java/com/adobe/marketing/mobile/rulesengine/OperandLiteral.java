@@ -23,4 +23,8 @@ public class OperandLiteral<T> implements Operand<T> {
     public T resolve(final Context context) {
         return this.value;
     }
+
+    T getValue() {
+        return value;
+    }
 }
@@ -66,4 +66,15 @@ public class OperandMustacheToken<T> implements Operand<T> {
             return null;
         }
     }
+
+    /**
+     * @return the token string without delimiters, or null if this operand has no valid token
+     */
+    String getTokenString() {
+        return mustacheToken != null ? mustacheToken.getTokenString() : null;
+    }
+
+    Class<T> getTokenClass() {
+        return tClass;
+    }
 }
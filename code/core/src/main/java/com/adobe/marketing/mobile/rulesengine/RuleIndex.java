@@ -0,0 +1,251 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.rulesengine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Narrows down the rules which can match, based on the string equality conditions that each rule
+ * requires.
+ *
+ * <p>A rule is indexed under one equality condition between a token and a constant string, such as
+ * {@code {{string(~type)}} equals com.adobe.eventType.generic.track}, found among the AND-ed
+ * conditions at the top of its {@link Evaluable}. A condition which is an OR of such equalities on
+ * the same token indexes the rule under each of its values. When a rule has several of these
+ * conditions, the one selecting the fewest rules is used. Rules without such a condition are always
+ * candidates.
+ *
+ * <p>Each token is resolved once per evaluation to look up the candidate rules. Candidates are
+ * still evaluated in full, so the index only skips rules which cannot match. Rules are indexed only
+ * for a {@link ConditionEvaluator}, whose equality semantics are known.
+ */
+final class RuleIndex<T extends Rule> {
+
+    private static final String OPERATOR_AND = "and";
+    private static final String OPERATOR_OR = "or";
+    private static final String OPERATOR_EQUALS = "equals";
+
+    private final ConditionEvaluator evaluator;
+    private final List<TokenIndex> tokenIndexes = new ArrayList<>();
+    private final BitSet unindexedRules;
+
+    /** The rules indexed under the values of a single token. */
+    private static final class TokenIndex {
+        final OperandMustacheToken<String> token;
+        final Map<String, BitSet> rulesByValue = new HashMap<>();
+
+        TokenIndex(final OperandMustacheToken<String> token) {
+            this.token = token;
+        }
+    }
+
+    /** An equality condition between a token and one or more constant values. */
+    private static final class EqualityCondition {
+        final OperandMustacheToken<String> token;
+        final String tokenString;
+        final List<String> keys = new ArrayList<>();
+
+        EqualityCondition(final OperandMustacheToken<String> token) {
+            this.token = token;
+            this.tokenString = token.getTokenString();
+        }
+    }
+
+    /**
+     * Builds the index for {@code rules}.
+     *
+     * @param rules the rules to be indexed, in evaluation order
+     * @param evaluating the evaluator the rules are evaluated with
+     */
+    RuleIndex(final List<T> rules, final Evaluating evaluating) {
+        this.unindexedRules = new BitSet(rules.size());
+        this.evaluator =
+                evaluating != null && evaluating.getClass() == ConditionEvaluator.class
+                        ? (ConditionEvaluator) evaluating
+                        : null;
+        if (evaluator == null) {
+            unindexedRules.set(0, rules.size());
+            return;
+        }
+
+        final List<List<EqualityCondition>> conditionsByRule = new ArrayList<>(rules.size());
+        final Map<String, Map<String, Integer>> ruleCounts = new HashMap<>();
+        for (final T rule : rules) {
+            final List<EqualityCondition> conditions = new ArrayList<>();
+            collectEqualityConditions(rule.getEvaluable(), conditions);
+            conditionsByRule.add(conditions);
+            for (final EqualityCondition condition : conditions) {
+                Map<String, Integer> counts = ruleCounts.get(condition.tokenString);
+                if (counts == null) {
+                    counts = new HashMap<>();
+                    ruleCounts.put(condition.tokenString, counts);
+                }
+                for (final String key : condition.keys) {
+                    final Integer count = counts.get(key);
+                    counts.put(key, count == null ? 1 : count + 1);
+                }
+            }
+        }
+
+        final Map<String, TokenIndex> indexesByToken = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            final EqualityCondition condition =
+                    mostSelective(conditionsByRule.get(i), ruleCounts);
+            if (condition == null) {
+                unindexedRules.set(i);
+                continue;
+            }
+
+            TokenIndex tokenIndex = indexesByToken.get(condition.tokenString);
+            if (tokenIndex == null) {
+                tokenIndex = new TokenIndex(condition.token);
+                indexesByToken.put(condition.tokenString, tokenIndex);
+                tokenIndexes.add(tokenIndex);
+            }
+            for (final String key : condition.keys) {
+                BitSet indexedRules = tokenIndex.rulesByValue.get(key);
+                if (indexedRules == null) {
+                    indexedRules = new BitSet(rules.size());
+                    tokenIndex.rulesByValue.put(key, indexedRules);
+                }
+                indexedRules.set(i);
+            }
+        }
+    }
+
+    /**
+     * Returns the positions of the rules which may match in {@code context}.
+     *
+     * @param context the context the rules are evaluated in
+     * @return a {@link BitSet} with the positions of the candidate rules set
+     */
+    BitSet candidates(final Context context) {
+        final BitSet candidates = (BitSet) unindexedRules.clone();
+        for (final TokenIndex tokenIndex : tokenIndexes) {
+            final String value = tokenIndex.token.resolve(context);
+            if (value == null) {
+                continue;
+            }
+
+            final BitSet indexedRules = tokenIndex.rulesByValue.get(evaluator.equalityKey(value));
+            if (indexedRules != null) {
+                candidates.or(indexedRules);
+            }
+        }
+        return candidates;
+    }
+
+    private void collectEqualityConditions(
+            final Evaluable evaluable, final List<EqualityCondition> conditions) {
+        if (evaluable instanceof LogicalExpression) {
+            final LogicalExpression logicalExpression = (LogicalExpression) evaluable;
+            if (logicalExpression.operands == null) {
+                return;
+            }
+
+            if (OPERATOR_AND.equals(logicalExpression.operationName)) {
+                for (final Evaluable operand : logicalExpression.operands) {
+                    collectEqualityConditions(operand, conditions);
+                }
+            } else if (OPERATOR_OR.equals(logicalExpression.operationName)) {
+                final EqualityCondition condition =
+                        anyEqualityCondition(logicalExpression.operands);
+                if (condition != null) {
+                    conditions.add(condition);
+                }
+            }
+            return;
+        }
+
+        final EqualityCondition condition = equalityCondition(evaluable);
+        if (condition != null) {
+            conditions.add(condition);
+        }
+    }
+
+    /**
+     * Returns the condition satisfied by an OR of {@code operands}, if all of them are equality
+     * conditions on the same token.
+     */
+    private EqualityCondition anyEqualityCondition(final List<Evaluable> operands) {
+        EqualityCondition anyCondition = null;
+        for (final Evaluable operand : operands) {
+            if (operand == null) {
+                // Skipped by the OR operation
+                continue;
+            }
+
+            final EqualityCondition condition = equalityCondition(operand);
+            if (condition == null) {
+                return null;
+            }
+            if (anyCondition == null) {
+                anyCondition = condition;
+            } else if (anyCondition.tokenString.equals(condition.tokenString)) {
+                anyCondition.keys.addAll(condition.keys);
+            } else {
+                return null;
+            }
+        }
+        return anyCondition;
+    }
+
+    @SuppressWarnings("unchecked")
+    private EqualityCondition equalityCondition(final Evaluable evaluable) {
+        if (!(evaluable instanceof ComparisonExpression)) {
+            return null;
+        }
+
+        final ComparisonExpression<?, ?> comparison = (ComparisonExpression<?, ?>) evaluable;
+        if (!OPERATOR_EQUALS.equals(comparison.getOperationName())
+                || !(comparison.getLhs() instanceof OperandMustacheToken)
+                || !(comparison.getRhs() instanceof OperandLiteral)) {
+            return null;
+        }
+
+        final OperandMustacheToken<?> token = (OperandMustacheToken<?>) comparison.getLhs();
+        final Object value = ((OperandLiteral<?>) comparison.getRhs()).getValue();
+        if (token.getTokenString() == null
+                || token.getTokenClass() != String.class
+                || !(value instanceof String)) {
+            return null;
+        }
+
+        final EqualityCondition condition =
+                new EqualityCondition((OperandMustacheToken<String>) token);
+        condition.keys.add(evaluator.equalityKey((String) value));
+        return condition;
+    }
+
+    private static EqualityCondition mostSelective(
+            final List<EqualityCondition> conditions,
+            final Map<String, Map<String, Integer>> ruleCounts) {
+        EqualityCondition mostSelective = null;
+        int fewestRules = Integer.MAX_VALUE;
+        for (final EqualityCondition condition : conditions) {
+            final Map<String, Integer> counts = ruleCounts.get(condition.tokenString);
+            int selectedRules = 0;
+            for (final String key : condition.keys) {
+                selectedRules += counts.get(key);
+            }
+            if (selectedRules < fewestRules) {
+                mostSelective = condition;
+                fewestRules = selectedRules;
+            }
+        }
+        return mostSelective;
+    }
+}
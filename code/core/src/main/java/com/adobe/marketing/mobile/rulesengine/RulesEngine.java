@@ -12,35 +12,59 @@
 package com.adobe.marketing.mobile.rulesengine;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
 
-/** RulesEngine to evaluate matching rules for given input data */
+/**
+ * RulesEngine to evaluate matching rules for given input data.
+ *
+ * <p>Rules are held in an immutable snapshot which is replaced whenever rules are replaced or
+ * added, so evaluations run without locking on any thread and see a consistent set of rules.
+ */
 public class RulesEngine<T extends Rule> {
 
     private final Object rulesEngineMutex = new Object();
     private final Evaluating evaluator;
     private final Transforming transformer;
-    private List<T> rules;
+    private volatile RuleSet<T> ruleSet;
+
+    /** An immutable set of rules along with their index and compiled conditions. */
+    private static final class RuleSet<T extends Rule> {
+        final List<T> rules;
+        final RuleIndex<T> ruleIndex;
+        final Evaluable[] conditions;
+
+        RuleSet(final List<T> rules, final Evaluating evaluator) {
+            this.rules = Collections.unmodifiableList(rules);
+            this.ruleIndex = new RuleIndex<>(rules, evaluator);
+            this.conditions = new Evaluable[rules.size()];
+            for (int i = 0; i < conditions.length; i++) {
+                conditions[i] = ConditionCompiler.compile(rules.get(i).getEvaluable(), evaluator);
+            }
+        }
+    }
 
     public RulesEngine(final Evaluating evaluator, final Transforming transformer) {
         this.evaluator = evaluator;
         this.transformer = transformer;
-        this.rules = new ArrayList<>();
+        this.ruleSet = new RuleSet<>(new ArrayList<>(), evaluator);
     }
 
     public List<T> evaluate(final TokenFinder tokenFinder) {
-        synchronized (rulesEngineMutex) {
-            final Context context = new Context(tokenFinder, evaluator, transformer);
-            List<T> triggerRules = new ArrayList<>();
+        final RuleSet<T> currentRuleSet = ruleSet;
+        final Context context = new Context(tokenFinder, evaluator, transformer);
+        List<T> triggerRules = new ArrayList<>();
 
-            for (final T rule : rules) {
-                RulesResult result = rule.getEvaluable().evaluate(context);
-                if (result.isSuccess()) {
-                    triggerRules.add(rule);
-                }
+        // Only rules whose required equality conditions can hold are evaluated, in rule order.
+        final BitSet candidates = currentRuleSet.ruleIndex.candidates(context);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            RulesResult result = currentRuleSet.conditions[i].evaluate(context);
+            if (result.isSuccess()) {
+                triggerRules.add(currentRuleSet.rules.get(i));
             }
-            return triggerRules;
         }
+        return triggerRules;
     }
 
     public void replaceRules(final List<T> newRules) {
@@ -48,18 +72,28 @@ public class RulesEngine<T extends Rule> {
             return;
         }
 
+        final RuleSet<T> newRuleSet = new RuleSet<>(new ArrayList<>(newRules), evaluator);
         synchronized (rulesEngineMutex) {
-            rules = new ArrayList<>(newRules);
+            ruleSet = newRuleSet;
         }
     }
 
     public void addRules(final List<T> newRules) {
+        // Serialized with other updates so that no concurrently added rules are lost.
         synchronized (rulesEngineMutex) {
+            final List<T> rules = new ArrayList<>(ruleSet.rules.size() + newRules.size());
+            rules.addAll(ruleSet.rules);
             rules.addAll(newRules);
+            ruleSet = new RuleSet<>(rules, evaluator);
         }
     }
 
+    /**
+     * Returns a copy of the current rules, which is not affected by later updates of the rules.
+     *
+     * @return the current rules, in evaluation order
+     */
     public List<T> getRules() {
-        return new ArrayList<>(rules);
+        return new ArrayList<>(ruleSet.rules);
     }
 }
@@ -0,0 +1,195 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.rulesengine;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Matches strings against a constant for the {@code startsWith}, {@code endsWith} and {@code
+ * contains} operators of {@link ConditionEvaluator}, prepared once when a rule is compiled.
+ *
+ * <p>{@link ConditionEvaluator} matches prefixes and suffixes with a regular expression, so a
+ * match also requires the rest of the string to have no line terminators, and the case insensitive
+ * option follows the case folding of the platform's regular expressions. The common case of ASCII
+ * strings is matched directly; strings with characters on which regular expression engines may
+ * differ fall back to the same expression, compiled once.
+ */
+abstract class StringMatcher {
+
+    /**
+     * @param value the resolved left operand
+     * @return whether the operator matches {@code value}
+     */
+    abstract boolean matches(final String value);
+
+    static StringMatcher startsWith(final String prefix, final boolean caseInsensitive) {
+        return new Affix(prefix, caseInsensitive, true);
+    }
+
+    static StringMatcher endsWith(final String suffix, final boolean caseInsensitive) {
+        return new Affix(suffix, caseInsensitive, false);
+    }
+
+    static StringMatcher contains(final String part, final boolean caseInsensitive) {
+        return caseInsensitive ? new ContainsIgnoreCase(part) : new Contains(part);
+    }
+
+    /** Matches a prefix or a suffix, as {@code (?i)prefix.*} or {@code (?i).*suffix} would. */
+    private static final class Affix extends StringMatcher {
+        private final String affix;
+        private final boolean caseInsensitive;
+        private final boolean isPrefix;
+        private final boolean matchesDirectly;
+        private final Pattern pattern;
+
+        Affix(final String affix, final boolean caseInsensitive, final boolean isPrefix) {
+            this.affix = affix;
+            this.caseInsensitive = caseInsensitive;
+            this.isPrefix = isPrefix;
+            // Regular expressions match code points, an affix may not split a surrogate pair
+            this.matchesDirectly =
+                    caseInsensitive
+                            ? isAscii(affix, 0, affix.length())
+                            : affix.isEmpty()
+                                    || (!Character.isLowSurrogate(affix.charAt(0))
+                                            && !Character.isHighSurrogate(
+                                                    affix.charAt(affix.length() - 1)));
+            final String matcherMode = caseInsensitive ? "(?i)" : "";
+            this.pattern =
+                    Pattern.compile(
+                            isPrefix
+                                    ? matcherMode + Pattern.quote(affix) + ".*"
+                                    : matcherMode + ".*" + Pattern.quote(affix));
+        }
+
+        @Override
+        boolean matches(final String value) {
+            if (!matchesDirectly) {
+                return pattern.matcher(value).matches();
+            }
+            final int length = affix.length();
+            if (value.length() < length) {
+                // ASCII characters fold one to one, only other characters can match longer affixes
+                return caseInsensitive
+                        && !isAscii(value, 0, value.length())
+                        && pattern.matcher(value).matches();
+            }
+
+            final int affixStart = isPrefix ? 0 : value.length() - length;
+            if (!caseInsensitive) {
+                if (!value.startsWith(affix, affixStart)) {
+                    return false;
+                }
+            } else {
+                if (!isAscii(value, affixStart, affixStart + length)) {
+                    return pattern.matcher(value).matches();
+                }
+                if (!value.regionMatches(true, affixStart, affix, 0, length)) {
+                    return false;
+                }
+            }
+
+            final int restStart = isPrefix ? length : 0;
+            final int restEnd = isPrefix ? value.length() : affixStart;
+            return !mayContainLineTerminator(value, restStart, restEnd)
+                    || pattern.matcher(value).matches();
+        }
+    }
+
+    private static final class Contains extends StringMatcher {
+        private final String part;
+
+        Contains(final String part) {
+            this.part = part;
+        }
+
+        @Override
+        boolean matches(final String value) {
+            return value.contains(part);
+        }
+    }
+
+    /** Matches as {@code value.toLowerCase().contains(part.toLowerCase())} would. */
+    private static final class ContainsIgnoreCase extends StringMatcher {
+        private final String part;
+        private final Locale locale;
+        private final String lowerCasePart;
+
+        ContainsIgnoreCase(final String part) {
+            this.part = part;
+            this.locale = Locale.getDefault();
+            this.lowerCasePart = part.toLowerCase(locale);
+        }
+
+        @Override
+        boolean matches(final String value) {
+            final Locale currentLocale = Locale.getDefault();
+            final String lowerCase =
+                    currentLocale.equals(locale) ? lowerCasePart : part.toLowerCase(currentLocale);
+            if (hasAsciiLowerCase(currentLocale) && isAscii(value, 0, value.length())) {
+                return containsLowerCase(value, lowerCase);
+            }
+            return value.toLowerCase(currentLocale).contains(lowerCase);
+        }
+
+        /** Returns whether {@code lowerCase} is found in {@code value} lowercased as ASCII. */
+        private static boolean containsLowerCase(final String value, final String lowerCase) {
+            final int last = value.length() - lowerCase.length();
+            for (int i = 0; i <= last; i++) {
+                int j = 0;
+                while (j < lowerCase.length()
+                        && toLowerCaseAscii(value.charAt(i + j)) == lowerCase.charAt(j)) {
+                    j++;
+                }
+                if (j == lowerCase.length()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Turkish and Azerbaijani lowercase I to a dotless i. */
+        private static boolean hasAsciiLowerCase(final Locale locale) {
+            final String language = locale.getLanguage();
+            return !"tr".equals(language) && !"az".equals(language);
+        }
+
+        private static char toLowerCaseAscii(final char c) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+    }
+
+    private static boolean isAscii(final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether {@code value[start, end)} has a character which a regular expression engine
+     * may treat as a line terminator.
+     */
+    private static boolean mayContainLineTerminator(
+            final String value, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if ((c >= '\n' && c <= '\r') || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -37,34 +37,34 @@ public class TemplateParser {
         while (i < end) {
             switch (parser.state) {
                 case START:
-                    if (templateString.substring(i).startsWith(currentDelimiter.getStartTag())) {
+                    if (templateString.startsWith(currentDelimiter.getStartTag(), i)) {
                         parser.setState(i, State.TAG);
-                        i = templateString.indexOf(currentDelimiter.getStartTag(), i) + 1;
+                        i++;
                     } else {
                         parser.setState(i, State.TEXT);
                     }
 
                     break;
                 case TEXT:
-                    if (templateString.substring(i).startsWith(currentDelimiter.getStartTag())) {
+                    if (templateString.startsWith(currentDelimiter.getStartTag(), i)) {
                         if (parser.index != i) {
                             tokens.add(new SegmentText(templateString.substring(parser.index, i)));
                         }
 
                         parser.setState(i, State.TAG);
-                        i = templateString.indexOf(currentDelimiter.getStartTag(), i) + 1;
+                        i++;
                     }
 
                     break;
                 case TAG:
-                    if (templateString.substring(i).startsWith(currentDelimiter.getEndTag())) {
+                    if (templateString.startsWith(currentDelimiter.getEndTag(), i)) {
                         int tokenContentStartIndex =
                                 parser.index + currentDelimiter.getStartLength();
                         tokens.add(
                                 new SegmentToken(
                                         templateString.substring(tokenContentStartIndex, i)));
                         parser.state = State.START;
-                        i = templateString.indexOf(currentDelimiter.getEndTag(), i) + 1;
+                        i++;
                     }
 
                     break;
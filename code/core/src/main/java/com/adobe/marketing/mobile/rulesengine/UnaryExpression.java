@@ -37,4 +37,12 @@ public class UnaryExpression<A> implements Evaluable {
 
         return context.evaluator.evaluate(operationName, resolvedLhs);
     }
+
+    Operand<A> getLhs() {
+        return lhs;
+    }
+
+    String getOperationName() {
+        return operationName;
+    }
 }
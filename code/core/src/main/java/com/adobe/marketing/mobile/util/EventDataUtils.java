@@ -18,11 +18,13 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import java.util.UUID;
 
@@ -30,6 +32,10 @@ import java.util.UUID;
  * Utility to clone event data which is represented as {@code Map<String, Object>}. Currently
  * supports cloning values which are Boolean, Byte, Short, Integer, Long, Float, Double, BigDecimal,
  * BigInteger, Character, String, UUID, Maps and Collections.
+ *
+ * <p>Immutable clones are deeply immutable, so immutably cloning a tree which contains them reuses
+ * them by reference. Only the maps and collections created since the last immutable clone are
+ * copied, e.g. the path to the values changed by a rules consequence.
  */
 public class EventDataUtils {
 
@@ -76,6 +82,14 @@ public class EventDataUtils {
             return obj;
         }
 
+        if (mode == CloneMode.ImmutableContainer) {
+            if (obj instanceof ImmutableEventDataMap) {
+                return reuse(obj, ((ImmutableEventDataMap) obj).getHeight(), depth);
+            } else if (obj instanceof ImmutableEventDataList) {
+                return reuse(obj, ((ImmutableEventDataList) obj).getHeight(), depth);
+            }
+        }
+
         if (obj instanceof Map) {
             return cloneMap((Map<?, ?>) obj, mode, depth);
         } else if (obj instanceof Collection) {
@@ -92,18 +106,47 @@ public class EventDataUtils {
         }
     }
 
+    /**
+     * Returns an already immutable container as is, if placing it at {@code depth} does not exceed
+     * {@value EventDataUtils#MAX_DEPTH}.
+     */
+    private static Object reuse(final Object container, final int height, final int depth)
+            throws CloneFailedException {
+        if (depth + height > MAX_DEPTH) {
+            throw new CloneFailedException(CloneFailedException.Reason.MAX_DEPTH_REACHED);
+        }
+        return container;
+    }
+
+    /**
+     * Returns how many levels {@code clonedValue} adds below the container holding it.
+     */
+    private static int heightOf(final Object clonedValue) {
+        if (clonedValue == null) {
+            return 0;
+        } else if (clonedValue instanceof ImmutableEventDataMap) {
+            return 1 + ((ImmutableEventDataMap) clonedValue).getHeight();
+        } else if (clonedValue instanceof ImmutableEventDataList) {
+            return 1 + ((ImmutableEventDataList) clonedValue).getHeight();
+        } else {
+            return 1;
+        }
+    }
+
     private static Map<String, Object> cloneMap(
             final Map<?, ?> map, final CloneMode mode, final int depth)
             throws CloneFailedException {
         if (map == null) return null;
 
         Map<String, Object> ret = new HashMap<>();
+        int height = 0;
         for (Map.Entry<?, ?> kv : map.entrySet()) {
             Object key = kv.getKey();
             if (key instanceof String) {
                 try {
                     Object clonedValue = cloneObject(kv.getValue(), mode, depth + 1);
                     ret.put(key.toString(), clonedValue);
+                    height = Math.max(height, heightOf(clonedValue));
                 } catch (CloneFailedException e) {
                     if (e.getReason() != CloneFailedException.Reason.UNSUPPORTED_TYPE) {
                         throw e;
@@ -117,7 +160,7 @@ public class EventDataUtils {
                 }
             }
         }
-        return mode == CloneMode.ImmutableContainer ? Collections.unmodifiableMap(ret) : ret;
+        return mode == CloneMode.ImmutableContainer ? new ImmutableEventDataMap(ret, height) : ret;
     }
 
     private static Collection<Object> cloneCollection(
@@ -126,10 +169,12 @@ public class EventDataUtils {
         if (collection == null) return null;
 
         List<Object> ret = new ArrayList<>();
+        int height = 0;
         for (Object element : collection) {
             try {
                 Object clonedElement = cloneObject(element, mode, depth + 1);
                 ret.add(clonedElement);
+                height = Math.max(height, heightOf(clonedElement));
             } catch (CloneFailedException e) {
                 if (e.getReason() != CloneFailedException.Reason.UNSUPPORTED_TYPE) {
                     throw e;
@@ -141,7 +186,7 @@ public class EventDataUtils {
                         e.getMessage());
             }
         }
-        return mode == CloneMode.ImmutableContainer ? Collections.unmodifiableList(ret) : ret;
+        return mode == CloneMode.ImmutableContainer ? new ImmutableEventDataList(ret, height) : ret;
     }
 
     private static Collection<Object> cloneArray(
@@ -150,10 +195,13 @@ public class EventDataUtils {
 
         List<Object> ret = new ArrayList<>();
 
+        int height = 0;
         int length = Array.getLength(array);
         for (int i = 0; i < length; ++i) {
             try {
-                ret.add(cloneObject(Array.get(array, i), mode, depth + 1));
+                Object clonedElement = cloneObject(Array.get(array, i), mode, depth + 1);
+                ret.add(clonedElement);
+                height = Math.max(height, heightOf(clonedElement));
             } catch (CloneFailedException e) {
                 if (e.getReason() != CloneFailedException.Reason.UNSUPPORTED_TYPE) {
                     throw e;
@@ -166,7 +214,7 @@ public class EventDataUtils {
             }
         }
 
-        return mode == CloneMode.ImmutableContainer ? Collections.unmodifiableList(ret) : ret;
+        return mode == CloneMode.ImmutableContainer ? new ImmutableEventDataList(ret, height) : ret;
     }
 
     /**
@@ -205,16 +253,145 @@ public class EventDataUtils {
      *
      * Values which are {@code Collection<?>} are cloned as unmodifiable {@code ArrayList<Object>}.
      *
+     * <p>Maps and collections previously returned by this method are not cloned again but shared,
+     * since they cannot change.
+     *
      * @param map map to be cloned
      * @return Cloned immutable map
      * @throws CloneFailedException if object depth exceeds {@value EventDataUtils#MAX_DEPTH} or
      *     contains unsupported type.
      */
+    @SuppressWarnings("unchecked")
     public static Map<String, Object> immutableClone(final Map<String, ?> map)
             throws CloneFailedException {
+        if (map instanceof ImmutableEventDataMap) {
+            return (Map<String, Object>) map;
+        }
         return cloneMap(map, CloneMode.ImmutableContainer, 0);
     }
 
+    /**
+     * Makes the provided map deeply immutable without copying it, taking ownership of the map and
+     * of every map and list nested in it. Accepts the same values as {@link #immutableClone(Map)}
+     * and returns an equivalent map.
+     *
+     * <p>Nested maps and lists are frozen in place: entries with unsupported values or non {@code
+     * String} keys are removed, and nested containers are replaced by their immutable views.
+     * Arrays, other collections and containers which cannot be updated in place are cloned
+     * instead.
+     *
+     * <p>The caller must not modify or read the provided map afterwards; it may be left partially
+     * frozen if this method throws.
+     *
+     * @param map map to be frozen
+     * @return immutable view of the provided map
+     * @throws CloneFailedException if object depth exceeds {@value EventDataUtils#MAX_DEPTH}
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> freeze(final Map<String, ?> map)
+            throws CloneFailedException {
+        if (map == null || map instanceof ImmutableEventDataMap) {
+            return (Map<String, Object>) map;
+        }
+        return freezeMap(map, 0);
+    }
+
+    private static Object freezeObject(final Object obj, final int depth)
+            throws CloneFailedException {
+        if (obj instanceof Map && !(obj instanceof ImmutableEventDataMap)) {
+            if (depth > MAX_DEPTH) {
+                throw new CloneFailedException(CloneFailedException.Reason.MAX_DEPTH_REACHED);
+            }
+            return freezeMap((Map<?, ?>) obj, depth);
+        } else if (obj instanceof List
+                && obj instanceof RandomAccess
+                && !(obj instanceof ImmutableEventDataList)) {
+            if (depth > MAX_DEPTH) {
+                throw new CloneFailedException(CloneFailedException.Reason.MAX_DEPTH_REACHED);
+            }
+            return freezeList((List<Object>) obj, depth);
+        }
+        return cloneObject(obj, CloneMode.ImmutableContainer, depth);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> freezeMap(final Map<?, ?> map, final int depth)
+            throws CloneFailedException {
+        int height = 0;
+        try {
+            final Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<?, ?> kv = iterator.next();
+                if (!(kv.getKey() instanceof String)) {
+                    iterator.remove();
+                    continue;
+                }
+
+                final Object value = kv.getValue();
+                final Object frozenValue;
+                try {
+                    frozenValue = freezeObject(value, depth + 1);
+                } catch (CloneFailedException e) {
+                    if (e.getReason() != CloneFailedException.Reason.UNSUPPORTED_TYPE) {
+                        throw e;
+                    }
+                    Log.trace(
+                            CoreConstants.LOG_TAG,
+                            LOG_SOURCE,
+                            "freezeMap - Removed key %s due to %s",
+                            kv.getKey(),
+                            e.getMessage());
+                    iterator.remove();
+                    continue;
+                }
+
+                if (frozenValue != value) {
+                    ((Map.Entry<String, Object>) kv).setValue(frozenValue);
+                }
+                height = Math.max(height, heightOf(frozenValue));
+            }
+        } catch (UnsupportedOperationException e) {
+            // The map cannot be updated in place, clone it instead.
+            return cloneMap(map, CloneMode.ImmutableContainer, depth);
+        }
+        return new ImmutableEventDataMap((Map<String, Object>) map, height);
+    }
+
+    private static List<Object> freezeList(final List<Object> list, final int depth)
+            throws CloneFailedException {
+        int height = 0;
+        try {
+            final ListIterator<Object> iterator = list.listIterator();
+            while (iterator.hasNext()) {
+                final Object element = iterator.next();
+                final Object frozenElement;
+                try {
+                    frozenElement = freezeObject(element, depth + 1);
+                } catch (CloneFailedException e) {
+                    if (e.getReason() != CloneFailedException.Reason.UNSUPPORTED_TYPE) {
+                        throw e;
+                    }
+                    Log.trace(
+                            CoreConstants.LOG_TAG,
+                            LOG_SOURCE,
+                            "freezeList - Removed element due to %s",
+                            e.getMessage());
+                    iterator.remove();
+                    continue;
+                }
+
+                if (frozenElement != element) {
+                    iterator.set(frozenElement);
+                }
+                height = Math.max(height, heightOf(frozenElement));
+            }
+        } catch (UnsupportedOperationException e) {
+            // The list cannot be updated in place, clone it instead.
+            return (List<Object>) cloneCollection(list, CloneMode.ImmutableContainer, depth);
+        }
+        return new ImmutableEventDataList(list, height);
+    }
+
     /**
      * Casts generic map {@code Map<?, ?>} to {@code HashMap<String, Object>}
      *
@@ -0,0 +1,50 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable list produced by {@link EventDataUtils#immutableClone(java.util.Map)} and {@link
+ * EventDataUtils#freeze(java.util.Map)} for nested collections and arrays. Like {@link
+ * ImmutableEventDataMap}, it is deeply immutable and shared by reference.
+ */
+final class ImmutableEventDataList extends AbstractList<Object> implements RandomAccess {
+
+    private final List<Object> list;
+    private final int height;
+
+    /**
+     * @param list the list to freeze; must not be referenced by anything else
+     * @param height the nesting depth of the deepest element below this list
+     */
+    ImmutableEventDataList(final List<Object> list, final int height) {
+        this.list = list;
+        this.height = height;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Object get(final int index) {
+        return list.get(index);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+}
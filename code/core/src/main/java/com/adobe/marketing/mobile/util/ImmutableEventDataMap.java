@@ -0,0 +1,98 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.util;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unmodifiable map produced by {@link EventDataUtils#immutableClone(Map)} and {@link
+ * EventDataUtils#freeze(Map)}. Its backing map is owned exclusively by this view, so the whole tree
+ * is deeply immutable and can be shared by reference instead of being cloned again. Nested maps and
+ * collections are {@link ImmutableEventDataMap}s and {@link ImmutableEventDataList}s.
+ */
+final class ImmutableEventDataMap extends AbstractMap<String, Object> {
+
+    private final Map<String, Object> map;
+    private final int height;
+
+    /**
+     * @param map the map to freeze; must not be referenced by anything else
+     * @param height the nesting depth of the deepest value below this map
+     */
+    ImmutableEventDataMap(final Map<String, Object> map, final int height) {
+        this.map = Collections.unmodifiableMap(map);
+        this.height = height;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return map.get(key);
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return map.containsValue(value);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return map.values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return map.entrySet();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return o == this || map.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return map.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return map.toString();
+    }
+}
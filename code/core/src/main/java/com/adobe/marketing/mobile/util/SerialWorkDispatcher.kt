@@ -21,6 +21,10 @@ import java.util.concurrent.ConcurrentLinkedQueue
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import java.util.concurrent.Future
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
 
 /**
  * Provides a template for processing a queue of work items serially. Allows adding new work items
@@ -28,10 +32,37 @@ import java.util.concurrent.Future
  * that process work items with the queue that they are fetched from to allow sub-classes to be
  * agnostic of worker thread management.
  */
-open class SerialWorkDispatcher<T>(private val name: String, private val workHandler: WorkHandler<T>) {
+open class SerialWorkDispatcher<T> internal constructor(
+    private val name: String,
+    private val workHandler: WorkHandler<T>,
+    private val workQueue: Queue<T>,
+    executorService: ExecutorService = Executors.newSingleThreadExecutor()
+) {
+
+    constructor(name: String, workHandler: WorkHandler<T>) : this(name, workHandler, ConcurrentLinkedQueue())
 
     private companion object {
         private const val LOG_TAG = "SerialWorkDispatcher"
+
+        /**
+         * The maximum number of items processed by a [WorkProcessor] before handing its thread
+         * back to the executor.
+         */
+        private const val BATCH_SIZE = 64
+
+        // Values of workerState
+        private const val WORKER_IDLE = 0
+        private const val WORKER_RUNNING = 1
+        private const val WORKER_SIGNALLED = 2
+
+        // Outcomes of a pass of the WorkProcessor over the workQueue
+        private const val PASS_DRAINED = 0
+        private const val PASS_BATCH_FULL = 1
+        private const val PASS_BLOCKED = 2
+        private const val PASS_STOPPED = 3
+        private const val PASS_FAILED = 4
+
+        private const val UNBOUNDED = Int.MAX_VALUE
     }
 
     /**
@@ -81,14 +112,26 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
     }
 
     /**
-     * The executor to which work is submitted for sequencing.
+     * Determines what [offer] does with an item when the [workQueue] is at the capacity set through [setCapacity].
      */
-    private var executorService: ExecutorService = Executors.newSingleThreadExecutor()
+    internal enum class OverflowPolicy {
+        /**
+         * Drops the oldest queued item to make room. The item at the front of the queue is never
+         * dropped, since it may be the one being processed.
+         */
+        DROP_OLDEST,
+
+        /**
+         * Drops the offered item.
+         */
+        DROP_NEWEST
+    }
 
     /**
-     * Holds the work items that need to be processed by this dispatcher.
+     * The executor to which work is submitted for sequencing. Must run tasks one at a time in
+     * submission order, either on a dedicated thread or as a strand of a shared pool.
      */
-    private val workQueue: Queue<T> = ConcurrentLinkedQueue()
+    private var executorService: ExecutorService = executorService
 
     /**
      * A runnable responsible for draining the work items from the [workQueue]
@@ -98,10 +141,18 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
 
     /**
      * A handle for identifying and manipulating the state of the thread that this dispatcher owns.
-     * Can be used to ensure that only one [workProcessor] is active at a time.
+     * Used to interrupt the active [workProcessor] on [shutdown].
      */
+    @Volatile
     private var workProcessorFuture: Future<*>? = null
 
+    /**
+     * Coordinates producers with the [workProcessor] without locking. Only the producer which moves it
+     * from [WORKER_IDLE] to [WORKER_RUNNING] submits the [workProcessor]; producers arriving while it runs
+     * only mark it [WORKER_SIGNALLED], which makes the [workProcessor] take another pass before going idle.
+     */
+    private val workerState: AtomicInteger = AtomicInteger(WORKER_IDLE)
+
     /**
      * Denotes the current state of the [SerialWorkDispatcher]. It is synonymous with the ability of the
      * [workQueue] to accept new items. Note that this is not the state of the worker-thread that this
@@ -115,6 +166,36 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
      */
     private val activenessMutex: Any = Any()
 
+    /**
+     * The maximum number of items held in the [workQueue], [UNBOUNDED] unless set through [setCapacity].
+     */
+    @Volatile
+    private var capacity: Int = UNBOUNDED
+
+    @Volatile
+    private var overflowPolicy: OverflowPolicy = OverflowPolicy.DROP_NEWEST
+
+    /**
+     * Guards the overflow handling of a bounded [workQueue] and removal of items from it.
+     * Never taken while the [workQueue] is unbounded.
+     */
+    private val overflowLock: ReentrantLock = ReentrantLock()
+
+    /**
+     * The number of items in the [workQueue].
+     */
+    private val queueDepth: AtomicInteger = AtomicInteger(0)
+
+    private val highWaterMark: AtomicInteger = AtomicInteger(0)
+
+    private val droppedItems: AtomicInteger = AtomicInteger(0)
+
+    /**
+     * The number of items dropped because the [workQueue] was at capacity.
+     */
+    internal val droppedItemCount: Int
+        get() = droppedItems.get()
+
     /**
      * The initialization job that is to be executed when the [SerialWorkDispatcher] starts (i.e
      * before processing any items in the [workQueue] for the first time)
@@ -162,18 +243,177 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
      * @return true if [item] has been enqueued successfully, false otherwise
      */
     fun offer(item: T): Boolean {
-        // Hold the activeness lock to ensure that an update to state is
-        // not being made while a state change operation start/resume/stop is being done.
-        synchronized(activenessMutex) {
-            if (state == State.SHUTDOWN) return false
+        if (state == State.SHUTDOWN) return false
+        if (capacity == UNBOUNDED) {
             workQueue.offer(item)
+            recordDepth(queueDepth.incrementAndGet())
+        } else if (!offerBounded(item)) {
+            return false
+        }
+
+        // resume the processing the work items in the queue if necessary
+        wake()
+        return true
+    }
+
+    /**
+     * Resumes the queue processing if the [SerialWorkDispatcher] is active, without enqueuing anything.
+     * Meant for producers that publish directly into the work queue supplied at construction
+     * instead of going through [offer].
+     *
+     * @return true if the [SerialWorkDispatcher] accepts work, false if it was shutdown
+     */
+    internal fun signal(): Boolean {
+        if (state == State.SHUTDOWN) return false
+
+        recordDepth(queueDepth.incrementAndGet())
+        wake()
+        return true
+    }
+
+    /**
+     * Limits the number of items held in the [workQueue] to [capacity] and applies [policy] to items offered
+     * beyond it. Only supported for dispatchers which own their work queue. Items already queued beyond
+     * a lowered [capacity] are kept.
+     *
+     * @param capacity the maximum number of items held in the [workQueue]
+     * @param policy the [OverflowPolicy] applied when the queue is at capacity
+     */
+    internal fun setCapacity(capacity: Int, policy: OverflowPolicy) {
+        require(capacity > 0) { "Capacity must be positive" }
+
+        overflowLock.withLock {
+            this.overflowPolicy = policy
+            this.capacity = capacity
+        }
+    }
+
+    /**
+     * Returns the number of items waiting to be processed, including the item being processed.
+     */
+    fun getQueueDepth(): Int {
+        return queueDepth.get()
+    }
+
+    /**
+     * Returns the largest queue depth observed since this [SerialWorkDispatcher] was created.
+     */
+    fun getHighWaterMark(): Int {
+        return highWaterMark.get()
+    }
 
-            if (state == State.ACTIVE) {
-                // resume the processing the work items in the queue if necessary
-                resume()
+    private fun recordDepth(depth: Int) {
+        while (true) {
+            val current = highWaterMark.get()
+            if (depth <= current || highWaterMark.compareAndSet(current, depth)) return
+        }
+    }
+
+    /**
+     * Reserves room for one item in the bounded [workQueue].
+     *
+     * @return true if room was reserved, false if the [workQueue] is at capacity
+     */
+    private fun tryReserveSlot(): Boolean {
+        while (true) {
+            val depth = queueDepth.get()
+            if (depth >= capacity) return false
+            if (queueDepth.compareAndSet(depth, depth + 1)) {
+                recordDepth(depth + 1)
+                return true
             }
+        }
+    }
+
+    /**
+     * Enqueues [item] into the bounded [workQueue], applying the [overflowPolicy] if it is at capacity.
+     *
+     * @return true if [item] was enqueued, false if it was dropped
+     */
+    private fun offerBounded(item: T): Boolean {
+        if (tryReserveSlot()) {
+            workQueue.offer(item)
             return true
         }
+
+        overflowLock.withLock {
+            val accepted = when (overflowPolicy) {
+                OverflowPolicy.DROP_NEWEST -> false
+                OverflowPolicy.DROP_OLDEST -> {
+                    if (dropOldestWaitingItem()) {
+                        // The dropped item's slot is reused.
+                        workQueue.offer(item)
+                        true
+                    } else {
+                        false
+                    }
+                }
+            }
+
+            if (!accepted) {
+                droppedItems.incrementAndGet()
+                Log.debug(
+                    CoreConstants.LOG_TAG,
+                    getTag(),
+                    "Queue is at capacity ($capacity), dropped item under $overflowPolicy."
+                )
+            }
+            return accepted
+        }
+    }
+
+    /**
+     * Removes the oldest item behind the front of the [workQueue]. Must hold [overflowLock], which
+     * keeps the front item from being removed concurrently by the [workProcessor].
+     *
+     * @return true if an item was dropped
+     */
+    private fun dropOldestWaitingItem(): Boolean {
+        val iterator = workQueue.iterator()
+        if (!iterator.hasNext()) return false
+
+        // Skip the front item, it may be in process.
+        iterator.next()
+        if (!iterator.hasNext()) return false
+
+        iterator.next()
+        iterator.remove()
+        return true
+    }
+
+    /**
+     * Starts the [workProcessor] if the [SerialWorkDispatcher] is active, [canWork] and there is work,
+     * or marks the running [workProcessor] as signalled so it checks the [workQueue] again before going idle.
+     * Concurrent calls coalesce into at most one submission.
+     */
+    private fun wake() {
+        while (true) {
+            when (workerState.get()) {
+                WORKER_IDLE -> {
+                    if (state != State.ACTIVE || !canWork() || !hasWork()) return
+                    if (workerState.compareAndSet(WORKER_IDLE, WORKER_RUNNING)) {
+                        submitWorkProcessor()
+                        return
+                    }
+                }
+                WORKER_RUNNING -> {
+                    if (workerState.compareAndSet(WORKER_RUNNING, WORKER_SIGNALLED)) return
+                }
+                else -> return
+            }
+        }
+    }
+
+    /**
+     * Submits the [workProcessor] to the [executorService]. Must only be called by the owner of [WORKER_RUNNING].
+     */
+    private fun submitWorkProcessor() {
+        try {
+            workProcessorFuture = executorService.submit(workProcessor)
+        } catch (exception: RejectedExecutionException) {
+            // The executor was shutdown as a result of shutdown().
+            workerState.set(WORKER_IDLE)
+        }
     }
 
     /**
@@ -209,9 +449,11 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
                 return false
             }
 
-            state = State.ACTIVE
+            // Submit the initial job before becoming active, so that producers
+            // cannot start the work processor ahead of it.
             prepare()
-            resume()
+            state = State.ACTIVE
+            wake()
             return true
         }
     }
@@ -265,15 +507,9 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
             }
 
             state = State.ACTIVE
-            val activeWorkProcessor: Future<*>? = workProcessorFuture
-            if ((activeWorkProcessor != null && !activeWorkProcessor.isDone) || !canWork()) {
-                // if the dispatcher is inactive or, if there is any active worker processing
-                // the queue - do not do anything as the existing processor will process the items
-                return true
-            }
 
-            // start the work processor
-            workProcessorFuture = executorService.submit(workProcessor)
+            // start the work processor, unless one is already processing the queue
+            wake()
             return true
         }
     }
@@ -309,7 +545,16 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
      * @return the work item at the front (earliest queued) of the [workQueue], null if [workQueue] is empty
      */
     private fun removeWorkItem(): T? {
-        return workQueue.poll()
+        if (capacity == UNBOUNDED) {
+            queueDepth.decrementAndGet()
+            return workQueue.poll()
+        }
+
+        overflowLock.withLock {
+            val workItem = workQueue.poll()
+            queueDepth.decrementAndGet()
+            return workItem
+        }
     }
 
     /**
@@ -347,6 +592,10 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
             workQueue.clear()
         }
 
+        overflowLock.withLock {
+            queueDepth.set(0)
+        }
+
         cleanup()
 
         // It is necessary and sufficient to call executorService.shutdown instead of executorService.shutdownNow()
@@ -366,60 +615,69 @@ open class SerialWorkDispatcher<T>(private val name: String, private val workHan
 
     /**
      * A runnable responsible for looping through the work items maintained by [SerialWorkDispatcher]
-     * in its [workQueue]
+     * in its [workQueue]. Processes up to [BATCH_SIZE] items per run and then re-submits itself,
+     * so that a busy dispatcher does not hold on to a shared executor thread indefinitely.
      */
     @VisibleForTesting
     internal inner class WorkProcessor : Runnable {
         override fun run() {
-            // flag representing whether processing should be auto resumed after the loop ends
-            var autoResume = true
-
-            // Perform work only if the dispatcher is unblocked and there are
-            // items in the queue to perform work on.
-            while (!Thread.interrupted() && state == State.ACTIVE && canWork() && hasWork()) {
-                try {
-                    val workItem = peekWorkItem()
-                        // this return exists for syntactical correctness. We reached here after
-                        // verifying that there is work via hasWork() and work cannot be removed
-                        // outside of the WorkProcessor. So there should exist at least one work
-                        // item when we reach here.
-                        ?: return
-
-                    if (workHandler.doWork(workItem)) {
-                        // Handler has successfully processed the work item, remove and try processing the next item
-                        removeWorkItem()
-                    } else {
-                        // Work handler cannot process the work item, wait until next item.
-                        // Do not auto resume here. Auto resuming will cause aggressive retries.
-                        autoResume = false
-                        break
-                    }
+            while (true) {
+                // Consume any pending signal. Signals raised from here on cause another pass.
+                workerState.set(WORKER_RUNNING)
+
+                val outcome = try {
+                    drainBatch()
                 } catch (exception: Exception) {
-                    Thread.currentThread().interrupt()
                     Log.warning(
                         CoreConstants.LOG_TAG,
                         getTag(),
                         "Exception encountered while processing item. $exception"
                     )
+                    PASS_FAILED
+                }
+
+                when (outcome) {
+                    PASS_BATCH_FULL -> {
+                        // Keep ownership of the worker and continue on a fresh executor task.
+                        submitWorkProcessor()
+                        return
+                    }
+                    PASS_FAILED -> {
+                        // Retry the failed item from a fresh executor task.
+                        workerState.set(WORKER_IDLE)
+                        wake()
+                        return
+                    }
+                    else -> {
+                        // Go idle unless new work or a resume() arrived during this pass. When the
+                        // work handler blocked, this is what retries the item once a new item is enqueued.
+                        if (workerState.compareAndSet(WORKER_RUNNING, WORKER_IDLE)) return
+                    }
                 }
             }
+        }
 
-            synchronized(activenessMutex) {
-                // At this point the work processor future cannot be null because it refers to
-                // this task (only one of which exists at a time).
-                // However, there may be a case where logic in resume() bails on scheduling a new
-                // work processor because this task is still not "done". Overcome that race by
-                // checking the state of the queue here and invoking resume here.
-                workProcessorFuture = null
-                if (autoResume && state == State.ACTIVE && hasWork()) {
-                    Log.trace(
-                        CoreConstants.LOG_TAG,
-                        getTag(),
-                        "Auto resuming work processor."
-                    )
-                    resume()
+        /**
+         * Processes items from the front of the [workQueue] while the dispatcher is active.
+         *
+         * @return the outcome of this pass, one of the PASS_ constants
+         */
+        private fun drainBatch(): Int {
+            if (state != State.ACTIVE || !canWork()) return PASS_STOPPED
+
+            repeat(BATCH_SIZE) {
+                if (Thread.currentThread().isInterrupted || state != State.ACTIVE) return PASS_STOPPED
+
+                val workItem = peekWorkItem() ?: return PASS_DRAINED
+                if (!workHandler.doWork(workItem)) {
+                    // Work handler cannot process the work item, wait until next item.
+                    return PASS_BLOCKED
                 }
+
+                // Handler has successfully processed the work item, remove and try processing the next item
+                removeWorkItem()
             }
+            return PASS_BATCH_FULL
         }
     }
 
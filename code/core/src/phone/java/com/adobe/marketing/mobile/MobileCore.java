@@ -1013,7 +1013,7 @@ public final class MobileCore {
     @VisibleForTesting
     static void resetSDK() {
         EventHub.Companion.getShared().shutdown();
-        EventHub.Companion.setShared(new EventHub());
+        EventHub.Companion.resetShared();
         MobileCoreInitializer.INSTANCE.reset();
     }
 }
@@ -23,7 +23,10 @@ import androidx.lifecycle.LifecycleOwner
 import androidx.lifecycle.ProcessLifecycleOwner
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.internal.configuration.ConfigurationExtension
+import com.adobe.marketing.mobile.internal.eventhub.EventDispatchMode
 import com.adobe.marketing.mobile.internal.eventhub.EventHub
+import com.adobe.marketing.mobile.internal.eventhub.WorkerThreadMode
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryRetention
 import com.adobe.marketing.mobile.internal.migration.V4Migrator
 import com.adobe.marketing.mobile.internal.migration.V5LegacyCleaner
 import com.adobe.marketing.mobile.services.Log
@@ -95,7 +98,19 @@ internal class MobileCoreInitializer(
             return
         }
 
-        setApplication(application)
+        // The modes only apply if the EventHub has not been created yet, so this must happen first.
+        if (initOptions.directEventDispatchEnabled || initOptions.sharedWorkerPoolEnabled) {
+            EventHub.configureShared(
+                if (initOptions.directEventDispatchEnabled) EventDispatchMode.DIRECT else EventDispatchMode.SERIALIZED,
+                if (initOptions.sharedWorkerPoolEnabled) WorkerThreadMode.SHARED_POOL else WorkerThreadMode.DEDICATED
+            )
+        }
+
+        initOptions.eventQueueLimits.forEach { (extensionClass, limit) ->
+            EventHub.shared.setEventQueueLimit(extensionClass, limit)
+        }
+
+        setApplication(application, initOptions.eventHistoryRetention)
 
         when (val config = initOptions.config) {
             is ConfigType.AppID -> MobileCore.configureWithAppID(config.appID)
@@ -138,7 +153,17 @@ internal class MobileCoreInitializer(
         }
     }
 
-    fun setApplication(application: Application) {
+    /**
+     * Sets the application and initializes event history in the background.
+     *
+     * @param eventHistoryRetention the bounds enforced on event history, which are ignored when
+     * setApplication was already called
+     */
+    @JvmOverloads
+    fun setApplication(
+        application: Application,
+        eventHistoryRetention: EventHistoryRetention = EventHistoryRetention.UNBOUNDED
+    ) {
         if (!isUserUnlocked(application)) {
             Log.error(
                 CoreConstants.LOG_TAG,
@@ -175,7 +200,7 @@ internal class MobileCoreInitializer(
                     Log.error(CoreConstants.LOG_TAG, LOG_TAG, "Unable to clean the V5 legacy data due to an error - ${e.localizedMessage}")
                 }
 
-                EventHub.shared.initializeEventHistory()
+                EventHub.shared.initializeEventHistory(eventHistoryRetention)
             }
         }
     }
@@ -167,6 +167,29 @@ public class EventTests {
         assertEquals(expectedData, event.getEventData());
     }
 
+    @Test
+    public void Event_setEventDataTakingOwnership_worksProperly() {
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        Map<String, Object> eventData = new HashMap<>();
+        eventData.put("string", "key");
+        eventData.put("map", nestedMap);
+
+        Map<String, Object> expectedData = new HashMap<>(eventData);
+        Event event =
+                new Event.Builder(mockEventName, mockEventType, mockEventSource)
+                        .setEventDataTakingOwnership(eventData)
+                        .build();
+
+        assertEquals(expectedData, event.getEventData());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> event.getEventData().put("new", "key"));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> ((Map<String, Object>) event.getEventData().get("map")).put("new", "key"));
+    }
+
     @Test
     public void Event_setEventDataMap_nullData() {
         Event event =
@@ -19,6 +19,8 @@ import androidx.lifecycle.LifecycleObserver
 import androidx.lifecycle.LifecycleOwner
 import com.adobe.marketing.mobile.internal.configuration.ConfigurationExtension
 import com.adobe.marketing.mobile.internal.eventhub.EventHub
+import com.adobe.marketing.mobile.internal.eventhub.EventQueueLimit
+import com.adobe.marketing.mobile.internal.eventhub.history.EventHistoryRetention
 import com.adobe.marketing.mobile.services.AppContextService
 import com.adobe.marketing.mobile.services.DataStoring
 import com.adobe.marketing.mobile.services.NamedCollection
@@ -295,6 +297,40 @@ class MobileCoreInitializerTests {
         verify(mockedEventHub, times(1)).registerExtensions(eq(expected), any())
     }
 
+    @Test
+    fun `test initialize applies event queue limits`() {
+        val options = InitOptions.configureWithAppID("appId").apply {
+            setEventQueueLimit(TestExtension1::class.java, 100, EventQueueOverflowPolicy.DROP_OLDEST)
+            setEventQueueLimit(TestExtension2::class.java, 0, EventQueueOverflowPolicy.DROP_NEWEST)
+        }
+        mobileCoreInitializer.initialize(application, options, null)
+
+        verify(mockedEventHub, times(1)).setEventQueueLimit(
+            eq(TestExtension1::class.java),
+            eq(EventQueueLimit(100, EventQueueOverflowPolicy.DROP_OLDEST))
+        )
+        verify(mockedEventHub, never()).setEventQueueLimit(eq(TestExtension2::class.java), any())
+    }
+
+    @Test
+    fun `test initialize applies event history retention`() {
+        val options = InitOptions.configureWithAppID("appId").apply {
+            setEventHistoryRetention(TimeUnit.DAYS.toMillis(30), 100, 0)
+        }
+        mobileCoreInitializer.initialize(application, options, null)
+
+        verify(mockedEventHub, times(1)).initializeEventHistory(
+            eq(EventHistoryRetention(maxAgeMS = TimeUnit.DAYS.toMillis(30), maxRowsPerHash = 100))
+        )
+    }
+
+    @Test
+    fun `test initialize without event history retention leaves event history unbounded`() {
+        mobileCoreInitializer.initialize(application, InitOptions.configureWithAppID("appId"), null)
+
+        verify(mockedEventHub, times(1)).initializeEventHistory(eq(EventHistoryRetention.UNBOUNDED))
+    }
+
     @Test
     fun `test initialize calls config with appId`() {
         Mockito.mockStatic(MobileCore::class.java).use { mockedStatic ->
@@ -14,18 +14,21 @@ package com.adobe.marketing.mobile.internal.eventhub
 import com.adobe.marketing.mobile.AdobeCallbackWithError
 import com.adobe.marketing.mobile.AdobeError
 import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventQueueOverflowPolicy
 import com.adobe.marketing.mobile.EventSource
 import com.adobe.marketing.mobile.EventType
 import com.adobe.marketing.mobile.Extension
 import com.adobe.marketing.mobile.ExtensionApi
 import com.adobe.marketing.mobile.LoggingMode
 import com.adobe.marketing.mobile.MobileCore
+import com.adobe.marketing.mobile.SharedStateChange
 import com.adobe.marketing.mobile.SharedStateResolution
 import com.adobe.marketing.mobile.SharedStateResult
 import com.adobe.marketing.mobile.SharedStateStatus
 import com.adobe.marketing.mobile.WrapperType
 import com.adobe.marketing.mobile.internal.CoreConstants
 import com.adobe.marketing.mobile.internal.eventhub.history.EventHistory
+import com.adobe.marketing.mobile.internal.util.SharedWorkerPool
 import com.adobe.marketing.mobile.services.Log
 import io.mockk.every
 import io.mockk.mockk
@@ -53,6 +56,7 @@ import java.util.concurrent.TimeUnit
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertNotNull
+import kotlin.test.assertSame
 import kotlin.test.assertTrue
 import io.mockk.verify as mockkVerify
 
@@ -417,6 +421,84 @@ internal class EventHubTests {
         )
     }
 
+    @Test
+    fun testRegisterSharedStateChangeListener_ReceivesChangedPaths() {
+        val latch = CountDownLatch(2)
+
+        val changes = mutableListOf<SharedStateChange>()
+        val extensionContainer = eventHub.getExtensionContainer(TestExtension::class.java)
+        extensionContainer?.registerSharedStateChangeListener(TestExtension.EXTENSION_NAME) {
+            changes.add(it)
+            latch.countDown()
+        }
+
+        val stateAtEvent1: MutableMap<String, Any?> = mutableMapOf("global" to mapOf("privacy" to "optedin", "ssl" to true))
+        val stateAtEvent2: MutableMap<String, Any?> = mutableMapOf("global" to mapOf("privacy" to "optedout", "ssl" to true))
+        eventHub.start()
+        eventHub.dispatch(event1)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, stateAtEvent1, event1)
+        eventHub.createSharedState(SharedStateType.XDM, TestExtension.EXTENSION_NAME, stateAtEvent1, event1)
+        eventHub.dispatch(event2)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, stateAtEvent2, event2)
+        assertTrue {
+            latch.await(250, TimeUnit.MILLISECONDS)
+        }
+
+        // XDM shared state changes are not delivered to standard shared state listeners
+        assertEquals(2, changes.size)
+        assertEquals(setOf(listOf("global")), changes[0].changedPaths)
+        assertEquals(setOf(listOf("global", "privacy")), changes[1].changedPaths)
+        assertTrue { changes[1].hasChanged("global") }
+        assertTrue { changes[1].hasChanged("global", "privacy") }
+        assertFalse { changes[1].hasChanged("global", "ssl") }
+        assertFalse { changes[1].hasChanged("glob") }
+        assertFalse { changes[1].hasChanged("global.privacy") }
+
+        val sharedStateResult = eventHub.getSharedState(
+            SharedStateType.STANDARD,
+            TestExtension.EXTENSION_NAME,
+            changes[1].event,
+            false,
+            SharedStateResolution.ANY
+        )
+        assertEquals(stateAtEvent2, sharedStateResult?.value)
+    }
+
+    @Test
+    fun testRegisterSharedStateChangeListener_ChangedPathsOnlyForObservedSharedStates() {
+        registerExtension(TestExtension2::class.java)
+        val latch = CountDownLatch(2)
+        val capturedEvents = mutableListOf<Event>()
+        val extensionContainer = eventHub.getExtensionContainer(TestExtension::class.java)
+        extensionContainer?.registerEventListener(EventType.HUB, EventSource.SHARED_STATE) {
+            if (it.eventData?.get(EventHubConstants.EventDataKeys.Configuration.EVENT_STATE_OWNER) != EventHubConstants.NAME) {
+                capturedEvents.add(it)
+                latch.countDown()
+            }
+        }
+        extensionContainer?.registerSharedStateChangeListener(TestExtension2.EXTENSION_NAME) {}
+
+        val state: MutableMap<String, Any?> = mutableMapOf("a.b" to 1, "a" to mapOf("b" to 1))
+        eventHub.start()
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, state, null)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension2.EXTENSION_NAME, state, null)
+        assertTrue {
+            latch.await(250, TimeUnit.MILLISECONDS)
+        }
+
+        assertEquals(
+            mapOf(EventHubConstants.EventDataKeys.Configuration.EVENT_STATE_OWNER to TestExtension.EXTENSION_NAME),
+            capturedEvents[0].eventData
+        )
+        assertEquals(
+            mapOf(
+                EventHubConstants.EventDataKeys.Configuration.EVENT_STATE_OWNER to TestExtension2.EXTENSION_NAME,
+                SharedStateChange.EVENT_DATA_KEY_CHANGED_PATHS to listOf(listOf("a", "b"), listOf("a.b"))
+            ),
+            capturedEvents[1].eventData
+        )
+    }
+
     @Test
     fun testCreateXDMSharedState_DispatchEvent() {
         val latch = CountDownLatch(2)
@@ -1790,6 +1872,41 @@ internal class EventHubTests {
         assertEquals(capturedEvents, listOf<Pair<Event?, AdobeError?>>(Pair(testResponseEvent, null)))
     }
 
+    @Test
+    fun testResponseListener_OnlyMatchingTriggerNotified() {
+        val latch = CountDownLatch(1)
+        val capturedEvents = mutableListOf<Pair<Event?, AdobeError?>>()
+
+        val triggerEvents = (1..10).map { Event.Builder("Test event $it", eventType, eventSource).build() }
+        triggerEvents.forEach { triggerEvent ->
+            eventHub.registerResponseListener(
+                triggerEvent,
+                5000,
+                object : AdobeCallbackWithError<Event> {
+                    override fun call(value: Event?) {
+                        capturedEvents.add(Pair(value, null))
+                        latch.countDown()
+                    }
+
+                    override fun fail(error: AdobeError?) {
+                        capturedEvents.add(Pair(null, error))
+                    }
+                }
+            )
+        }
+
+        val testResponseEvent = Event.Builder("Test response event", eventType, eventSource).inResponseToEvent(triggerEvents[4]).build()
+        eventHub.start()
+        eventHub.dispatch(testResponseEvent)
+        assertTrue {
+            latch.await(250, TimeUnit.MILLISECONDS)
+        }
+
+        assertEquals(capturedEvents, listOf<Pair<Event?, AdobeError?>>(Pair(testResponseEvent, null)))
+        assertNull(eventHub.responseEventListeners[triggerEvents[4].uniqueIdentifier])
+        assertEquals(9, eventHub.responseEventListeners.size)
+    }
+
     @Test
     fun testResponseListenerTimeout() {
         val latch = CountDownLatch(1)
@@ -1873,7 +1990,7 @@ internal class EventHubTests {
 
         Thread.sleep(100)
 
-        val responseListener = eventHub.responseEventListeners.first { it.triggerEventId == testEvent.uniqueIdentifier }
+        val responseListener = eventHub.responseEventListeners[testEvent.uniqueIdentifier]?.first()
         assertNotNull(responseListener)
         assertNull(responseListener.timeoutTask)
     }
@@ -1915,6 +2032,319 @@ internal class EventHubTests {
         }
     }
 
+    // Direct dispatch mode tests
+    @Test
+    fun testDirectDispatch_DeliversEventsInDispatchOrder() {
+        eventHub.shutdown()
+        eventHub = EventHub(EventDispatchMode.DIRECT)
+        registerExtension(TestExtension::class.java)
+
+        val events = (1..100).map { Event.Builder("Event$it", eventType, eventSource).build() }
+        val capturedEvents = mutableListOf<Event>()
+        val latch = CountDownLatch(events.size)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            capturedEvents.add(it)
+            latch.countDown()
+        }
+
+        eventHub.start()
+        events.forEach { eventHub.dispatch(it) }
+
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+        assertEquals(events, capturedEvents)
+    }
+
+    @Test
+    fun testDirectDispatch_SharedStateVersionedAtDispatchedEvent() {
+        eventHub.shutdown()
+        eventHub = EventHub(EventDispatchMode.DIRECT)
+        registerExtension(TestExtension::class.java)
+        eventHub.start()
+
+        val stateAtEvent1: MutableMap<String, Any?> = mutableMapOf("One" to 1)
+        val stateAtEvent3: MutableMap<String, Any?> = mutableMapOf("Three" to 3)
+
+        eventHub.dispatch(event1)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, stateAtEvent1, event1)
+        eventHub.dispatch(event2)
+        eventHub.dispatch(event3)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, stateAtEvent3, event3)
+
+        verifySharedState(SharedStateType.STANDARD, event1, SharedStateResult(SharedStateStatus.SET, stateAtEvent1))
+        verifySharedState(SharedStateType.STANDARD, event2, SharedStateResult(SharedStateStatus.SET, stateAtEvent1))
+        verifySharedState(SharedStateType.STANDARD, event3, SharedStateResult(SharedStateStatus.SET, stateAtEvent3))
+    }
+
+    @Test
+    fun testDirectDispatch_ConcurrentProducersDeliverAllEvents() {
+        eventHub.shutdown()
+        eventHub = EventHub(EventDispatchMode.DIRECT)
+        registerExtension(TestExtension::class.java)
+
+        val producers = 4
+        val eventsPerProducer = 250
+        val capturedEvents = mutableListOf<Event>()
+        val latch = CountDownLatch(producers * eventsPerProducer)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            capturedEvents.add(it)
+            latch.countDown()
+        }
+        eventHub.start()
+
+        val threads = (0 until producers).map { producer ->
+            Thread {
+                repeat(eventsPerProducer) {
+                    eventHub.dispatch(Event.Builder("Producer$producer-$it", eventType, eventSource).build())
+                }
+            }
+        }
+        threads.forEach { it.start() }
+        threads.forEach { it.join() }
+
+        assertTrue { latch.await(2, TimeUnit.SECONDS) }
+        // Events from each producer keep their relative order
+        (0 until producers).forEach { producer ->
+            val names = capturedEvents.map { it.name }.filter { it.startsWith("Producer$producer-") }
+            assertEquals((0 until eventsPerProducer).map { "Producer$producer-$it" }, names)
+        }
+    }
+
+    @Test
+    fun testConfigureShared_AppliesToSharedHubCreatedAfterwards() {
+        val original = EventHub.shared
+        EventHub.resetShared()
+        try {
+            assertTrue(EventHub.configureShared(EventDispatchMode.DIRECT, WorkerThreadMode.SHARED_POOL))
+
+            val shared = EventHub.shared
+            assertEquals(EventDispatchMode.DIRECT, shared.dispatchMode)
+            assertEquals(WorkerThreadMode.SHARED_POOL, shared.workerThreadMode)
+            assertSame(shared, EventHub.shared)
+            shared.shutdown()
+        } finally {
+            EventHub.shared = original
+        }
+    }
+
+    @Test
+    fun testConfigureShared_IgnoredOnceSharedHubIsCreated() {
+        val original = EventHub.shared
+        EventHub.resetShared()
+        try {
+            val shared = EventHub.shared
+
+            assertFalse(EventHub.configureShared(EventDispatchMode.DIRECT, WorkerThreadMode.SHARED_POOL))
+            assertTrue(EventHub.configureShared(EventDispatchMode.SERIALIZED, WorkerThreadMode.DEDICATED))
+            assertSame(shared, EventHub.shared)
+            assertEquals(EventDispatchMode.SERIALIZED, shared.dispatchMode)
+            assertEquals(WorkerThreadMode.DEDICATED, shared.workerThreadMode)
+            shared.shutdown()
+        } finally {
+            EventHub.shared = original
+        }
+    }
+
+    // Event number retirement tests
+    @Test
+    fun testEventNumbers_RetiredAfterAllExtensionsProcessed() {
+        val batchSize = 4 * EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL
+        var latch = CountDownLatch(batchSize)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            latch.countDown()
+        }
+        eventHub.start()
+
+        repeat(batchSize) { eventHub.dispatch(Event.Builder("Event$it", eventType, eventSource).build()) }
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+
+        latch = CountDownLatch(EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL)
+        repeat(EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL) {
+            eventHub.dispatch(Event.Builder("Event$it", eventType, eventSource).build())
+        }
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+
+        assertTrue { eventHub.liveEventNumberCount < batchSize }
+    }
+
+    @Test
+    fun testEventNumbers_NotRetiredWhileExtensionBlocked() {
+        registerExtension(TestExtension_Barrier::class.java)
+        val batchSize = 2 * EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL
+        val events = (0 until batchSize).map { Event.Builder("Event$it", eventType, eventSource).build() }
+        TestExtension_Barrier.BARRIER_EVENT = events[0]
+
+        val latch = CountDownLatch(batchSize)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            latch.countDown()
+        }
+        eventHub.start()
+
+        events.forEach { eventHub.dispatch(it) }
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+
+        // TestExtension_Barrier never processes events[0], so every event number remains queryable
+        assertTrue { eventHub.liveEventNumberCount >= batchSize }
+    }
+
+    // Dispatches enough events after the returned event for its event number to be retired
+    private fun dispatchRetiredEvent(): Event {
+        val batchSize = 4 * EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL
+        val events = (0 until batchSize).map { Event.Builder("Event$it", eventType, eventSource).build() }
+        var latch = CountDownLatch(batchSize)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            latch.countDown()
+        }
+        eventHub.start()
+
+        events.forEach { eventHub.dispatch(it) }
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+
+        // Retirement runs on dispatch, so dispatch more events once the batch has been processed
+        latch = CountDownLatch(EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL)
+        repeat(EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL) {
+            eventHub.dispatch(Event.Builder("Event$it", eventType, eventSource).build())
+        }
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+
+        // Numbers are retired in order, so the first event of the batch is retired along with any other
+        assertTrue { eventHub.liveEventNumberCount < batchSize }
+        return events[0]
+    }
+
+    @Test
+    fun testEventNumbers_GetSharedStateWithRetiredEvent() {
+        val state: MutableMap<String, Any?> = mutableMapOf("One" to 1)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, state, null)
+
+        val retiredEvent = dispatchRetiredEvent()
+
+        verifySharedState(SharedStateType.STANDARD, retiredEvent, SharedStateResult(SharedStateStatus.SET, state))
+        verifySharedState(
+            SharedStateType.STANDARD,
+            retiredEvent,
+            SharedStateResult(SharedStateStatus.SET, state),
+            barrier = true
+        )
+        verifySharedState(
+            SharedStateType.STANDARD,
+            retiredEvent,
+            SharedStateResult(SharedStateStatus.SET, state),
+            SharedStateResolution.LAST_SET,
+            barrier = true
+        )
+    }
+
+    @Test
+    fun testEventNumbers_CompactionKeepsSharedStateOfRetiredEvent() {
+        val stateAtRetiredEvent: MutableMap<String, Any?> = mutableMapOf("One" to 1)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, stateAtRetiredEvent, null)
+        val retiredEvent = dispatchRetiredEvent()
+
+        val laterEvent = Event.Builder("Later", eventType, eventSource).build()
+        eventHub.dispatch(laterEvent)
+        val laterState: MutableMap<String, Any?> = mutableMapOf("Two" to 2)
+        eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, laterState, laterEvent)
+
+        // Retire and compact twice more, past the version of the later state
+        repeat(2) { round ->
+            val batchSource = "Batch$round"
+            val batchSize = 2 * EventHubConstants.EVENT_NUMBER_RETIRE_INTERVAL
+            val latch = CountDownLatch(batchSize)
+            eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, batchSource) {
+                latch.countDown()
+            }
+            repeat(batchSize) { eventHub.dispatch(Event.Builder("Event$it", eventType, batchSource).build()) }
+            assertTrue { latch.await(1, TimeUnit.SECONDS) }
+        }
+
+        verifySharedState(SharedStateType.STANDARD, retiredEvent, SharedStateResult(SharedStateStatus.SET, stateAtRetiredEvent))
+        verifySharedState(
+            SharedStateType.STANDARD,
+            retiredEvent,
+            SharedStateResult(SharedStateStatus.SET, stateAtRetiredEvent),
+            SharedStateResolution.LAST_SET
+        )
+        verifySharedState(SharedStateType.STANDARD, null, SharedStateResult(SharedStateStatus.SET, laterState))
+    }
+
+    @Test
+    fun testEventNumbers_CreateSharedStateWithRetiredEvent() {
+        val retiredEvent = dispatchRetiredEvent()
+
+        val state: MutableMap<String, Any?> = mutableMapOf("One" to 1)
+        assertTrue {
+            eventHub.createSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, state, retiredEvent)
+        }
+
+        verifySharedState(SharedStateType.STANDARD, retiredEvent, SharedStateResult(SharedStateStatus.SET, state))
+        verifySharedState(
+            SharedStateType.STANDARD,
+            retiredEvent,
+            SharedStateResult(SharedStateStatus.SET, state),
+            barrier = true
+        )
+        verifySharedState(SharedStateType.STANDARD, null, SharedStateResult(SharedStateStatus.SET, state))
+    }
+
+    @Test
+    fun testEventNumbers_CreatePendingSharedStateWithRetiredEvent() {
+        val retiredEvent = dispatchRetiredEvent()
+
+        val resolver = eventHub.createPendingSharedState(SharedStateType.STANDARD, TestExtension.EXTENSION_NAME, retiredEvent)
+        assertNotNull(resolver)
+        verifySharedState(SharedStateType.STANDARD, retiredEvent, SharedStateResult(SharedStateStatus.PENDING, null))
+
+        val state: MutableMap<String, Any?> = mutableMapOf("One" to 1)
+        resolver?.resolve(state)
+        verifySharedState(
+            SharedStateType.STANDARD,
+            retiredEvent,
+            SharedStateResult(SharedStateStatus.SET, state),
+            barrier = true
+        )
+    }
+
+    // Event queue limit tests
+    @Test
+    fun testEventQueueLimit_DropsOldestWaitingEventsWhileExtensionIsBlocked() {
+        registerExtension(TestExtension_Barrier::class.java)
+        val events = (0 until 6).map { Event.Builder("Event$it", eventType, eventSource).build() }
+        TestExtension_Barrier.BARRIER_EVENT = events[0]
+
+        val capturedEvents = mutableListOf<Event>()
+        val latch = CountDownLatch(3)
+        val container = eventHub.getExtensionContainer(TestExtension_Barrier::class.java)
+        container?.registerEventListener(eventType, eventSource) {
+            capturedEvents.add(it)
+            latch.countDown()
+        }
+        eventHub.start()
+
+        // Wait until the EventHub shared state event is processed and the first event is blocked
+        eventHub.dispatch(events[0])
+        val deadline = System.currentTimeMillis() + 1000
+        while (container?.lastProcessedEvent == null || container.eventProcessor.getQueueDepth() != 1) {
+            assertTrue(System.currentTimeMillis() < deadline)
+            Thread.sleep(10)
+        }
+
+        eventHub.setEventQueueLimit(
+            TestExtension_Barrier::class.java,
+            EventQueueLimit(3, EventQueueOverflowPolicy.DROP_OLDEST)
+        )
+        events.drop(1).forEach { eventHub.dispatch(it) }
+        assertFalse { latch.await(100, TimeUnit.MILLISECONDS) }
+        assertEquals(3, container?.eventProcessor?.droppedItemCount)
+
+        // Release the barrier and retry the blocked event
+        TestExtension_Barrier.BARRIER_EVENT = null
+        container?.eventProcessor?.resume()
+
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+        // The blocked event at the front of the queue is never dropped
+        assertEquals(listOf(events[0], events[4], events[5]), capturedEvents)
+    }
+
     // WrapperType Tests
     @Test
     fun testDefaultWrapperType() {
@@ -1969,6 +2399,47 @@ internal class EventHubTests {
         )
     }
 
+    // Shared worker pool tests
+    @Test
+    fun testSharedWorkerPool_DeliversEventsInOrderToEachExtension() {
+        eventHub.shutdown()
+        eventHub = EventHub(workerThreadMode = WorkerThreadMode.SHARED_POOL)
+        registerExtension(TestExtension::class.java)
+        registerExtension(TestExtension2::class.java)
+
+        val events = (1..100).map { Event.Builder("Event$it", eventType, eventSource).build() }
+        val capturedEvents1 = mutableListOf<Event>()
+        val capturedEvents2 = mutableListOf<Event>()
+        val latch = CountDownLatch(events.size * 2)
+        eventHub.getExtensionContainer(TestExtension::class.java)?.registerEventListener(eventType, eventSource) {
+            capturedEvents1.add(it)
+            latch.countDown()
+        }
+        eventHub.getExtensionContainer(TestExtension2::class.java)?.registerEventListener(eventType, eventSource) {
+            capturedEvents2.add(it)
+            latch.countDown()
+        }
+
+        eventHub.start()
+        events.forEach { eventHub.dispatch(it) }
+
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+        assertEquals(events, capturedEvents1)
+        assertEquals(events, capturedEvents2)
+        assertTrue { SharedWorkerPool.largestThreadCount <= Runtime.getRuntime().availableProcessors().coerceIn(2, 4) }
+    }
+
+    @Test
+    fun testSharedWorkerPool_UnregisterExtension() {
+        eventHub.shutdown()
+        eventHub = EventHub(workerThreadMode = WorkerThreadMode.SHARED_POOL)
+        registerExtension(TestExtension::class.java)
+        eventHub.start()
+
+        assertEquals(EventHubError.None, unregisterExtension(TestExtension::class.java))
+        assertNull(eventHub.getExtensionContainer(TestExtension::class.java))
+    }
+
     // Preprocessor tests
     @Test
     fun testPreprocessor_HandlesEvents() {
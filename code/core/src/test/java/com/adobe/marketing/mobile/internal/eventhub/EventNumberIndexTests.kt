@@ -0,0 +1,114 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+internal class EventNumberIndexTests {
+
+    private val index = EventNumberIndex()
+
+    @Test
+    fun testPutAndGet() {
+        index.put("id1", 1)
+        index.put("id2", 2)
+
+        assertEquals(1, index["id1"])
+        assertEquals(2, index["id2"])
+        assertNull(index["unknown"])
+        assertEquals(2, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_RemovesOlderEntries() {
+        (1..10).forEach { index.put("id$it", it) }
+
+        assertEquals(4, index.retireBelow(5))
+
+        (5..10).forEach { assertEquals(it, index["id$it"]) }
+        assertEquals(6, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_RetiredEntriesResolveToWatermark() {
+        val ids = (1..10).map { "id$it" }
+        ids.forEachIndexed { index, id -> this.index.put(id, index + 1) }
+
+        assertEquals(4, index.retireBelow(5))
+        assertEquals(3, index.retireBelow(8))
+
+        (0..3).forEach { assertEquals(5, index[ids[it]]) }
+        (4..6).forEach { assertEquals(8, index[ids[it]]) }
+        (7..9).forEach { assertEquals(it + 1, index[ids[it]]) }
+        assertEquals(3, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_RetiredEntriesResolveByIdValue() {
+        index.put("id1", 1)
+        index.put("id2", 2)
+
+        index.retireBelow(2)
+
+        assertEquals(2, index[String("id1".toCharArray())])
+    }
+
+    @Test
+    fun testRetireBelow_EvictsEldestRetiredEntriesBeyondCapacity() {
+        val index = EventNumberIndex(retiredCapacity = 4)
+        (1..10).forEach { index.put("id$it", it) }
+        assertEquals(Int.MAX_VALUE, index.lowestFloor)
+
+        index.retireBelow(3)
+        assertEquals(3, index.lowestFloor)
+        index.retireBelow(8)
+
+        (1..3).forEach { assertNull(index["id$it"]) }
+        (4..7).forEach { assertEquals(8, index["id$it"]) }
+        assertEquals(8, index.lowestFloor)
+        assertEquals(3, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_SkipsNumbersWithoutEvents() {
+        index.put("id1", 1)
+        // 2 and 3 are shared state versions
+        index.put("id4", 4)
+
+        assertEquals(2, index.retireBelow(5))
+        assertEquals(0, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_IsIncremental() {
+        (1..10).forEach { index.put("id$it", it) }
+
+        assertEquals(3, index.retireBelow(4))
+        assertEquals(0, index.retireBelow(4))
+        assertEquals(0, index.retireBelow(2))
+        assertEquals(3, index.retireBelow(7))
+        assertEquals(4, index.size)
+    }
+
+    @Test
+    fun testRetireBelow_KeepsRedispatchedEvent() {
+        index.put("id1", 1)
+        index.put("id2", 2)
+        index.put("id1", 3)
+
+        assertEquals(1, index.retireBelow(3))
+        assertEquals(3, index["id1"])
+        assertEquals(1, index.size)
+    }
+}
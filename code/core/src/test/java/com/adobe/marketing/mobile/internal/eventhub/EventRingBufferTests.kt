@@ -0,0 +1,225 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import com.adobe.marketing.mobile.Event
+import org.junit.Test
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+internal class EventRingBufferTests {
+
+    private fun event(name: String): Event = Event.Builder(name, "Type", "Source").build()
+
+    @Test
+    fun testCapacityMustBePowerOfTwo() {
+        assertFailsWith<IllegalArgumentException> { EventRingBuffer(0) }
+        assertFailsWith<IllegalArgumentException> { EventRingBuffer(12) }
+    }
+
+    @Test
+    fun testEmptyQueue() {
+        val queue = EventRingBuffer(4)
+        assertNull(queue.peek())
+        assertNull(queue.poll())
+        assertEquals(0, queue.size)
+        assertEquals(0, queue.lastEventNumber)
+    }
+
+    @Test
+    fun testOfferAndPoll_PreservesOrder() {
+        val queue = EventRingBuffer(4)
+        val events = (1..3).map { event("Event$it") }
+        events.forEach { queue.offer(it) }
+
+        assertEquals(3, queue.lastEventNumber)
+        assertSame(events[0], queue.peek())
+        assertSame(events[0], queue.poll())
+        assertSame(events[1], queue.poll())
+        assertSame(events[2], queue.poll())
+        assertNull(queue.poll())
+    }
+
+    @Test
+    fun testPublishOutOfOrder_DeliveredInClaimOrder() {
+        val queue = EventRingBuffer(4)
+        val event1 = event("Event1")
+        val event2 = event("Event2")
+
+        val number1 = queue.claim()
+        val number2 = queue.claim()
+        queue.publish(number2, event2)
+
+        // Event2 is held back until Event1 is published
+        assertNull(queue.peek())
+
+        queue.publish(number1, event1)
+        assertSame(event1, queue.poll())
+        assertSame(event2, queue.poll())
+    }
+
+    @Test
+    fun testReservedNumbersAreSkipped() {
+        val queue = EventRingBuffer(4)
+        val event1 = event("Event1")
+        val event2 = event("Event2")
+
+        queue.offer(event1)
+        assertEquals(2, queue.reserve())
+        queue.offer(event2)
+
+        assertSame(event1, queue.poll())
+        assertSame(event2, queue.poll())
+        assertNull(queue.poll())
+        assertEquals(3, queue.lastEventNumber)
+    }
+
+    @Test
+    fun testPeek_SkipsReservedNumbersWithoutConsumingThem() {
+        val queue = EventRingBuffer(4)
+        val event = event("Event")
+
+        queue.reserve()
+        queue.reserve()
+        queue.offer(event)
+
+        assertSame(event, queue.peek())
+        assertSame(event, queue.peek())
+        assertEquals(3, queue.size)
+        assertSame(event, queue.poll())
+        assertEquals(0, queue.size)
+    }
+
+    @Test
+    fun testPeekFromOtherThread_DoesNotDisturbConsumer() {
+        val eventCount = 10000
+        val queue = EventRingBuffer(16)
+        val events = (1..eventCount).map { event("Event$it") }
+        val done = AtomicBoolean(false)
+        val peeker = Executors.newSingleThreadExecutor()
+        peeker.submit {
+            while (!done.get()) {
+                queue.peek()
+            }
+        }
+
+        events.forEachIndexed { index, event ->
+            queue.reserve()
+            queue.offer(event)
+            if (index % 2 == 0) {
+                queue.reserve()
+            }
+        }
+
+        events.forEach { assertSame(it, queue.poll()) }
+        assertNull(queue.poll())
+        assertEquals(0, queue.size)
+        done.set(true)
+        peeker.shutdown()
+    }
+
+    @Test
+    fun testIterator_ReturnsSnapshotWithoutConsuming() {
+        val queue = EventRingBuffer(4)
+        val events = (1..6).map { event("Event$it") }
+        queue.reserve()
+        events.forEach { queue.offer(it) }
+        val unpublished = queue.claim()
+        val late = event("Late")
+        queue.offer(late)
+
+        assertEquals(events, queue.iterator().asSequence().toList())
+        assertTrue(queue.contains(events[5]))
+        assertFalse(queue.contains(late))
+        assertTrue(queue.toString().contains(events[0].uniqueIdentifier))
+        assertEquals(9, queue.size)
+
+        queue.publish(unpublished, event("Unpublished"))
+        assertEquals(8, queue.iterator().asSequence().count())
+        events.forEach { assertSame(it, queue.poll()) }
+        assertEquals(listOf("Unpublished", "Late"), queue.map { it.name })
+    }
+
+    @Test
+    fun testIterator_DoesNotSupportRemoval() {
+        val queue = EventRingBuffer(4)
+        val event = event("Event")
+        queue.offer(event)
+
+        assertFailsWith<UnsupportedOperationException> { queue.remove(event) }
+        assertFailsWith<UnsupportedOperationException> {
+            val iterator = queue.iterator()
+            iterator.next()
+            iterator.remove()
+        }
+        assertSame(event, queue.poll())
+    }
+
+    @Test
+    fun testOverflowBeyondCapacity_PreservesOrder() {
+        val queue = EventRingBuffer(4)
+        val events = (1..10).map { event("Event$it") }
+        events.forEach { queue.offer(it) }
+        assertEquals(10, queue.size)
+        assertEquals(6, queue.overflowSize)
+
+        events.forEach { assertSame(it, queue.poll()) }
+        assertNull(queue.poll())
+        assertEquals(0, queue.size)
+        assertEquals(0, queue.overflowSize)
+    }
+
+    @Test
+    fun testConcurrentProducers_DeliveredInEventNumberOrder() {
+        val producers = 4
+        val eventsPerProducer = 1000
+        val queue = EventRingBuffer(64)
+        val numbers = ConcurrentHashMap<String, Int>()
+        val executor = Executors.newFixedThreadPool(producers)
+        val latch = CountDownLatch(producers)
+
+        repeat(producers) { producer ->
+            executor.submit {
+                repeat(eventsPerProducer) {
+                    val event = event("Producer$producer-$it")
+                    val number = queue.claim()
+                    numbers[event.uniqueIdentifier] = number
+                    queue.publish(number, event)
+                }
+                latch.countDown()
+            }
+        }
+
+        var lastNumber = 0
+        var consumed = 0
+        while (consumed < producers * eventsPerProducer) {
+            val event = queue.poll() ?: continue
+            val number = numbers[event.uniqueIdentifier] ?: error("Missing event number")
+            assertEquals(lastNumber + 1, number)
+            lastNumber = number
+            consumed++
+        }
+
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+        assertNull(queue.poll())
+        executor.shutdown()
+    }
+}
@@ -0,0 +1,93 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub
+
+import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventSource
+import com.adobe.marketing.mobile.EventType
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class ExtensionListenerIndexTests {
+
+    private fun listener(eventType: String, eventSource: String) = ExtensionListenerContainer(eventType, eventSource) {}
+
+    @Test
+    fun testEmptyIndex() {
+        val event = Event.Builder("Test event", "eventtype", "eventsource").build()
+        assertTrue { ExtensionListenerIndex.EMPTY.listenersFor(event).isEmpty() }
+    }
+
+    @Test
+    fun testMatchingTypeSource_IgnoresCase() {
+        val matching = listener("EventType", "EventSource")
+        val other = listener("eventtype", "othersource")
+        val index = ExtensionListenerIndex.EMPTY + matching + other
+
+        val event = Event.Builder("Test event", "eventType", "eventSOURCE").build()
+        assertEquals(listOf(matching), index.listenersFor(event))
+    }
+
+    @Test
+    fun testUnmatchedEvent_OnlyWildcardListeners() {
+        val wildcard = listener(EventType.WILDCARD, EventSource.WILDCARD)
+        val index = ExtensionListenerIndex.EMPTY + listener("eventtype", "eventsource") + wildcard
+
+        val event = Event.Builder("Test event", "othertype", "eventsource").build()
+        assertEquals(listOf(wildcard), index.listenersFor(event))
+    }
+
+    @Test
+    fun testResponseEvent_OnlyWildcardListeners() {
+        val wildcard = listener(EventType.WILDCARD, EventSource.WILDCARD)
+        val index = ExtensionListenerIndex.EMPTY + listener("eventtype", "eventsource") + wildcard
+
+        val trigger = Event.Builder("Trigger event", "eventtype", "eventsource").build()
+        val response = Event.Builder("Response event", "eventtype", "eventsource").inResponseToEvent(trigger).build()
+        assertEquals(listOf(wildcard), index.listenersFor(response))
+    }
+
+    @Test
+    fun testPartialWildcard_IsNotWildcardListener() {
+        val partial = listener(EventType.WILDCARD, "eventsource")
+        val index = ExtensionListenerIndex.EMPTY + partial
+
+        val event = Event.Builder("Test event", "eventtype", "eventsource").build()
+        assertTrue { index.listenersFor(event).isEmpty() }
+
+        val wildcardTypeEvent = Event.Builder("Test event", EventType.WILDCARD, "eventsource").build()
+        assertEquals(listOf(partial), index.listenersFor(wildcardTypeEvent))
+    }
+
+    @Test
+    fun testListeners_NotifiedInRegistrationOrder() {
+        val wildcard1 = listener(EventType.WILDCARD, EventSource.WILDCARD)
+        val matching1 = listener("eventtype", "eventsource")
+        val wildcard2 = listener(EventType.WILDCARD, EventSource.WILDCARD)
+        val matching2 = listener("EVENTTYPE", "EVENTSOURCE")
+        val index = ExtensionListenerIndex.EMPTY + wildcard1 + matching1 + wildcard2 + matching2
+
+        val event = Event.Builder("Test event", "eventtype", "eventsource").build()
+        assertEquals(listOf(wildcard1, matching1, wildcard2, matching2), index.listenersFor(event))
+    }
+
+    @Test
+    fun testPlus_DoesNotModifyExistingIndex() {
+        val matching = listener("eventtype", "eventsource")
+        val index = ExtensionListenerIndex.EMPTY + matching
+        index + listener(EventType.WILDCARD, EventSource.WILDCARD)
+
+        val event = Event.Builder("Test event", "eventtype", "eventsource").build()
+        assertEquals(listOf(matching), index.listenersFor(event))
+    }
+}
@@ -15,6 +15,9 @@ import com.adobe.marketing.mobile.SharedStateResult
 import com.adobe.marketing.mobile.SharedStateStatus
 import org.junit.Before
 import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertTrue
@@ -233,4 +236,116 @@ internal class SharedStateManagerTests {
         sharedStateManager.clear()
         assertResult(sharedStateManager.resolve(1), SharedStateResult(SharedStateStatus.NONE, null))
     }
+
+    @Test
+    fun testCompact_DropsVersionsBelowWatermark() {
+        assertTrue { sharedStateManager.setState(1, STATE_ONE) }
+        assertTrue { sharedStateManager.setState(2, STATE_TWO) }
+        assertTrue { sharedStateManager.setState(3, STATE_THREE) }
+        assertTrue { sharedStateManager.setState(5, STATE_FIVE) }
+
+        assertEquals(2, sharedStateManager.compact(4))
+
+        assertEquals(2, sharedStateManager.retainedVersionCount)
+        assertResult(sharedStateManager.resolve(4), SharedStateResult(SharedStateStatus.SET, STATE_THREE))
+        assertResult(sharedStateManager.resolve(5), SharedStateResult(SharedStateStatus.SET, STATE_FIVE))
+        assertFalse { sharedStateManager.setState(4, STATE_FOUR) }
+    }
+
+    @Test
+    fun testCompact_KeepsLastSetBeforePendingAtWatermark() {
+        assertTrue { sharedStateManager.setState(1, STATE_ONE) }
+        assertTrue { sharedStateManager.setState(2, STATE_TWO) }
+        assertTrue { sharedStateManager.setPendingState(3) }
+
+        assertEquals(1, sharedStateManager.compact(4))
+
+        assertResult(sharedStateManager.resolve(4), SharedStateResult(SharedStateStatus.PENDING, STATE_TWO))
+        assertResult(sharedStateManager.resolveLastSet(4), SharedStateResult(SharedStateStatus.SET, STATE_TWO))
+        assertTrue { sharedStateManager.updatePendingState(3, STATE_THREE) }
+        assertResult(sharedStateManager.resolve(4), SharedStateResult(SharedStateStatus.SET, STATE_THREE))
+    }
+
+    @Test
+    fun testCompact_KeepsPendingVersionsBelowWatermark() {
+        assertTrue { sharedStateManager.setPendingState(1) }
+        assertTrue { sharedStateManager.setState(2, STATE_TWO) }
+
+        assertEquals(0, sharedStateManager.compact(3))
+
+        assertTrue { sharedStateManager.updatePendingState(1, STATE_ONE) }
+        assertResult(sharedStateManager.resolve(3), SharedStateResult(SharedStateStatus.SET, STATE_TWO))
+    }
+
+    @Test
+    fun testCompact_CollapsesEqualVersions() {
+        assertTrue { sharedStateManager.setState(1, STATE_ONE) }
+        assertTrue { sharedStateManager.setState(2, mapOf("ONE" to 1)) }
+        assertTrue { sharedStateManager.setState(3, STATE_TWO) }
+        assertTrue { sharedStateManager.setState(4, mapOf("TWO" to 2)) }
+
+        // Version 4 is the latest and is kept so older versions remain rejected
+        assertEquals(1, sharedStateManager.compact(1))
+
+        assertEquals(3, sharedStateManager.retainedVersionCount)
+        assertResult(sharedStateManager.resolve(2), SharedStateResult(SharedStateStatus.SET, STATE_ONE))
+        assertResult(sharedStateManager.resolve(3), SharedStateResult(SharedStateStatus.SET, STATE_TWO))
+        assertFalse { sharedStateManager.setState(3, STATE_THREE) }
+    }
+
+    @Test
+    fun testCompact_NoSetVersionAtWatermark() {
+        assertTrue { sharedStateManager.setState(5, STATE_FIVE) }
+
+        assertEquals(0, sharedStateManager.compact(4))
+        assertEquals(0, SharedStateManager("Empty").compact(4))
+        assertEquals(1, sharedStateManager.retainedVersionCount)
+    }
+
+    @Test
+    fun testEstimateRetainedBytes_CountsSharedDataOnce() {
+        assertEquals(0L, sharedStateManager.estimateRetainedBytes())
+
+        assertTrue { sharedStateManager.setState(1, STATE_ONE) }
+        val oneVersion = sharedStateManager.estimateRetainedBytes()
+        assertTrue { oneVersion > 0 }
+
+        assertTrue { sharedStateManager.setState(2, STATE_ONE) }
+        assertEquals(oneVersion, sharedStateManager.estimateRetainedBytes())
+
+        assertTrue { sharedStateManager.setState(3, STATE_TWO) }
+        assertTrue { sharedStateManager.estimateRetainedBytes() > oneVersion }
+    }
+
+    @Test
+    fun testResolve_ConcurrentWithWrites() {
+        val versions = 1000
+        val readers = 4
+        val failures = AtomicInteger(0)
+        val done = CountDownLatch(readers)
+
+        val readerThreads = (0 until readers).map {
+            Thread {
+                var lastSeen = -1
+                while (lastSeen < versions - 1) {
+                    val result = sharedStateManager.resolve(SharedStateManager.VERSION_LATEST)
+                    val version = (result.value?.get("version") as? Int) ?: continue
+                    // Readers observe versions in publication order with matching status
+                    if (version < lastSeen || result.status != SharedStateStatus.SET) {
+                        failures.incrementAndGet()
+                    }
+                    lastSeen = version
+                }
+                done.countDown()
+            }
+        }
+        readerThreads.forEach { it.start() }
+
+        for (version in 0 until versions) {
+            assertTrue { sharedStateManager.setState(version, mapOf("version" to version)) }
+        }
+
+        assertTrue { done.await(5, TimeUnit.SECONDS) }
+        assertEquals(0, failures.get())
+    }
 }
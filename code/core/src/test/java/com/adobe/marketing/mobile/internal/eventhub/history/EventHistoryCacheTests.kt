@@ -0,0 +1,97 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.eventhub.history
+
+import com.adobe.marketing.mobile.EventHistoryResult
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+internal class EventHistoryCacheTests {
+
+    private val cache = EventHistoryCache(bucketSizeMS = 100, maxHashes = 2)
+
+    @Test
+    fun testQuery_UncachedHash() {
+        assertNull(cache.query(1, 0, Long.MAX_VALUE))
+        cache.record(1, 10)
+        assertFalse(cache.contains(1))
+    }
+
+    @Test
+    fun testQuery_FullRange() {
+        cache.load(1, listOf(EventHistoryBucket(0, 2, 10, 90), EventHistoryBucket(3, 1, 350, 350)))
+        cache.record(1, 420)
+
+        assertEquals(EventHistoryResult(4, 10, 420), cache.query(1, 0, Long.MAX_VALUE))
+        assertEquals(EventHistoryResult(0), cache.query(1, 500, 1000))
+        assertEquals(EventHistoryResult(0), cache.query(1, 100, 0))
+    }
+
+    @Test
+    fun testQuery_RangeAlignedWithBuckets() {
+        cache.load(1, listOf(EventHistoryBucket(0, 2, 10, 90), EventHistoryBucket(3, 1, 350, 350)))
+
+        assertEquals(EventHistoryResult(1, 350, 350), cache.query(1, 95, 400))
+        assertEquals(EventHistoryResult(2, 10, 90), cache.query(1, 0, 349))
+    }
+
+    @Test
+    fun testQuery_RangeSplittingBucket() {
+        cache.load(1, listOf(EventHistoryBucket(0, 2, 10, 90)))
+
+        assertNull(cache.query(1, 50, 1000))
+        assertNull(cache.query(1, 0, 50))
+    }
+
+    @Test
+    fun testDelete_RemovesWholeBuckets() {
+        cache.load(1, listOf(EventHistoryBucket(0, 2, 10, 90), EventHistoryBucket(3, 1, 350, 350)))
+
+        cache.delete(1, 0, 100)
+
+        assertEquals(EventHistoryResult(1, 350, 350), cache.query(1, 0, Long.MAX_VALUE))
+    }
+
+    @Test
+    fun testDelete_SplittingBucketInvalidatesHash() {
+        cache.load(1, listOf(EventHistoryBucket(0, 2, 10, 90)))
+
+        cache.delete(1, 0, 50)
+
+        assertFalse(cache.contains(1))
+    }
+
+    @Test
+    fun testInvalidate() {
+        cache.load(1, emptyList())
+        assertEquals(EventHistoryResult(0), cache.query(1, 0, Long.MAX_VALUE))
+
+        cache.invalidate(1)
+
+        assertNull(cache.query(1, 0, Long.MAX_VALUE))
+    }
+
+    @Test
+    fun testLeastRecentlyUsedHashEvicted() {
+        cache.load(1, emptyList())
+        cache.load(2, emptyList())
+        cache.query(1, 0, Long.MAX_VALUE)
+        cache.load(3, emptyList())
+
+        assertTrue(cache.contains(1))
+        assertFalse(cache.contains(2))
+        assertTrue(cache.contains(3))
+    }
+}
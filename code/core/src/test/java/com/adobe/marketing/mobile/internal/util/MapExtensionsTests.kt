@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.internal.util
 
 import org.junit.Test
+import kotlin.random.Random
 import kotlin.test.assertEquals
 import kotlin.test.assertFalse
 import kotlin.test.assertTrue
@@ -685,6 +686,66 @@ class MapExtensionsTests {
         assertEquals(2933724447, hashCode)
     }
 
+    @Test
+    fun `test fnv1a32 - masked nested paths`() {
+        val eventData = mapOf(
+            "a" to mapOf("b" to "1", "list" to listOf("x", mapOf("y" to "z"))),
+            "a.b" to "2",
+            "emoji" to "\uD83D\uDE00",
+            "empty" to ""
+        )
+        val masks = arrayOf("a.list.1.y", "emoji", "a.b", "empty", "a.list.01")
+        assertEquals(referenceMaskedFnv1a32(eventData, masks), eventData.fnv1a32(masks))
+    }
+
+    @Test
+    fun `test fnv1a32 and getFlattenedValue - match flattened map for random data`() {
+        val random = Random(19)
+        val keys = arrayOf("a", "b", "a.b", "b.c", "", "0", "1", "a.0", "01", "\u00e9", "\uD83D\uDE00")
+        val leaves = arrayOf<Any?>("v", "", "\uD800x", "\u00fc\u4e2d", 1, 2.5, true, null, emptyMap<String, Any?>(), mapOf(1 to "n"))
+
+        fun randomPath(): String = (0..random.nextInt(3)).joinToString(".") { keys[random.nextInt(keys.size)] }
+        fun randomValue(depth: Int): Any? = when (if (depth > 3) 0 else random.nextInt(4)) {
+            0 -> leaves[random.nextInt(leaves.size)]
+            1 -> (0 until random.nextInt(4)).associate { keys[random.nextInt(keys.size)] to randomValue(depth + 1) }
+            2 -> (0 until random.nextInt(3)).map { randomValue(depth + 1) }
+            else -> (0 until random.nextInt(3)).map { randomValue(depth + 1) }.toTypedArray()
+        }
+
+        repeat(10_000) {
+            val eventData = (0 until random.nextInt(5)).associate { keys[random.nextInt(keys.size)] to randomValue(0) }
+            val flattenedMap = eventData.flattening()
+            val flattenedKeys = flattenedMap.keys.toList()
+            val masks = Array(random.nextInt(5)) {
+                if (flattenedKeys.isNotEmpty() && random.nextBoolean()) flattenedKeys.random(random) else randomPath()
+            }
+
+            masks.forEach { mask ->
+                assertEquals(flattenedMap[mask], eventData.getFlattenedValue(mask), "Value mismatch for $eventData at $mask")
+            }
+            assertEquals(
+                referenceMaskedFnv1a32(eventData, masks),
+                eventData.fnv1a32(masks),
+                "Hash mismatch for $eventData with masks ${masks.contentToString()}"
+            )
+        }
+    }
+
+    /**
+     * The masked hash as computed before hashing was streamed, over the flattened map.
+     */
+    private fun referenceMaskedFnv1a32(eventData: Map<String, Any?>, masks: Array<String>): Long {
+        val flattenedMap = eventData.flattening()
+        val kvPairs = StringBuilder()
+        masks.sortedArray().forEach { mask ->
+            val value = flattenedMap[mask]
+            if (mask.isNotEmpty() && value != null && !(value is String && value.isEmpty())) {
+                kvPairs.append(mask).append(":").append(value.toString())
+            }
+        }
+        return kvPairs.toString().fnv1a32()
+    }
+
     @Test
     fun `test prettify map`() {
         val data = mapOf(
@@ -700,4 +761,44 @@ class MapExtensionsTests {
 }"""
         assertEquals(expected, data.prettify())
     }
+
+    @Test
+    fun `test changedPaths reports nested changes`() {
+        val shared = mapOf("unchanged" to listOf(1, 2))
+        val previous = mapOf(
+            "global" to mapOf("privacy" to "optedin", "ssl" to true),
+            "removed" to "value",
+            "list" to listOf(1, 2),
+            "shared" to shared,
+            "nullValue" to null
+        )
+        val current = mapOf(
+            "global" to mapOf("privacy" to "optedout", "ssl" to true),
+            "added" to mapOf("key" to "value"),
+            "list" to listOf(1, 3),
+            "shared" to shared
+        )
+
+        assertEquals(
+            listOf(listOf("added"), listOf("global", "privacy"), listOf("list"), listOf("nullValue"), listOf("removed")),
+            current.changedPaths(previous)
+        )
+    }
+
+    @Test
+    fun `test changedPaths keeps keys containing dots apart from nested keys`() {
+        val previous = mapOf("a.b" to 1, "a" to mapOf("b" to 1))
+        val current = mapOf("a.b" to 2, "a" to mapOf("b" to 1))
+
+        assertEquals(listOf(listOf("a.b")), current.changedPaths(previous))
+    }
+
+    @Test
+    fun `test changedPaths without previous map`() {
+        val current = mapOf("a" to mapOf("b" to 1), "c" to 2)
+
+        assertEquals(listOf(listOf("a"), listOf("c")), current.changedPaths(null))
+        assertEquals(emptyList(), current.changedPaths(current))
+        assertEquals(emptyList(), (null as Map<String, Any?>?).changedPaths(null))
+    }
 }
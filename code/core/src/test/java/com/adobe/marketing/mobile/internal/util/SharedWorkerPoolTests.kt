@@ -0,0 +1,51 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.util
+
+import org.junit.Test
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertTrue
+
+internal class SharedWorkerPoolTests {
+
+    @Test
+    fun testBlockedStrandsDoNotStarveOtherStrands() {
+        val blockedStrands = (1..16).map { SharedWorkerPool.newStrand("blocked$it") }
+        val release = CountDownLatch(1)
+        val blocked = CountDownLatch(blockedStrands.size)
+        val released = CountDownLatch(blockedStrands.size)
+
+        try {
+            blockedStrands.forEach {
+                it.execute {
+                    blocked.countDown()
+                    release.await()
+                    released.countDown()
+                }
+            }
+            assertTrue { blocked.await(1, TimeUnit.SECONDS) }
+
+            val strand = SharedWorkerPool.newStrand("strand")
+            val ran = CountDownLatch(1)
+            strand.execute { ran.countDown() }
+
+            assertTrue { ran.await(1, TimeUnit.SECONDS) }
+            strand.shutdown()
+        } finally {
+            release.countDown()
+        }
+
+        assertTrue { released.await(1, TimeUnit.SECONDS) }
+        blockedStrands.forEach { it.shutdown() }
+    }
+}
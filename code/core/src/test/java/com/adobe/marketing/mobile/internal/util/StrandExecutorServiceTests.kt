@@ -0,0 +1,138 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.internal.util
+
+import org.junit.After
+import org.junit.Test
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+internal class StrandExecutorServiceTests {
+
+    private val pool = Executors.newFixedThreadPool(2)
+
+    @After
+    fun teardown() {
+        pool.shutdownNow()
+    }
+
+    @Test
+    fun testTasksRunInSubmissionOrder() {
+        val strands = (1..8).map { StrandExecutorService("strand$it", pool) }
+        val results = strands.map { Collections.synchronizedList(mutableListOf<Int>()) }
+        val latch = CountDownLatch(strands.size * 100)
+
+        repeat(100) { task ->
+            strands.forEachIndexed { index, strand ->
+                strand.execute {
+                    results[index].add(task)
+                    latch.countDown()
+                }
+            }
+        }
+
+        assertTrue { latch.await(5, TimeUnit.SECONDS) }
+        results.forEach { assertEquals((0 until 100).toList(), it) }
+    }
+
+    @Test
+    fun testTasksNeverOverlap() {
+        val strand = StrandExecutorService("strand", pool)
+        var running = 0
+        var overlapped = false
+        val latch = CountDownLatch(200)
+
+        repeat(200) {
+            strand.execute {
+                if (++running > 1) overlapped = true
+                Thread.yield()
+                running--
+                latch.countDown()
+            }
+        }
+
+        assertTrue { latch.await(5, TimeUnit.SECONDS) }
+        assertFalse(overlapped)
+    }
+
+    @Test
+    fun testShutdown_RunsPendingTasksThenTerminates() {
+        val strand = StrandExecutorService("strand", pool)
+        val blocker = CountDownLatch(1)
+        val ran = CountDownLatch(2)
+
+        strand.execute { blocker.await() }
+        strand.execute { ran.countDown() }
+        strand.execute { ran.countDown() }
+        strand.shutdown()
+
+        assertTrue { strand.isShutdown }
+        assertFalse { strand.isTerminated }
+        assertFailsWith<RejectedExecutionException> { strand.execute {} }
+
+        blocker.countDown()
+        assertTrue { ran.await(1, TimeUnit.SECONDS) }
+        assertTrue { strand.awaitTermination(1, TimeUnit.SECONDS) }
+        assertTrue { strand.isTerminated }
+    }
+
+    @Test
+    fun testShutdown_IdleStrandTerminatesImmediately() {
+        val strand = StrandExecutorService("strand", pool)
+        strand.shutdown()
+        assertTrue { strand.isTerminated }
+    }
+
+    @Test
+    fun testCancelledTask_DoesNotInterruptNextTask() {
+        val strand = StrandExecutorService("strand", pool)
+        val started = CountDownLatch(1)
+        val interrupted = mutableListOf<Boolean>()
+        val done = CountDownLatch(1)
+
+        val future = strand.submit {
+            started.countDown()
+            try {
+                Thread.sleep(5000)
+            } catch (ex: InterruptedException) {
+                // expected
+            }
+        }
+        strand.execute {
+            interrupted.add(Thread.currentThread().isInterrupted)
+            done.countDown()
+        }
+
+        assertTrue { started.await(1, TimeUnit.SECONDS) }
+        future.cancel(true)
+        assertTrue { done.await(1, TimeUnit.SECONDS) }
+        assertEquals(listOf(false), interrupted)
+    }
+
+    @Test
+    fun testTaskException_DoesNotStopStrand() {
+        val strand = StrandExecutorService("strand", pool)
+        val latch = CountDownLatch(1)
+
+        strand.execute { throw IllegalStateException() }
+        strand.execute { latch.countDown() }
+
+        assertTrue { latch.await(1, TimeUnit.SECONDS) }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.launch.rulesengine
+
+import com.adobe.marketing.mobile.rulesengine.TokenFinder
+import org.junit.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertNull
+import kotlin.test.assertSame
+import kotlin.test.assertTrue
+
+class ConsequenceTemplateTests {
+
+    private val tokenFinder = TokenFinder { key ->
+        mapOf("name" to "Adobe", "count" to 3)[key]
+    }
+    private val transforming = LaunchRuleTransformer.createTransforming()
+
+    @Test
+    fun testRender_NoTokens_ReturnsDetail() {
+        val detail = mapOf(
+            "text" to "plain text",
+            "nested" to mapOf("list" to listOf("a", 1, null)),
+            "number" to 1.5
+        )
+
+        val template = ConsequenceTemplate.compile(detail)
+
+        assertFalse(template.hasTokens)
+        assertSame(detail, template.render(tokenFinder, transforming))
+    }
+
+    @Test
+    fun testRender_ReplacesTokens() {
+        val constantSubtree = mapOf("key" to "value")
+        val detail = mapOf(
+            "text" to "Hi {%name%}, {%count%} times",
+            "nested" to mapOf(
+                "list" to listOf("{%name%}", 1, listOf("{%count%}")),
+                "constant" to constantSubtree
+            ),
+            "encoded" to "{%urlenc(name)%}",
+            "unterminated" to "{%name",
+            "empty" to "",
+            "null" to null
+        )
+
+        val template = ConsequenceTemplate.compile(detail)
+        val rendered = template.render(tokenFinder, transforming) as Map<*, *>
+
+        assertTrue(template.hasTokens)
+        assertEquals(
+            mapOf(
+                "text" to "Hi Adobe, 3 times",
+                "nested" to mapOf(
+                    "list" to listOf("Adobe", 1, listOf("3")),
+                    "constant" to constantSubtree
+                ),
+                "encoded" to "Adobe",
+                "unterminated" to "",
+                "empty" to "",
+                "null" to null
+            ),
+            rendered
+        )
+        assertEquals(detail.keys.toList(), rendered.keys.toList())
+        assertSame(constantSubtree, (rendered["nested"] as Map<*, *>)["constant"])
+    }
+
+    @Test
+    fun testRender_MapWithoutStringKeys_RendersNull() {
+        val detail = mapOf("map" to mapOf(1 to "value"), "text" to "plain text")
+
+        val template = ConsequenceTemplate.compile(detail)
+        val rendered = template.render(tokenFinder, transforming) as Map<*, *>
+
+        assertTrue(template.hasTokens)
+        assertNull(rendered["map"])
+        assertEquals("plain text", rendered["text"])
+    }
+}
@@ -21,7 +21,9 @@ import com.adobe.marketing.mobile.SharedStateStatus
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRuleTransformer.createTransforming
 import com.adobe.marketing.mobile.launch.rulesengine.json.JSONRulesParser
 import com.adobe.marketing.mobile.rulesengine.ConditionEvaluator
+import com.adobe.marketing.mobile.rulesengine.Evaluable
 import com.adobe.marketing.mobile.rulesengine.RulesEngine
+import com.adobe.marketing.mobile.rulesengine.RulesResult
 import com.adobe.marketing.mobile.test.util.readTestResources
 import org.junit.Before
 import org.junit.Test
@@ -2114,6 +2116,43 @@ class LaunchRulesConsequenceTests {
         verify(extensionApi, never()).dispatch(any())
     }
 
+    @Test
+    fun `Test Evaluate returns details that do not share the rule detail`() {
+        // Given: a rule with consequence details with and without tokens
+        val detail = mapOf(
+            "key" to "value",
+            "nested" to mapOf("list" to listOf("a", "b")),
+            "token" to "{%~type%}"
+        )
+        val rule = LaunchRule(
+            Evaluable { RulesResult.SUCCESS },
+            listOf(
+                RuleConsequence("id", "type", detail),
+                RuleConsequence("id2", "type", mapOf("k" to mapOf("a" to 1)))
+            )
+        )
+
+        // When: the caller modifies the evaluated consequences
+        val consequences = launchRulesConsequence.evaluate(defaultEvent, listOf(rule))
+        consequences.forEach { consequence ->
+            val mutableDetail = consequence.detail as MutableMap<String, Any?>
+            mutableDetail.values.filterIsInstance<MutableMap<String, Any?>>().forEach { it.clear() }
+            mutableDetail.clear()
+        }
+
+        // Then: the rule keeps its consequences
+        val reevaluated = launchRulesConsequence.evaluate(defaultEvent, listOf(rule))
+        assertEquals(
+            mapOf(
+                "key" to "value",
+                "nested" to mapOf("list" to listOf("a", "b")),
+                "token" to "com.adobe.eventType.lifecycle"
+            ),
+            reevaluated[0].detail
+        )
+        assertEquals(mapOf("k" to mapOf("a" to 1)), reevaluated[1].detail)
+    }
+
     private fun resetRulesEngine(rulesFileName: String) {
         val json = readTestResources(rulesFileName)
         val rules = json?.let { JSONRulesParser.parse(it, extensionApi) }
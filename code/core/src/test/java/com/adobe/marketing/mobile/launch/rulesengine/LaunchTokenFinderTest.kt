@@ -486,6 +486,60 @@ class LaunchTokenFinderTest {
         assertEquals("inner val1", result)
     }
 
+    @Test
+    fun `get should return nested value inside list of maps on a valid event`() {
+        // setup
+        val testEventData = mapOf(
+            "xdm" to mapOf(
+                "items" to listOf(
+                    mapOf("sku" to "sku0"),
+                    mapOf("sku" to "sku1", "a.b" to "dotted")
+                )
+            )
+        )
+        val testEvent = getDefaultEvent(testEventData)
+        val launchTokenFinder = LaunchTokenFinder(testEvent, extensionApi)
+        // test & verify
+        assertEquals("sku1", launchTokenFinder.get("xdm.items.1.sku"))
+        assertEquals("dotted", launchTokenFinder.get("xdm.items.1.a.b"))
+        assertNull(launchTokenFinder.get("xdm.items.2.sku"))
+        assertNull(launchTokenFinder.get("xdm.items.01.sku"))
+    }
+
+    @Test
+    fun `get should read shared state once per token finder`() {
+        // setup
+        val testEvent = getDefaultEvent(null)
+        val configuration = mapOf("global.privacy" to "optedin", "rules" to mapOf("url" to "https://rules"))
+        Mockito.`when`(
+            extensionApi.getSharedState(
+                Mockito.eq("com.adobe.module.configuration"),
+                Mockito.any(),
+                Mockito.anyBoolean(),
+                Mockito.any()
+            )
+        ).thenReturn(
+            SharedStateResult(
+                SharedStateStatus.SET,
+                configuration
+            )
+        )
+        val launchTokenFinder = LaunchTokenFinder(testEvent, extensionApi)
+        // test
+        repeat(3) {
+            assertEquals("optedin", launchTokenFinder.get("~state.com.adobe.module.configuration/global.privacy"))
+            assertEquals("https://rules", launchTokenFinder.get("~state.com.adobe.module.configuration/rules.url"))
+            assertNull(launchTokenFinder.get("~state.com.adobe.module.configuration/rules.missing"))
+        }
+        // verify
+        Mockito.verify(extensionApi, Mockito.times(1)).getSharedState(
+            Mockito.eq("com.adobe.module.configuration"),
+            Mockito.any(),
+            Mockito.anyBoolean(),
+            Mockito.any()
+        )
+    }
+
     private fun getDefaultEvent(eventData: Map<String, Any?>?): Event {
         return Event.Builder(
             "TEST",
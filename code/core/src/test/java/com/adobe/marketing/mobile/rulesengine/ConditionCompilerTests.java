@@ -0,0 +1,317 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.rulesengine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+public class ConditionCompilerTests {
+
+    private static final String[] BINARY_OPERATORS = {
+        "equals",
+        "notEquals",
+        "greaterThan",
+        "greaterEqual",
+        "lessThan",
+        "lessEqual",
+        "contains",
+        "notContains",
+        "startsWith",
+        "endsWith",
+        "exists",
+        "unknown",
+        null
+    };
+
+    private static final String[] UNARY_OPERATORS = {"exists", "notExist", "equals", "", null};
+
+    private static final Object[] VALUES = {
+        null,
+        "",
+        "abc",
+        "ABC",
+        "aBc.def",
+        "5",
+        "5.0",
+        " 5 ",
+        "-0",
+        "NaN",
+        "Infinity",
+        "1e3",
+        "five",
+        "İ",
+        "i",
+        5,
+        5L,
+        5.0,
+        5.52f,
+        -0.0,
+        Double.NaN,
+        9007199254740993L,
+        Long.MAX_VALUE,
+        (short) 7,
+        true,
+        "true"
+    };
+
+    @Test
+    public void testCompiledComparison_MatchesComparisonExpression() {
+        for (final ConditionEvaluator evaluator : evaluators()) {
+            final Context context = context(evaluator);
+            for (final String operation : BINARY_OPERATORS) {
+                for (final Object lhs : VALUES) {
+                    for (final Object rhs : VALUES) {
+                        assertSameOutcome(
+                                new ComparisonExpression<>(
+                                        new OperandLiteral<>(lhs),
+                                        operation,
+                                        new OperandLiteral<>(rhs)),
+                                evaluator,
+                                context);
+                        assertSameOutcome(
+                                new ComparisonExpression<>(
+                                        new OperandLiteral<>(lhs),
+                                        operation,
+                                        new OperandMustacheToken<>("{{rhs}}", Object.class)),
+                                evaluator,
+                                context(evaluator, rhs));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledComparison_MatchesComparisonExpressionForTokens() {
+        for (final ConditionEvaluator evaluator : evaluators()) {
+            for (final Object lhs : VALUES) {
+                final Context context = context(evaluator, lhs);
+                for (final Class<?> tokenClass :
+                        Arrays.asList(Object.class, String.class, Number.class)) {
+                    for (final Object rhs : VALUES) {
+                        assertSameOutcome(
+                                new ComparisonExpression<>(
+                                        new OperandMustacheToken<>("{{lhs}}", tokenClass),
+                                        "equals",
+                                        new OperandLiteral<>(rhs)),
+                                evaluator,
+                                context);
+                        assertSameOutcome(
+                                new ComparisonExpression<>(
+                                        new OperandMustacheToken<>("{{lhs}}", tokenClass),
+                                        "lessEqual",
+                                        new OperandLiteral<>(rhs)),
+                                evaluator,
+                                context);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledUnary_MatchesUnaryExpression() {
+        for (final ConditionEvaluator evaluator : evaluators()) {
+            final Context context = context(evaluator);
+            for (final String operation : UNARY_OPERATORS) {
+                for (final Object lhs : VALUES) {
+                    assertSameOutcome(
+                            new UnaryExpression<>(new OperandLiteral<>(lhs), operation),
+                            evaluator,
+                            context);
+                }
+                assertSameOutcome(new UnaryExpression<>(null, operation), evaluator, context);
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledLogical_MatchesLogicalExpression() {
+        final ConditionEvaluator evaluator = new ConditionEvaluator();
+        final Context context = context(evaluator);
+        final Evaluable matching =
+                new ComparisonExpression<>(
+                        new OperandLiteral<>("a"), "equals", new OperandLiteral<>("a"));
+        final Evaluable failing =
+                new ComparisonExpression<>(
+                        new OperandLiteral<>("a"), "equals", new OperandLiteral<>("b"));
+        final List<List<Evaluable>> operandLists =
+                Arrays.asList(
+                        new ArrayList<>(),
+                        Arrays.asList(matching, matching),
+                        Arrays.asList(matching, failing),
+                        Arrays.asList(failing, failing),
+                        Arrays.asList(null, failing),
+                        Arrays.asList(matching, null),
+                        Arrays.asList(
+                                new LogicalExpression(Arrays.asList(failing, matching), "or"),
+                                new LogicalExpression(Arrays.asList(matching, failing), "and")));
+
+        for (final String operation : Arrays.asList("and", "or", "xor", "", null)) {
+            for (final List<Evaluable> operands : operandLists) {
+                assertSameOutcome(new LogicalExpression(operands, operation), evaluator, context);
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledConditions_FailWithSharedResult() {
+        final ConditionEvaluator evaluator = new ConditionEvaluator();
+        final Context context = context(evaluator, "abc");
+        final List<Evaluable> conditions =
+                Arrays.asList(
+                        new ComparisonExpression<>(
+                                new OperandMustacheToken<>("{{lhs}}", String.class),
+                                "equals",
+                                new OperandLiteral<>("xyz")),
+                        new ComparisonExpression<>(
+                                new OperandMustacheToken<>("{{lhs}}", String.class),
+                                "greaterThan",
+                                new OperandLiteral<>(5)),
+                        new ComparisonExpression<>(
+                                new OperandMustacheToken<>("{{lhs}}", String.class),
+                                "unknown",
+                                new OperandLiteral<>(5)),
+                        new ComparisonExpression<>(
+                                new OperandMustacheToken<>("{{missing}}", String.class),
+                                "equals",
+                                new OperandLiteral<>("abc")),
+                        new UnaryExpression<>(
+                                new OperandMustacheToken<>("{{lhs}}", String.class), "notExist"));
+
+        for (final Evaluable condition : conditions) {
+            assertSame(
+                    ConditionCompiler.FAILED,
+                    ConditionCompiler.compile(condition, evaluator).evaluate(context));
+        }
+        assertSame(
+                ConditionCompiler.FAILED,
+                ConditionCompiler.compile(new LogicalExpression(conditions, "or"), evaluator)
+                        .evaluate(context));
+    }
+
+    @Test
+    public void testCompiledStringComparison_MatchesComparisonExpression() {
+        // Line terminators and characters which fold differently per regular expression engine
+        final String[] characters = {
+            "a", "A", "s", "S", "k", "K", "i", "I", ".", "*", "\\E", "\n", "\r", "\u000B",
+            "\u0085", "\u2028", "é", "É", "ß", "\u212A", "İ", "ı", "\uD83D\uDE00"
+        };
+        final String[] operators = {"contains", "notContains", "startsWith", "endsWith"};
+        final Random random = new Random(24);
+
+        for (final ConditionEvaluator evaluator : evaluators()) {
+            for (int i = 0; i < 20000; i++) {
+                final String lhs = randomString(random, characters, 6);
+                final String rhs =
+                        random.nextBoolean()
+                                ? randomString(random, characters, 3)
+                                : lhs.substring(random.nextInt(lhs.length() + 1));
+                assertSameOutcome(
+                        new ComparisonExpression<>(
+                                new OperandMustacheToken<>("{{lhs}}", Object.class),
+                                operators[random.nextInt(operators.length)],
+                                new OperandLiteral<>(rhs)),
+                        evaluator,
+                        context(evaluator, lhs));
+            }
+        }
+    }
+
+    @Test
+    public void testCompiledContains_FollowsDefaultLocale() {
+        final ConditionEvaluator evaluator =
+                new ConditionEvaluator(ConditionEvaluator.Option.CASE_INSENSITIVE);
+        final Evaluable condition =
+                new ComparisonExpression<>(
+                        new OperandMustacheToken<>("{{lhs}}", String.class),
+                        "contains",
+                        new OperandLiteral<>("Id"));
+        final Evaluable compiled = ConditionCompiler.compile(condition, evaluator);
+        final Locale defaultLocale = Locale.getDefault();
+        try {
+            for (final Locale locale : Arrays.asList(new Locale("tr"), Locale.US)) {
+                Locale.setDefault(locale);
+                for (final String lhs : Arrays.asList("ID", "id", "İD", "ıd", "xIdx")) {
+                    final Context context = context(evaluator, lhs);
+                    assertEquals(
+                            condition.evaluate(context).isSuccess(),
+                            compiled.evaluate(context).isSuccess());
+                }
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void testCompile_CustomEvaluatorKeepsCondition() {
+        final Evaluable condition =
+                new ComparisonExpression<>(
+                        new OperandLiteral<>("a"), "equals", new OperandLiteral<>("a"));
+        final Evaluating customEvaluator =
+                new ConditionEvaluator() {
+                    @Override
+                    public <A, B> RulesResult evaluate(
+                            final A lhs, final String operation, final B rhs) {
+                        return RulesResult.SUCCESS;
+                    }
+                };
+
+        assertSame(condition, ConditionCompiler.compile(condition, customEvaluator));
+    }
+
+    private static void assertSameOutcome(
+            final Evaluable evaluable, final ConditionEvaluator evaluator, final Context context) {
+        final boolean expected = evaluable.evaluate(context).isSuccess();
+        final RulesResult compiled =
+                ConditionCompiler.compile(evaluable, evaluator).evaluate(context);
+        assertEquals(expected, compiled.isSuccess());
+        assertTrue(compiled == RulesResult.SUCCESS || compiled == ConditionCompiler.FAILED);
+    }
+
+    private static String randomString(
+            final Random random, final String[] characters, final int maxLength) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append(characters[random.nextInt(characters.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static List<ConditionEvaluator> evaluators() {
+        return Arrays.asList(
+                new ConditionEvaluator(),
+                new ConditionEvaluator(ConditionEvaluator.Option.CASE_INSENSITIVE));
+    }
+
+    private static Context context(final ConditionEvaluator evaluator) {
+        return new Context(new FakeTokenFinder(new HashMap<>()), evaluator, new Transformer());
+    }
+
+    private static Context context(final ConditionEvaluator evaluator, final Object value) {
+        final HashMap<String, Object> data = new HashMap<>();
+        data.put("lhs", value);
+        data.put("rhs", value);
+        return new Context(new FakeTokenFinder(data), evaluator, new Transformer());
+    }
+}
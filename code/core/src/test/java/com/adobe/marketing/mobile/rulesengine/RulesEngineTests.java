@@ -0,0 +1,274 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.rulesengine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class RulesEngineTests {
+
+    private final AtomicInteger evaluatedRules = new AtomicInteger();
+
+    /** Counts the evaluations of the rule it is the first condition of. */
+    private final Evaluable countingCondition =
+            context -> {
+                evaluatedRules.incrementAndGet();
+                return RulesResult.SUCCESS;
+            };
+
+    private static class TestRule implements Rule {
+        final String name;
+        final Evaluable evaluable;
+
+        TestRule(final String name, final Evaluable evaluable) {
+            this.name = name;
+            this.evaluable = evaluable;
+        }
+
+        @Override
+        public Evaluable getEvaluable() {
+            return evaluable;
+        }
+    }
+
+    @Test
+    public void testEvaluate_OnlyCandidateRulesEvaluated() {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        final List<TestRule> rules = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rules.add(rule("rule" + i, typeEquals("type" + (i % 4))));
+        }
+        rulesEngine.replaceRules(rules);
+
+        final List<TestRule> matchedRules = rulesEngine.evaluate(tokenFinder("type1", "source"));
+
+        assertEquals(25, matchedRules.size());
+        for (int i = 0; i < matchedRules.size(); i++) {
+            assertEquals("rule" + (i * 4 + 1), matchedRules.get(i).name);
+        }
+        assertEquals(25, evaluatedRules.get());
+    }
+
+    @Test
+    public void testEvaluate_CaseInsensitiveValues() {
+        final RulesEngine<TestRule> rulesEngine =
+                rulesEngine(new ConditionEvaluator(ConditionEvaluator.Option.CASE_INSENSITIVE));
+        rulesEngine.replaceRules(
+                Arrays.asList(
+                        rule("upper", typeEquals("COM.ADOBE.TYPE")),
+                        rule("other", typeEquals("com.adobe.other"))));
+
+        final List<TestRule> matchedRules =
+                rulesEngine.evaluate(tokenFinder("com.adobe.Type", "source"));
+
+        assertEquals(names("upper"), names(matchedRules));
+        assertEquals(1, evaluatedRules.get());
+    }
+
+    @Test
+    public void testEvaluate_PreservesRuleOrderAcrossIndexedAndUnindexedRules() {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        rulesEngine.replaceRules(
+                Arrays.asList(
+                        rule(
+                                "anyOf",
+                                new LogicalExpression(
+                                        Arrays.asList(typeEquals("a"), typeEquals("b")), "or")),
+                        rule("unindexed", comparison("~type", "notEquals", "c")),
+                        rule("typeC", typeEquals("c")),
+                        rule(
+                                "nested",
+                                new LogicalExpression(
+                                        Arrays.asList(
+                                                new LogicalExpression(
+                                                        Arrays.asList(
+                                                                typeEquals("b"),
+                                                                comparison(
+                                                                        "~source",
+                                                                        "equals",
+                                                                        "s1")),
+                                                        "and"),
+                                                null),
+                                        "and")),
+                        rule("typeB", typeEquals("b"))));
+
+        final List<TestRule> matchedRules = rulesEngine.evaluate(tokenFinder("b", "s1"));
+
+        assertEquals(names("anyOf", "unindexed", "nested", "typeB"), names(matchedRules));
+        assertEquals(4, evaluatedRules.get());
+    }
+
+    @Test
+    public void testEvaluate_MissingTokenSkipsIndexedRules() {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        rulesEngine.replaceRules(
+                Arrays.asList(
+                        rule("typeA", typeEquals("a")),
+                        rule("exists", new UnaryExpression<>(mustacheToken("~type"), "notExist"))));
+
+        final List<TestRule> matchedRules =
+                rulesEngine.evaluate(new FakeTokenFinder(new HashMap<>()));
+
+        assertEquals(names("exists"), names(matchedRules));
+        assertEquals(1, evaluatedRules.get());
+    }
+
+    @Test
+    public void testAddRules_IndexesAddedRules() {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        rulesEngine.replaceRules(Collections.singletonList(rule("first", typeEquals("a"))));
+        rulesEngine.addRules(
+                Arrays.asList(rule("second", typeEquals("a")), rule("third", typeEquals("b"))));
+
+        final List<TestRule> matchedRules = rulesEngine.evaluate(tokenFinder("a", "source"));
+
+        assertEquals(names("first", "second"), names(matchedRules));
+        assertEquals(2, evaluatedRules.get());
+    }
+
+    @Test
+    public void testEvaluate_CustomEvaluatorEvaluatesAllRules() {
+        final Evaluating alwaysTrue =
+                new Evaluating() {
+                    @Override
+                    public <A, B> RulesResult evaluate(
+                            final A lhs, final String operation, final B rhs) {
+                        return RulesResult.SUCCESS;
+                    }
+
+                    @Override
+                    public <A> RulesResult evaluate(final String operation, final A lhs) {
+                        return RulesResult.SUCCESS;
+                    }
+                };
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(alwaysTrue);
+        rulesEngine.replaceRules(
+                Arrays.asList(rule("typeA", typeEquals("a")), rule("typeB", typeEquals("b"))));
+
+        final List<TestRule> matchedRules = rulesEngine.evaluate(tokenFinder("a", "source"));
+
+        assertEquals(names("typeA", "typeB"), names(matchedRules));
+        assertEquals(2, evaluatedRules.get());
+    }
+
+    @Test
+    public void testGetRules_ReturnsCopy() {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        rulesEngine.replaceRules(Collections.singletonList(rule("first", typeEquals("a"))));
+
+        final List<TestRule> rules = rulesEngine.getRules();
+        rulesEngine.addRules(Collections.singletonList(rule("second", typeEquals("a"))));
+        rules.add(rule("third", typeEquals("a")));
+
+        assertEquals(names("first", "third"), names(rules));
+        assertEquals(names("first", "second"), names(rulesEngine.getRules()));
+    }
+
+    @Test
+    public void testEvaluate_ConcurrentWithReplaceRules_SeesWholeRuleSets() throws Exception {
+        final RulesEngine<TestRule> rulesEngine = rulesEngine(new ConditionEvaluator());
+        final List<TestRule> smallRuleSet = new ArrayList<>();
+        final List<TestRule> largeRuleSet = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            smallRuleSet.add(rule("small" + i, typeEquals("a")));
+        }
+        for (int i = 0; i < 20; i++) {
+            largeRuleSet.add(rule("large" + i, typeEquals("a")));
+        }
+        rulesEngine.replaceRules(smallRuleSet);
+
+        final int threads = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final List<Future<Boolean>> consistent = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            consistent.add(
+                    executor.submit(
+                            () -> {
+                                while (running.get()) {
+                                    final List<TestRule> matchedRules =
+                                            rulesEngine.evaluate(tokenFinder("a", "source"));
+                                    if (!matchedRules.equals(smallRuleSet)
+                                            && !matchedRules.equals(largeRuleSet)) {
+                                        return false;
+                                    }
+                                }
+                                return true;
+                            }));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            rulesEngine.replaceRules(i % 2 == 0 ? largeRuleSet : smallRuleSet);
+        }
+        running.set(false);
+
+        for (final Future<Boolean> result : consistent) {
+            assertTrue(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+    }
+
+    private RulesEngine<TestRule> rulesEngine(final Evaluating evaluator) {
+        return new RulesEngine<>(evaluator, new Transformer());
+    }
+
+    private TestRule rule(final String name, final Evaluable condition) {
+        return new TestRule(
+                name, new LogicalExpression(Arrays.asList(countingCondition, condition), "and"));
+    }
+
+    private static Evaluable typeEquals(final String type) {
+        return comparison("~type", "equals", type);
+    }
+
+    private static Evaluable comparison(
+            final String key, final String operation, final String value) {
+        return new ComparisonExpression<>(
+                mustacheToken(key), operation, new OperandLiteral<>(value));
+    }
+
+    private static OperandMustacheToken<String> mustacheToken(final String key) {
+        return new OperandMustacheToken<>("{{" + key + "}}", String.class);
+    }
+
+    private static FakeTokenFinder tokenFinder(final String type, final String source) {
+        final HashMap<String, Object> data = new HashMap<>();
+        data.put("~type", type);
+        data.put("~source", source);
+        return new FakeTokenFinder(data);
+    }
+
+    private static List<String> names(final String... names) {
+        return Arrays.asList(names);
+    }
+
+    private static List<String> names(final List<TestRule> rules) {
+        final List<String> names = new ArrayList<>();
+        for (final TestRule rule : rules) {
+            names.add(rule.name);
+        }
+        return names;
+    }
+}
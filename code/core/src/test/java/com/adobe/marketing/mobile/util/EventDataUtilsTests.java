@@ -12,7 +12,9 @@
 package com.adobe.marketing.mobile.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 
 import java.math.BigDecimal;
@@ -248,6 +250,163 @@ public class EventDataUtilsTests {
                 });
     }
 
+    @Test
+    public void testImmutableClone_ReusesImmutableMap() throws CloneFailedException {
+        Map<String, Object> data = new HashMap<>();
+        data.put("key", "value");
+
+        Map<String, Object> clonedData = EventDataUtils.immutableClone(data);
+
+        assertSame(clonedData, EventDataUtils.immutableClone(clonedData));
+    }
+
+    @Test
+    public void testImmutableClone_SharesUnchangedSubtrees() throws CloneFailedException {
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        List<Object> nestedList = new ArrayList<>();
+        nestedList.add("element");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+        data.put("list", nestedList);
+        Map<String, Object> clonedData = EventDataUtils.immutableClone(data);
+
+        Map<String, Object> updatedData = new HashMap<>(clonedData);
+        updatedData.put("newKey", "newValue");
+        Map<String, Object> clonedUpdatedData = EventDataUtils.immutableClone(updatedData);
+
+        assertNotSame(clonedData, clonedUpdatedData);
+        assertEquals("newValue", clonedUpdatedData.get("newKey"));
+        assertSame(clonedData.get("map"), clonedUpdatedData.get("map"));
+        assertSame(clonedData.get("list"), clonedUpdatedData.get("list"));
+    }
+
+    @Test
+    public void testImmutableClone_SharedSubtreeExceedsMaxDepth() throws CloneFailedException {
+        Map<String, Object> deepMap = new HashMap<>();
+        for (int i = 0; i < 255; i++) {
+            Map<String, Object> parent = new HashMap<>();
+            parent.put("child", deepMap);
+            deepMap = parent;
+        }
+        Map<String, Object> clonedDeepMap = EventDataUtils.immutableClone(deepMap);
+
+        Map<String, Object> withinLimit = new HashMap<>();
+        withinLimit.put("deep", clonedDeepMap);
+        EventDataUtils.immutableClone(withinLimit);
+
+        Map<String, Object> beyondLimit = new HashMap<>();
+        beyondLimit.put("wrapper", withinLimit);
+        CloneFailedException ex =
+                assertThrows(
+                        CloneFailedException.class,
+                        () -> EventDataUtils.immutableClone(beyondLimit));
+        assertEquals(ex.getReason(), CloneFailedException.Reason.MAX_DEPTH_REACHED);
+    }
+
+    @Test
+    public void testClone_CopiesImmutableSubtrees() throws CloneFailedException {
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+        Map<String, Object> clonedData = EventDataUtils.immutableClone(data);
+
+        Map<String, Object> mutableData = EventDataUtils.clone(clonedData);
+
+        assertEquals(clonedData, mutableData);
+        assertNotSame(clonedData.get("map"), mutableData.get("map"));
+        ((Map<String, Object>) mutableData.get("map")).put("newKey", "newValue");
+        assertNull(((Map<String, Object>) clonedData.get("map")).get("newKey"));
+    }
+
+    @Test
+    public void testFreeze() throws CloneFailedException {
+        class Data {}
+
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        nestedMap.put("data", new Data());
+        List<Object> nestedList = new ArrayList<>();
+        nestedList.add(1);
+        nestedList.add(new Data());
+        nestedList.add(nestedMap);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("list", nestedList);
+        data.put("array", new String[] {"a", "b"});
+        data.put("string", "hello");
+
+        Map<String, Object> frozenData = EventDataUtils.freeze(data);
+
+        Map<String, Object> expectedNestedMap = new HashMap<>();
+        expectedNestedMap.put("key", "value");
+        Map<String, Object> expectedData = new HashMap<>();
+        expectedData.put("list", Arrays.asList(1, expectedNestedMap));
+        expectedData.put("array", Arrays.asList("a", "b"));
+        expectedData.put("string", "hello");
+        assertEquals(expectedData, frozenData);
+
+        assertThrows(UnsupportedOperationException.class, () -> frozenData.put("new", "value"));
+        List<Object> frozenList = (List<Object>) frozenData.get("list");
+        assertThrows(UnsupportedOperationException.class, () -> frozenList.add("value"));
+        Map<String, Object> frozenNestedMap = (Map<String, Object>) frozenList.get(1);
+        assertThrows(
+                UnsupportedOperationException.class, () -> frozenNestedMap.put("new", "value"));
+    }
+
+    @Test
+    public void testFreeze_ResultIsNotClonedAgain() throws CloneFailedException {
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("key", "value");
+        Map<String, Object> data = new HashMap<>();
+        data.put("map", nestedMap);
+
+        Map<String, Object> frozenData = EventDataUtils.freeze(data);
+
+        assertSame(frozenData, EventDataUtils.immutableClone(frozenData));
+        assertSame(frozenData, EventDataUtils.freeze(frozenData));
+    }
+
+    @Test
+    public void testFreeze_ContainersNotUpdatableInPlace() throws CloneFailedException {
+        Map<String, Object> innerMap = new HashMap<>();
+        innerMap.put("key", "value");
+        Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("inner", innerMap);
+        List<Object> nestedList = new LinkedList<>();
+        nestedList.add("element");
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("unmodifiableMap", Collections.unmodifiableMap(nestedMap));
+        data.put("linkedList", nestedList);
+
+        Map<String, Object> frozenData = EventDataUtils.freeze(data);
+
+        Map<String, Object> expectedInnerMap = new HashMap<>();
+        expectedInnerMap.put("key", "value");
+        Map<String, Object> expectedNestedMap = new HashMap<>();
+        expectedNestedMap.put("inner", expectedInnerMap);
+        assertEquals(expectedNestedMap, frozenData.get("unmodifiableMap"));
+        assertEquals(Collections.singletonList("element"), frozenData.get("linkedList"));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> ((List<Object>) frozenData.get("linkedList")).add("value"));
+    }
+
+    @Test
+    public void testFreeze_CircularReference() {
+        Map<String, Object> map = new HashMap<>();
+        List<Object> list = new ArrayList<>();
+        list.add(map);
+        map.put("list", list);
+
+        CloneFailedException ex =
+                assertThrows(CloneFailedException.class, () -> EventDataUtils.freeze(map));
+        assertEquals(ex.getReason(), CloneFailedException.Reason.MAX_DEPTH_REACHED);
+    }
+
     @Test
     public void testCastFromGenericType_SimpleObjects() {
         Map<String, Object> values = new HashMap<>();
@@ -371,4 +371,113 @@ class SerialWorkDispatcherTests {
         Thread.sleep(500)
         assertEquals(listOf(event4, event5), processedEvents)
     }
+
+    @Test
+    fun `Offers are coalesced into one submission while the work processor is pending`() {
+        val pendingExecutorService = Mockito.mock(ExecutorService::class.java)
+        val serialWorkDispatcher = TestSerialWorkDispatcher("TestImpl coalesced", workHandler)
+        serialWorkDispatcher.setExecutorService(pendingExecutorService)
+        serialWorkDispatcher.start()
+
+        repeat(100) {
+            serialWorkDispatcher.offer(Event.Builder("Event$it", "Type", "Source").build())
+        }
+
+        // The submitted work processor has not run yet, so it will pick up all items.
+        verify(pendingExecutorService, times(1)).submit(any(Runnable::class.java))
+    }
+
+    @Test
+    fun `Large backlog is processed in order across batches`() {
+        val events = (1..200).map { Event.Builder("Event$it", "Type", "Source").build() }
+        events.forEach { serialWorkDispatcher.offer(it) }
+
+        serialWorkDispatcher.start()
+
+        assertEquals(events, serialWorkDispatcher.processedEvents)
+        // Initial job, plus the work processor re-submitting itself after each full batch
+        verify(mockExecutorService, Mockito.atLeast(3)).submit(any(Runnable::class.java))
+    }
+
+    @Test
+    fun `Blocked work item is retried when new work is offered`() {
+        val event1: Event = Event.Builder("Event1", "Type", "Source").build()
+        val event2: Event = Event.Builder("Event2", "Type", "Source").build()
+        var ready = false
+        val processedEvents = ArrayList<Event>()
+        val blockingWorkHandler: SerialWorkDispatcher.WorkHandler<Event> =
+            SerialWorkDispatcher.WorkHandler {
+                if (!ready) return@WorkHandler false
+                processedEvents.add(it)
+                true
+            }
+        val serialDispatcher = SerialWorkDispatcher("TestImpl blocked", blockingWorkHandler)
+        serialDispatcher.setExecutorService(mockExecutorService)
+        serialDispatcher.start()
+
+        serialDispatcher.offer(event1)
+        assertEquals(0, processedEvents.size)
+
+        // Handler becomes ready, but the item is not retried until new work arrives
+        ready = true
+        assertEquals(0, processedEvents.size)
+
+        serialDispatcher.offer(event2)
+        assertEquals(listOf(event1, event2), processedEvents)
+    }
+
+    @Test
+    fun `Queue depth and high water mark are tracked`() {
+        val events = (1..3).map { Event.Builder("Event$it", "Type", "Source").build() }
+        events.forEach { serialWorkDispatcher.offer(it) }
+        assertEquals(3, serialWorkDispatcher.getQueueDepth())
+        assertEquals(3, serialWorkDispatcher.getHighWaterMark())
+
+        serialWorkDispatcher.start()
+
+        assertEquals(0, serialWorkDispatcher.getQueueDepth())
+        assertEquals(3, serialWorkDispatcher.getHighWaterMark())
+    }
+
+    @Test
+    fun `Bounded queue drops newest items when at capacity`() {
+        val events = (1..4).map { Event.Builder("Event$it", "Type", "Source").build() }
+        serialWorkDispatcher.setCapacity(2, SerialWorkDispatcher.OverflowPolicy.DROP_NEWEST)
+
+        assertEquals(listOf(true, true, false, false), events.map { serialWorkDispatcher.offer(it) })
+        assertEquals(2, serialWorkDispatcher.droppedItemCount)
+        assertEquals(2, serialWorkDispatcher.getHighWaterMark())
+
+        serialWorkDispatcher.start()
+        assertEquals(events.take(2), serialWorkDispatcher.processedEvents)
+    }
+
+    @Test
+    fun `Bounded queue drops oldest waiting items when at capacity`() {
+        val events = (1..5).map { Event.Builder("Event$it", "Type", "Source").build() }
+        serialWorkDispatcher.setCapacity(3, SerialWorkDispatcher.OverflowPolicy.DROP_OLDEST)
+
+        events.forEach { assertTrue(serialWorkDispatcher.offer(it)) }
+        assertEquals(2, serialWorkDispatcher.droppedItemCount)
+        assertEquals(3, serialWorkDispatcher.getQueueDepth())
+
+        serialWorkDispatcher.start()
+        // The front item is kept as it may be in process.
+        assertEquals(listOf(events[0], events[3], events[4]), serialWorkDispatcher.processedEvents)
+    }
+
+    @Test
+    fun `Lowering the capacity keeps items already queued`() {
+        val events = (1..5).map { Event.Builder("Event$it", "Type", "Source").build() }
+        serialWorkDispatcher.setCapacity(6, SerialWorkDispatcher.OverflowPolicy.DROP_NEWEST)
+        events.take(4).forEach { assertTrue(serialWorkDispatcher.offer(it)) }
+
+        serialWorkDispatcher.setCapacity(2, SerialWorkDispatcher.OverflowPolicy.DROP_NEWEST)
+        assertEquals(4, serialWorkDispatcher.getQueueDepth())
+        assertFalse(serialWorkDispatcher.offer(events[4]))
+
+        serialWorkDispatcher.start()
+        assertEquals(events.take(4), serialWorkDispatcher.processedEvents)
+        assertEquals(1, serialWorkDispatcher.droppedItemCount)
+    }
 }
@@ -0,0 +1,134 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.internal.util.EventDataMerger;
+import com.adobe.marketing.mobile.util.CloneFailedException;
+import com.adobe.marketing.mobile.util.EventDataUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures cloning of an XDM-like payload, as done when events are built and when rules attach or
+ * modify event data.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventDataCloneBenchmark {
+
+    private static final int PRODUCT_COUNT = 20;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Map<String, Object> payload;
+    private Event event;
+    private Map<String, Object> consequenceData;
+
+    @Before
+    public void setup() {
+        payload = createXdmPayload();
+        event =
+                new Event.Builder(
+                                "Benchmark event",
+                                "com.adobe.eventType.edge",
+                                "com.adobe.eventSource.requestContent")
+                        .setEventData(payload)
+                        .build();
+
+        final Map<String, Object> attachedData = new HashMap<>();
+        attachedData.put("rulesEngine", "attached");
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("_experience", attachedData);
+        consequenceData = new HashMap<>();
+        consequenceData.put("xdm", xdm);
+    }
+
+    @Test
+    public void immutableClone_mutablePayload() throws CloneFailedException {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            EventDataUtils.immutableClone(payload);
+        }
+    }
+
+    @Test
+    public void immutableClone_eventData() throws CloneFailedException {
+        final Map<String, Object> eventData = event.getEventData();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            EventDataUtils.immutableClone(eventData);
+        }
+    }
+
+    @Test
+    public void cloneWithEventData_afterMerge() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            event.cloneWithEventData(
+                    EventDataMerger.merge(consequenceData, event.getEventData(), false));
+        }
+    }
+
+    private static Map<String, Object> createXdmPayload() {
+        final List<Object> productList = new ArrayList<>();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            final Map<String, Object> priceTotal = new HashMap<>();
+            priceTotal.put("value", 19.99 + i);
+            priceTotal.put("currencyCode", "USD");
+
+            final Map<String, Object> product = new HashMap<>();
+            product.put("SKU", "sku-" + i);
+            product.put("name", "Product " + i);
+            product.put("quantity", i % 3 + 1);
+            product.put("priceTotal", priceTotal);
+            productList.add(product);
+        }
+
+        final Map<String, Object> commerce = new HashMap<>();
+        final Map<String, Object> purchases = new HashMap<>();
+        purchases.put("value", 1);
+        commerce.put("purchases", purchases);
+
+        final Map<String, Object> webPageDetails = new HashMap<>();
+        webPageDetails.put("name", "checkout");
+        webPageDetails.put("URL", "https://example.com/checkout");
+        final Map<String, Object> web = new HashMap<>();
+        web.put("webPageDetails", webPageDetails);
+
+        final Map<String, Object> device = new HashMap<>();
+        device.put("manufacturer", "Google");
+        device.put("model", "Pixel");
+        device.put("screenHeight", 2400);
+        device.put("screenWidth", 1080);
+
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("eventType", "commerce.purchases");
+        xdm.put("timestamp", "2026-01-01T00:00:00Z");
+        xdm.put("commerce", commerce);
+        xdm.put("productListItems", productList);
+        xdm.put("web", web);
+        xdm.put("device", device);
+
+        final Map<String, Object> data = new HashMap<>();
+        data.put("xdm", xdm);
+        return data;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import android.app.Application;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.internal.eventhub.history.AndroidEventHistory;
+import com.adobe.marketing.mobile.internal.eventhub.history.AndroidEventHistoryDatabase;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures writing 10k events to the event history database, both through the batching {@link
+ * AndroidEventHistory#recordEvent} path and as one transaction per row.
+ *
+ * <p>Written in Java because the event history classes are internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventHistoryInsertBenchmark {
+
+    private static final int EVENT_COUNT = 10_000;
+    private static final String DATABASE_NAME = "com.adobe.module.core.eventhistory";
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Application application;
+
+    @Before
+    public void setup() {
+        application =
+                (Application)
+                        InstrumentationRegistry.getInstrumentation()
+                                .getTargetContext()
+                                .getApplicationContext();
+        ServiceProvider.getInstance().getAppContextService().setApplication(application);
+        application.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void recordEvent_batched() throws InterruptedException {
+        final AndroidEventHistory eventHistory = new AndroidEventHistory();
+        final Event[] events = new Event[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events[i] =
+                    new Event.Builder("Benchmark event", "type", "source")
+                            .setEventData(Collections.singletonMap("key", "value" + (i % 100)))
+                            .build();
+        }
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            final CountDownLatch recorded = new CountDownLatch(EVENT_COUNT);
+            final AdobeCallbackWithError<Boolean> callback =
+                    new AdobeCallbackWithError<Boolean>() {
+                        @Override
+                        public void call(final Boolean value) {
+                            recorded.countDown();
+                        }
+
+                        @Override
+                        public void fail(final AdobeError error) {
+                            recorded.countDown();
+                        }
+                    };
+            for (final Event event : events) {
+                eventHistory.recordEvent(event, callback);
+            }
+            recorded.await(60, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void insert_transactionPerRow() {
+        final AndroidEventHistoryDatabase database = new AndroidEventHistoryDatabase();
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (int i = 0; i < EVENT_COUNT; i++) {
+                database.insert(1000L + (i % 100), i);
+            }
+        }
+    }
+}
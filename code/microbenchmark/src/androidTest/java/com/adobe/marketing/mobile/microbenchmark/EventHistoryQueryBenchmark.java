@@ -0,0 +1,83 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import android.app.Application;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+import com.adobe.marketing.mobile.internal.eventhub.history.AndroidEventHistoryDatabase;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the latency of a single event history query against histories of 100k and 1M rows,
+ * spread over {@link #DISTINCT_HASHES} distinct event hashes.
+ *
+ * <p>Written in Java because the event history classes are internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventHistoryQueryBenchmark {
+
+    private static final String DATABASE_NAME = "com.adobe.module.core.eventhistory";
+    private static final int DISTINCT_HASHES = 1_000;
+    private static final int INSERT_CHUNK = 10_000;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Before
+    public void setup() {
+        final Application application =
+                (Application)
+                        InstrumentationRegistry.getInstrumentation()
+                                .getTargetContext()
+                                .getApplicationContext();
+        ServiceProvider.getInstance().getAppContextService().setApplication(application);
+        application.deleteDatabase(DATABASE_NAME);
+    }
+
+    @Test
+    public void query_100kRows() {
+        measureQuery(populate(100_000));
+    }
+
+    @Test
+    public void query_1MRows() {
+        measureQuery(populate(1_000_000));
+    }
+
+    private AndroidEventHistoryDatabase populate(final int rows) {
+        final AndroidEventHistoryDatabase database = new AndroidEventHistoryDatabase();
+        final long[] hashes = new long[INSERT_CHUNK];
+        final long[] timestamps = new long[INSERT_CHUNK];
+        for (int start = 0; start < rows; start += INSERT_CHUNK) {
+            for (int i = 0; i < INSERT_CHUNK; i++) {
+                hashes[i] = (start + i) % DISTINCT_HASHES;
+                timestamps[i] = start + i;
+            }
+            database.insertAll(hashes, timestamps);
+        }
+        return database;
+    }
+
+    private void measureQuery(final AndroidEventHistoryDatabase database) {
+        int hash = 0;
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            database.query(hash, 0, Long.MAX_VALUE);
+            hash = (hash + 1) % DISTINCT_HASHES;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.internal.eventhub.EventDispatchMode;
+import com.adobe.marketing.mobile.internal.eventhub.EventHub;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the cost of dispatching a burst of events through the EventHub until every event has
+ * been delivered to a listener, for each {@link EventDispatchMode}.
+ *
+ * <p>Written in Java because EventHub is internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class EventHubDispatchBenchmark {
+
+    private static final int EVENTS_PER_BURST = 200;
+    private static final String EVENT_TYPE = "com.adobe.eventType.benchmark";
+    private static final String EVENT_SOURCE = "com.adobe.eventSource.benchmark";
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void dispatchBurst_serialized() throws InterruptedException {
+        measureDispatchBurst(EventDispatchMode.SERIALIZED);
+    }
+
+    @Test
+    public void dispatchBurst_direct() throws InterruptedException {
+        measureDispatchBurst(EventDispatchMode.DIRECT);
+    }
+
+    private void measureDispatchBurst(final EventDispatchMode mode) throws InterruptedException {
+        final EventHub eventHub = new EventHub(mode);
+        final AtomicReference<CountDownLatch> delivered = new AtomicReference<>();
+        eventHub.registerListener(EVENT_TYPE, EVENT_SOURCE, event -> delivered.get().countDown());
+        eventHub.start();
+
+        final Event[] events = new Event[EVENTS_PER_BURST];
+        for (int i = 0; i < EVENTS_PER_BURST; i++) {
+            events[i] = new Event.Builder("Benchmark event " + i, EVENT_TYPE, EVENT_SOURCE).build();
+        }
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            delivered.set(new CountDownLatch(EVENTS_PER_BURST));
+            for (final Event event : events) {
+                eventHub.dispatch(event);
+            }
+            delivered.get().await(5, TimeUnit.SECONDS);
+        }
+
+        eventHub.shutdown();
+    }
+}
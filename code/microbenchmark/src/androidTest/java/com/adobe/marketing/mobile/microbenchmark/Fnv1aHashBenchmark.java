@@ -0,0 +1,86 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.internal.util.MapUtilsKt;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures hashing event data for event history, with and without masks, for event data shaped
+ * like a typical Edge experience event.
+ *
+ * <p>Written in Java because the hashing utilities are internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class Fnv1aHashBenchmark {
+
+    private static final String[] MASKS = {
+        "xdm.eventType", "xdm._experience.decisioning.propositions.0.id", "data.key3"
+    };
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void hash_masked() {
+        measureHash(createEventData(), MASKS);
+    }
+
+    @Test
+    public void hash_unmasked() {
+        measureHash(createEventData(), null);
+    }
+
+    private void measureHash(final Map<String, Object> eventData, final String[] masks) {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            MapUtilsKt.convertMapToFnv1aHash(eventData, masks);
+        }
+    }
+
+    private static Map<String, Object> createEventData() {
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", "c2aa4a73-a534-44c2-baa4-a12980e2bb82");
+        proposition.put("scope", "mobileapp://com.adobe.benchmark");
+        proposition.put("scopeDetails", singletonMap("activity", "a1"));
+
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositions", Collections.singletonList(proposition));
+        decisioning.put("propositionEventType", singletonMap("display", 1));
+
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("eventType", "decisioning.propositionDisplay");
+        xdm.put("_experience", singletonMap("decisioning", decisioning));
+
+        final Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            data.put("key" + i, "value" + i);
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("xdm", xdm);
+        eventData.put("data", data);
+        return eventData;
+    }
+
+    private static Map<String, Object> singletonMap(final String key, final Object value) {
+        final Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.internal.eventhub.EventHub;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures registering N response listeners and then resolving all of them with their response
+ * events, simulating N in-flight dispatchEventWithResponseCallback calls.
+ *
+ * <p>Written in Java because EventHub is internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ResponseListenerBenchmark {
+
+    private static final String EVENT_TYPE = "com.adobe.eventType.benchmark";
+    private static final String EVENT_SOURCE = "com.adobe.eventSource.benchmark";
+    private static final long TIMEOUT_MS = 60_000;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private EventHub eventHub;
+
+    @Before
+    public void setup() {
+        eventHub = new EventHub();
+        eventHub.start();
+    }
+
+    @After
+    public void teardown() {
+        eventHub.shutdown();
+    }
+
+    @Test
+    public void resolveResponses_10InFlight() throws InterruptedException {
+        measureInFlightResponses(10);
+    }
+
+    @Test
+    public void resolveResponses_100InFlight() throws InterruptedException {
+        measureInFlightResponses(100);
+    }
+
+    @Test
+    public void resolveResponses_1000InFlight() throws InterruptedException {
+        measureInFlightResponses(1000);
+    }
+
+    @Test
+    public void resolveResponses_10000InFlight() throws InterruptedException {
+        measureInFlightResponses(10000);
+    }
+
+    private void measureInFlightResponses(final int inFlight) throws InterruptedException {
+        final Event[] triggerEvents = new Event[inFlight];
+        final Event[] responseEvents = new Event[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            triggerEvents[i] =
+                    new Event.Builder("Trigger event " + i, EVENT_TYPE, EVENT_SOURCE).build();
+            responseEvents[i] =
+                    new Event.Builder("Response event " + i, EVENT_TYPE, EVENT_SOURCE)
+                            .inResponseToEvent(triggerEvents[i])
+                            .build();
+        }
+
+        final AtomicReference<CountDownLatch> responded = new AtomicReference<>();
+        final AdobeCallbackWithError<Event> callback =
+                new AdobeCallbackWithError<Event>() {
+                    @Override
+                    public void call(final Event value) {
+                        responded.get().countDown();
+                    }
+
+                    @Override
+                    public void fail(final AdobeError error) {}
+                };
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            responded.set(new CountDownLatch(inFlight));
+            for (final Event triggerEvent : triggerEvents) {
+                eventHub.registerResponseListener(triggerEvent, TIMEOUT_MS, callback);
+            }
+            for (final Event responseEvent : responseEvents) {
+                eventHub.dispatch(responseEvent);
+            }
+            responded.get().await(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.rulesengine.ComparisonExpression;
+import com.adobe.marketing.mobile.rulesengine.ConditionEvaluator;
+import com.adobe.marketing.mobile.rulesengine.Evaluable;
+import com.adobe.marketing.mobile.rulesengine.OperandLiteral;
+import com.adobe.marketing.mobile.rulesengine.OperandMustacheToken;
+import com.adobe.marketing.mobile.rulesengine.RulesEngine;
+import com.adobe.marketing.mobile.rulesengine.TokenFinder;
+import com.adobe.marketing.mobile.rulesengine.Transformer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures evaluating a large rule set whose conditions match the event against string constants
+ * with the startsWith, endsWith and contains operators.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RulesEngineStringMatchBenchmark {
+
+    private static final int RULE_COUNT = 1000;
+    private static final String[] OPERATORS = {"startsWith", "endsWith", "contains"};
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private static final class StringRule implements com.adobe.marketing.mobile.rulesengine.Rule {
+        private final Evaluable evaluable;
+
+        StringRule(final Evaluable evaluable) {
+            this.evaluable = evaluable;
+        }
+
+        @Override
+        public Evaluable getEvaluable() {
+            return evaluable;
+        }
+    }
+
+    @Test
+    public void evaluate_caseInsensitive() {
+        measureEvaluate(new ConditionEvaluator(ConditionEvaluator.Option.CASE_INSENSITIVE));
+    }
+
+    @Test
+    public void evaluate_caseSensitive() {
+        measureEvaluate(new ConditionEvaluator());
+    }
+
+    private void measureEvaluate(final ConditionEvaluator evaluator) {
+        final RulesEngine<StringRule> rulesEngine =
+                new RulesEngine<>(evaluator, new Transformer());
+        rulesEngine.replaceRules(createRules());
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put("url", "https://www.adobe.com/products/catalog/item-500?ref=Benchmark");
+        eventData.put("pageName", "Product Details: Item 500");
+        final TokenFinder tokenFinder = eventData::get;
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            rulesEngine.evaluate(tokenFinder);
+        }
+    }
+
+    private static List<StringRule> createRules() {
+        final List<StringRule> rules = new ArrayList<>(RULE_COUNT);
+        for (int i = 0; i < RULE_COUNT; i++) {
+            final String operator = OPERATORS[i % OPERATORS.length];
+            final String value;
+            switch (operator) {
+                case "startsWith":
+                    value = "https://www.adobe.com/products/catalog/item-" + i;
+                    break;
+                case "endsWith":
+                    value = "?ref=benchmark" + (i % 10 == 0 ? "" : i);
+                    break;
+                default:
+                    value = "item " + i;
+            }
+            final String token = operator.equals("contains") ? "{{pageName}}" : "{{url}}";
+            rules.add(
+                    new StringRule(
+                            new ComparisonExpression<>(
+                                    new OperandMustacheToken<>(token, String.class),
+                                    operator,
+                                    new OperandLiteral<>(value))));
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the throughput of a {@link SerialWorkDispatcher} fed by N concurrent producers, from the
+ * first offer until every item has been processed.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SerialWorkDispatcherThroughputBenchmark {
+
+    private static final int ITEMS_PER_ITERATION = 4096;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final AtomicReference<CountDownLatch> processed = new AtomicReference<>();
+
+    private SerialWorkDispatcher<Integer> dispatcher;
+
+    @Before
+    public void setup() {
+        dispatcher =
+                new SerialWorkDispatcher<>(
+                        "Benchmark",
+                        item -> {
+                            processed.get().countDown();
+                            return true;
+                        });
+        dispatcher.start();
+    }
+
+    @After
+    public void teardown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    public void offer_1Producer() throws Exception {
+        measureThroughput(1);
+    }
+
+    @Test
+    public void offer_4Producers() throws Exception {
+        measureThroughput(4);
+    }
+
+    @Test
+    public void offer_16Producers() throws Exception {
+        measureThroughput(16);
+    }
+
+    private void measureThroughput(final int producers) throws Exception {
+        final ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        final int itemsPerProducer = ITEMS_PER_ITERATION / producers;
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            processed.set(new CountDownLatch(itemsPerProducer * producers));
+            final CyclicBarrier start = new CyclicBarrier(producers);
+            for (int p = 0; p < producers; p++) {
+                producerPool.execute(
+                        () -> {
+                            try {
+                                start.await();
+                            } catch (Exception ignored) {
+                                // Offer regardless so the iteration completes.
+                            }
+                            for (int i = 0; i < itemsPerProducer; i++) {
+                                dispatcher.offer(i);
+                            }
+                        });
+            }
+            processed.get().await(10, TimeUnit.SECONDS);
+        }
+
+        producerPool.shutdown();
+    }
+}
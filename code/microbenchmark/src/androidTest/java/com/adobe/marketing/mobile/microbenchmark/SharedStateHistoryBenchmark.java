@@ -0,0 +1,90 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.internal.eventhub.SharedStateManager;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures version resolution in a SharedStateManager holding a long history, where every tenth
+ * version is left pending.
+ *
+ * <p>Written in Java because SharedStateManager is internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SharedStateHistoryBenchmark {
+
+    private static final int VERSIONS = 1000;
+    private static final int LOOKUPS = 256;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void resolve_1000Versions() {
+        final SharedStateManager manager = createManager();
+        final int[] lookups = createLookups();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (final int version : lookups) {
+                manager.resolve(version);
+            }
+        }
+    }
+
+    @Test
+    public void resolveLastSet_1000Versions() {
+        final SharedStateManager manager = createManager();
+        final int[] lookups = createLookups();
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (final int version : lookups) {
+                manager.resolveLastSet(version);
+            }
+        }
+    }
+
+    @Test
+    public void setState_1000Versions() {
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            createManager();
+        }
+    }
+
+    private static SharedStateManager createManager() {
+        final SharedStateManager manager = new SharedStateManager("benchmark");
+        for (int version = 1; version <= VERSIONS; version++) {
+            if (version % 10 == 0) {
+                manager.setPendingState(version);
+            } else {
+                manager.setState(version, Collections.singletonMap("version", version));
+            }
+        }
+        return manager;
+    }
+
+    private static int[] createLookups() {
+        final Random random = new Random(42);
+        final int[] lookups = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = 1 + random.nextInt(VERSIONS);
+        }
+        return lookups;
+    }
+}
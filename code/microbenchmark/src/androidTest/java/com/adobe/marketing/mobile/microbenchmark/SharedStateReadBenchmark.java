@@ -0,0 +1,140 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.Extension;
+import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.SharedStateResolution;
+import com.adobe.marketing.mobile.internal.eventhub.EventHub;
+import com.adobe.marketing.mobile.internal.eventhub.SharedStateType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import kotlin.Unit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures shared state reads issued concurrently from N threads, simulating extensions calling
+ * getSharedState from their own threads while processing events.
+ *
+ * <p>Written in Java because EventHub is internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SharedStateReadBenchmark {
+
+    private static final int READS_PER_THREAD = 500;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private EventHub eventHub;
+
+    public static class StateOwnerExtension extends Extension {
+        static final String NAME = "com.adobe.benchmark.stateowner";
+
+        public StateOwnerExtension(final ExtensionApi extensionApi) {
+            super(extensionApi);
+        }
+
+        @NonNull @Override
+        protected String getName() {
+            return NAME;
+        }
+    }
+
+    @Before
+    public void setup() throws InterruptedException {
+        eventHub = new EventHub();
+        final CountDownLatch registered = new CountDownLatch(1);
+        eventHub.registerExtension(
+                StateOwnerExtension.class,
+                error -> {
+                    registered.countDown();
+                    return Unit.INSTANCE;
+                });
+        registered.await(1, TimeUnit.SECONDS);
+        eventHub.start();
+
+        final Map<String, Object> state = new HashMap<>();
+        state.put("global.privacy", "optedin");
+        state.put("experienceCloud.org", "benchmark@AdobeOrg");
+        eventHub.createSharedState(
+                SharedStateType.STANDARD, StateOwnerExtension.NAME, state, null);
+    }
+
+    @After
+    public void teardown() {
+        eventHub.shutdown();
+    }
+
+    @Test
+    public void getSharedState_1Thread() throws Exception {
+        measureConcurrentReads(1);
+    }
+
+    @Test
+    public void getSharedState_4Threads() throws Exception {
+        measureConcurrentReads(4);
+    }
+
+    @Test
+    public void getSharedState_8Threads() throws Exception {
+        measureConcurrentReads(8);
+    }
+
+    private void measureConcurrentReads(final int threads) throws Exception {
+        final ExecutorService readers = Executors.newFixedThreadPool(threads);
+        final Runnable readTask =
+                () -> {
+                    for (int i = 0; i < READS_PER_THREAD; i++) {
+                        eventHub.getSharedState(
+                                SharedStateType.STANDARD,
+                                StateOwnerExtension.NAME,
+                                null,
+                                false,
+                                SharedStateResolution.ANY);
+                    }
+                };
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            final CyclicBarrier start = new CyclicBarrier(threads);
+            final CountDownLatch finished = new CountDownLatch(threads);
+            for (int t = 0; t < threads; t++) {
+                readers.execute(
+                        () -> {
+                            try {
+                                start.await();
+                                readTask.run();
+                            } catch (Exception ignored) {
+                                // Counted down regardless so the iteration completes.
+                            } finally {
+                                finished.countDown();
+                            }
+                        });
+            }
+            finished.await(10, TimeUnit.SECONDS);
+        }
+
+        readers.shutdown();
+    }
+}
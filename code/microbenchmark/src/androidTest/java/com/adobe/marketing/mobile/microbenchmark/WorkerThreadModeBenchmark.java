@@ -0,0 +1,120 @@
+/*
+  Copyright 2026 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+ */
+package com.adobe.marketing.mobile.microbenchmark;
+
+import android.os.Debug;
+import android.util.Log;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.adobe.marketing.mobile.internal.util.SharedWorkerPool;
+import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures starting a set of {@link SerialWorkDispatcher}s, one per simulated extension, and
+ * processing a first item on each, with dedicated threads versus strands on {@link
+ * SharedWorkerPool}. The live thread count and native heap growth of each mode are logged under
+ * {@link #LOG_TAG}.
+ *
+ * <p>Written in Java because SharedWorkerPool is internal to the core module.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WorkerThreadModeBenchmark {
+
+    private static final String LOG_TAG = "WorkerThreadModeBenchmark";
+    private static final int DISPATCHERS = 16;
+
+    @Rule public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private interface ExecutorFactory {
+        ExecutorService create(String name);
+    }
+
+    @Test
+    public void startDispatchers_dedicatedThreads() throws InterruptedException {
+        measureDispatcherStartup("dedicated", name -> Executors.newSingleThreadExecutor());
+    }
+
+    @Test
+    public void startDispatchers_sharedPool() throws InterruptedException {
+        measureDispatcherStartup("sharedPool", SharedWorkerPool.INSTANCE::newStrand);
+    }
+
+    private void measureDispatcherStartup(final String mode, final ExecutorFactory factory)
+            throws InterruptedException {
+        final AtomicReference<CountDownLatch> processed = new AtomicReference<>();
+        final SerialWorkDispatcher.WorkHandler<String> handler =
+                item -> {
+                    processed.get().countDown();
+                    return true;
+                };
+
+        final BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            processed.set(new CountDownLatch(DISPATCHERS));
+            final List<SerialWorkDispatcher<String>> dispatchers =
+                    startDispatchers(factory, handler);
+            processed.get().await(5, TimeUnit.SECONDS);
+
+            state.pauseTiming();
+            for (final SerialWorkDispatcher<String> dispatcher : dispatchers) {
+                dispatcher.shutdown();
+            }
+            state.resumeTiming();
+        }
+
+        // Report the footprint of one set of live dispatchers outside of the timed loop.
+        final int threadsBefore = Thread.activeCount();
+        final long nativeHeapBefore = Debug.getNativeHeapAllocatedSize();
+        processed.set(new CountDownLatch(DISPATCHERS));
+        final List<SerialWorkDispatcher<String>> dispatchers = startDispatchers(factory, handler);
+        processed.get().await(5, TimeUnit.SECONDS);
+        Log.i(
+                LOG_TAG,
+                mode
+                        + ": threads +"
+                        + (Thread.activeCount() - threadsBefore)
+                        + ", native heap +"
+                        + (Debug.getNativeHeapAllocatedSize() - nativeHeapBefore)
+                        + " bytes for "
+                        + DISPATCHERS
+                        + " dispatchers");
+        for (final SerialWorkDispatcher<String> dispatcher : dispatchers) {
+            dispatcher.shutdown();
+        }
+    }
+
+    private List<SerialWorkDispatcher<String>> startDispatchers(
+            final ExecutorFactory factory, final SerialWorkDispatcher.WorkHandler<String> handler) {
+        final List<SerialWorkDispatcher<String>> dispatchers = new ArrayList<>(DISPATCHERS);
+        for (int i = 0; i < DISPATCHERS; i++) {
+            final String name = "Dispatcher" + i;
+            final SerialWorkDispatcher<String> dispatcher =
+                    new SerialWorkDispatcher<>(
+                            name, handler, new ConcurrentLinkedQueue<>(), factory.create(name));
+            dispatcher.start();
+            dispatcher.offer("item");
+            dispatchers.add(dispatcher);
+        }
+        return dispatchers;
+    }
+}